@@ -0,0 +1,117 @@
+package com.github.startsmercury.simply.no.shading.entrypoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadeTableSource;
+import com.github.startsmercury.simply.no.shading.test.AllocationCheck;
+
+import me.juancarloscp52.bedrockify.client.features.bedrockShading.BedrockBlockShading;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code BedrockifyTestClientEntrypoint} class is the client entrypoint of
+ * the BedrockIfy test mod. Once the client started, it checks that the shade
+ * table of the {@linkplain SimplyNoShading#getSnapshot() snapshot} was
+ * {@linkplain ShadeTableSource sampled} from BedrockIfy's shading model and
+ * matches the output of BedrockIfy's own math for every face direction and
+ * shade flag, and that the hooked model answers from it with block shading
+ * both enabled and disabled, {@linkplain AllocationCheck allocating} nothing.
+ * Any mismatch or allocation fails the run.
+ *
+ * @since 6.1.0
+ */
+public class BedrockifyTestClientEntrypoint implements ClientModInitializer {
+	/**
+	 * The face directions, kept so that no call clones {@link Direction#values()}.
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * Creates a new {@code BedrockifyTestClientEntrypoint} instance.
+	 */
+	public BedrockifyTestClientEntrypoint() {
+	}
+
+	/**
+	 * Compares the liquid shades of a shading model with the expected ones for
+	 * every face direction and shade flag, collecting the mismatches.
+	 *
+	 * @param shading             the shading model
+	 * @param expected            the expected shade table
+	 * @param blockShadingEnabled whether block shading is enabled
+	 * @param mismatches          the mismatches
+	 */
+	private void compare(final BedrockBlockShading shading,
+	        final float[] expected,
+	        final boolean blockShadingEnabled,
+	        final List<String> mismatches) {
+		for (final var direction : Direction.values())
+			for (final var shade : new boolean[] { false, true }) {
+				final var actual = shading.getLiquidShade(direction, shade);
+				final var wanted = expected[ShadeTableSource.indexOf(direction, shade && blockShadingEnabled)];
+
+				if (Float.compare(actual, wanted) != 0)
+					mismatches.add("getLiquidShade(" + direction + ", " + shade + ") with blockShadingEnabled="
+					        + blockShadingEnabled + " returned " + actual + " instead of " + wanted);
+			}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onInitializeClient() {
+		ClientLifecycleEvents.CLIENT_STARTED.register(this::verify);
+	}
+
+	/**
+	 * Verifies the shade table of a fresh BedrockIfy shading model, throwing when
+	 * it does not match BedrockIfy's output.
+	 *
+	 * @param minecraft the minecraft client
+	 * @throws AssertionError when the shade table does not match
+	 */
+	private void verify(final Minecraft minecraft) {
+		final var shading = new BedrockBlockShading();
+		final var source = (ShadeTableSource) shading;
+		final var expected = new float[ShadeTableSource.TABLE_SIZE];
+		final var mismatches = new ArrayList<String>();
+
+		for (final var direction : Direction.values())
+			for (final var shade : new boolean[] { false, true })
+				expected[ShadeTableSource.indexOf(direction, shade)] = source.simplyNoShading$computeShade(direction,
+				        shade);
+
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		simplyNoShading.resampleShadeTable();
+
+		if (!simplyNoShading.getSnapshot().hasShadeTable(expected))
+			throw new AssertionError("The BedrockIfy shade table was not sampled");
+
+		final var config = simplyNoShading.getConfig();
+
+		try {
+			for (final var blockShadingEnabled : new boolean[] { false, true }) {
+				simplyNoShading.setConfig(Config.builder(config).setBlockShadingEnabled(blockShadingEnabled).build());
+				compare(shading, expected, blockShadingEnabled, mismatches);
+				AllocationCheck.check("BedrockBlockShading.getLiquidShade(Direction, boolean) with blockShadingEnabled="
+				        + blockShadingEnabled,
+				        i -> Float.floatToRawIntBits(shading.getLiquidShade(DIRECTIONS[i % 6], (i & 1) != 0)),
+				        mismatches);
+			}
+		} finally {
+			simplyNoShading.setConfig(config);
+		}
+
+		if (!mismatches.isEmpty())
+			throw new AssertionError("The BedrockIfy shade table does not match or allocated: " + mismatches);
+
+		SimplyNoShading.LOGGER.info("The BedrockIfy shade table matches BedrockIfy for every direction and shade flag");
+	}
+}
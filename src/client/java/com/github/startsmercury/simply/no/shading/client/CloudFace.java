@@ -0,0 +1,98 @@
+package com.github.startsmercury.simply.no.shading.client;
+
+/**
+ * The {@code CloudFace} enum lists the groups of cloud faces that are shaded
+ * alike. Top faces are not listed, as they are the unshaded reference the other
+ * faces are dimmed relative to.
+ *
+ * @since 6.1.0
+ */
+public enum CloudFace {
+	/**
+	 * The faces facing down.
+	 */
+	BOTTOM("bottom", 0.7F),
+
+	/**
+	 * The faces facing north or south.
+	 */
+	NORTH_SOUTH("northSouth", 0.8F),
+
+	/**
+	 * The faces facing east or west.
+	 */
+	EAST_WEST("eastWest", 0.9F);
+
+	/**
+	 * Returns the face group with the name, or {@code null} if there is none.
+	 *
+	 * @param name the name
+	 * @return the face group with the name, possibly {@code null}
+	 */
+	public static CloudFace byName(final String name) {
+		for (final var face : values())
+			if (face.name.equals(name))
+				return face;
+
+		return null;
+	}
+
+	/**
+	 * Returns the face group the cloud renderers dim by the vanilla brightness,
+	 * or {@code null} for the top faces. The brightness is matched to the nearest
+	 * vanilla brightness, so 8-bit color channels holding it are matched as well.
+	 *
+	 * @param brightness the vanilla brightness
+	 * @return the face group dimmed by the brightness, possibly {@code null}
+	 */
+	public static CloudFace ofVanillaBrightness(final float brightness) {
+		if (brightness < 0.75F)
+			return BOTTOM;
+		if (brightness < 0.85F)
+			return NORTH_SOUTH;
+		if (brightness < 0.95F)
+			return EAST_WEST;
+
+		return null;
+	}
+
+	/**
+	 * The name used in the config file.
+	 */
+	private final String name;
+
+	/**
+	 * The brightness the vanilla cloud renderer dims the faces by.
+	 */
+	private final float vanillaBrightness;
+
+	/**
+	 * Creates a new face group.
+	 *
+	 * @param name              the name used in the config file
+	 * @param vanillaBrightness the brightness the vanilla cloud renderer dims the
+	 *                          faces by
+	 */
+	private CloudFace(final String name, final float vanillaBrightness) {
+		this.name = name;
+		this.vanillaBrightness = vanillaBrightness;
+	}
+
+	/**
+	 * Returns the name used in the config file.
+	 *
+	 * @return the name used in the config file
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the brightness the vanilla cloud renderer dims the faces by.
+	 *
+	 * @return the vanilla brightness
+	 */
+	public float getVanillaBrightness() {
+		return this.vanillaBrightness;
+	}
+}
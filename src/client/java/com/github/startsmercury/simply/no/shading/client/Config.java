@@ -1,15 +1,269 @@
 package com.github.startsmercury.simply.no.shading.client;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
 
 /**
- * The {@code Config} class is extendable but immutable collection of data that
- * plays a role in the bahavior of Simply No Shading, primarily in toggling
- * shading.
+ * The {@code Config} class is an immutable collection of data that plays a role
+ * in the bahavior of Simply No Shading, primarily in toggling shading.
+ * <p>
+ * Boolean options are packed as bits into a single {@link #flags int}, so
+ * testing an option is a single mask operation. The other options are weakly
+ * interned together, and each of them holds the configs of every combination
+ * of flags. Built configs are therefore shared by all equal configs, equality
+ * is an identity check, and unused configs are reclaimed. What affects how
+ * sections are meshed is projected into a likewise interned
+ * {@linkplain MeshingKey meshing key}, which the mesh cache is keyed by, so
+ * that configs differing only in their budgets or clouds share cached meshes.
+ * <p>
+ * Block shading applies a {@linkplain #getShadeFactor(Direction) brightness
+ * factor} to each face depending on its direction, defaulting to the vanilla
+ * factors. Blocks listed as {@linkplain #getBlockShadingExemptions()
+ * exemptions} are shaded the other way around.
+ * <p>
+ * Cloud shading likewise dims each {@linkplain CloudFace group of cloud faces}
+ * by a {@linkplain #getCloudShadeFactor(CloudFace) brightness factor},
+ * defaulting to the vanilla factors.
+ * <p>
+ * Flags may be overridden per dimension by {@linkplain #getDimensionProfiles()
+ * dimension profiles}. The config {@linkplain #resolve(ResourceLocation)
+ * resolved} for the current dimension is the one the shading mixins read.
+ * <p>
+ * Sections invalidated by a change are recompiled progressively, submitting
+ * only as many per frame as fit the {@linkplain #getReshadeBudgetMillis()
+ * re-shade budget}. Optionally, the meshes of both shading variants are kept
+ * within a {@linkplain #getMeshCacheBudgetMegabytes() memory budget}, so that
+ * toggling back replays them instead of meshing again.
+ * <p>
+ * With {@linkplain #isFlatLightingEnabled() flat lighting}, block models are
+ * lit without ambient occlusion regardless of the video settings, skipping the
+ * sampling of neighboring light and occlusion altogether.
+ * <p>
+ * With {@linkplain #isNormalShadingEnabled() normal shading}, rotated and
+ * sloped quads are shaded from their actual normal rather than from the face
+ * they nominally belong to. The normals are derived once when quads are baked.
+ * <p>
+ * With {@linkplain #isShaderShadingEnabled() shader shading}, terrain is meshed
+ * without shading and the terrain shaders apply it instead, so that toggling
+ * block shading or changing the shade factors does not mesh blocks again.
  *
  * @since 6.0.0
  */
+@JsonAdapter(Config.Adapter.class)
 public class Config {
+	/**
+	 * The {@code Config.Adapter} class is the type adapter used to (de)serialize
+	 * configs. Each flag is written as a named boolean, the budgets as numbers,
+	 * the shade factors as objects keyed by direction or cloud face names, the
+	 * exemptions as an array of strings, the dimension profiles as an object keyed
+	 * by dimension IDs holding only the overridden flags, and absent or unknown
+	 * names are ignored.
+	 *
+	 * @since 6.1.0
+	 */
+	public static class Adapter extends TypeAdapter<Config> {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Config read(final JsonReader in) throws IOException {
+			final var builder = builder();
+
+			in.beginObject();
+			while (in.hasNext())
+				switch (in.nextName()) {
+				case "blockShadingEnabled" -> builder.setBlockShadingEnabled(in.nextBoolean());
+				case "blockShadingExemptions" -> readBlockShadingExemptions(in, builder);
+				case "cloudShadeFactors" -> readCloudShadeFactors(in, builder);
+				case "cloudShadingEnabled" -> builder.setCloudShadingEnabled(in.nextBoolean());
+				case "dimensionProfiles" -> readDimensionProfiles(in, builder);
+				case "flatLightingEnabled" -> builder.setFlatLightingEnabled(in.nextBoolean());
+				case "meshCacheBudgetMegabytes" -> builder.setMeshCacheBudgetMegabytes(in.nextInt());
+				case "normalShadingEnabled" -> builder.setNormalShadingEnabled(in.nextBoolean());
+				case "reshadeBudgetMillis" -> builder.setReshadeBudgetMillis((float) in.nextDouble());
+				case "shadeFactors" -> readShadeFactors(in, builder);
+				case "shaderShadingEnabled" -> builder.setShaderShadingEnabled(in.nextBoolean());
+				default -> in.skipValue();
+				}
+			in.endObject();
+
+			return builder.build();
+		}
+
+		/**
+		 * Reads the exemptions array into a builder.
+		 *
+		 * @param in      the reader
+		 * @param builder the builder
+		 * @throws IOException when reading fails
+		 */
+		private void readBlockShadingExemptions(final JsonReader in, final Builder builder) throws IOException {
+			final var exemptions = new ArrayList<String>();
+
+			in.beginArray();
+			while (in.hasNext())
+				exemptions.add(in.nextString());
+			in.endArray();
+
+			builder.setBlockShadingExemptions(exemptions);
+		}
+
+		/**
+		 * Reads the cloud shade factors object into a builder. Names that are not
+		 * cloud face names are ignored.
+		 *
+		 * @param in      the reader
+		 * @param builder the builder
+		 * @throws IOException when reading fails
+		 */
+		private void readCloudShadeFactors(final JsonReader in, final Builder builder) throws IOException {
+			in.beginObject();
+			while (in.hasNext()) {
+				final var face = CloudFace.byName(in.nextName());
+
+				if (face != null)
+					builder.setCloudShadeFactor(face, (float) in.nextDouble());
+				else
+					in.skipValue();
+			}
+			in.endObject();
+		}
+
+		/**
+		 * Reads a single dimension profile object.
+		 *
+		 * @param in the reader
+		 * @return the dimension profile
+		 * @throws IOException when reading fails
+		 */
+		private DimensionProfile readDimensionProfile(final JsonReader in) throws IOException {
+			var profile = new DimensionProfile(0, 0);
+
+			in.beginObject();
+			while (in.hasNext())
+				switch (in.nextName()) {
+				case "blockShadingEnabled" -> profile = profile.with(BLOCK_SHADING_FLAG, in.nextBoolean());
+				case "cloudShadingEnabled" -> profile = profile.with(CLOUD_SHADING_FLAG, in.nextBoolean());
+				case "flatLightingEnabled" -> profile = profile.with(FLAT_LIGHTING_FLAG, in.nextBoolean());
+				case "normalShadingEnabled" -> profile = profile.with(NORMAL_SHADING_FLAG, in.nextBoolean());
+				case "shaderShadingEnabled" -> profile = profile.with(SHADER_SHADING_FLAG, in.nextBoolean());
+				default -> in.skipValue();
+				}
+			in.endObject();
+
+			return profile;
+		}
+
+		/**
+		 * Reads the dimension profiles object into a builder. Names that are not
+		 * valid dimension IDs are ignored.
+		 *
+		 * @param in      the reader
+		 * @param builder the builder
+		 * @throws IOException when reading fails
+		 */
+		private void readDimensionProfiles(final JsonReader in, final Builder builder) throws IOException {
+			final var dimensionProfiles = new HashMap<ResourceLocation, DimensionProfile>();
+
+			in.beginObject();
+			while (in.hasNext()) {
+				final var dimension = ResourceLocation.tryParse(in.nextName());
+
+				if (dimension != null)
+					dimensionProfiles.put(dimension, readDimensionProfile(in));
+				else
+					in.skipValue();
+			}
+			in.endObject();
+
+			builder.setDimensionProfiles(dimensionProfiles);
+		}
+
+		/**
+		 * Reads the shade factors object into a builder. Names that are not direction
+		 * names are ignored.
+		 *
+		 * @param in      the reader
+		 * @param builder the builder
+		 * @throws IOException when reading fails
+		 */
+		private void readShadeFactors(final JsonReader in, final Builder builder) throws IOException {
+			in.beginObject();
+			while (in.hasNext()) {
+				final var direction = Direction.byName(in.nextName());
+
+				if (direction != null)
+					builder.setShadeFactor(direction, (float) in.nextDouble());
+				else
+					in.skipValue();
+			}
+			in.endObject();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void write(final JsonWriter out, final Config config) throws IOException {
+			out.beginObject();
+			out.name("blockShadingEnabled").value(config.isBlockShadingEnabled());
+			out.name("blockShadingExemptions").beginArray();
+			for (final var exemption : config.getBlockShadingExemptions())
+				out.value(exemption);
+			out.endArray();
+			out.name("cloudShadeFactors").beginObject();
+			for (final var face : CloudFace.values())
+				out.name(face.getName()).value(config.getCloudShadeFactor(face));
+			out.endObject();
+			out.name("cloudShadingEnabled").value(config.isCloudShadingEnabled());
+			out.name("dimensionProfiles").beginObject();
+			for (final var entry : config.getDimensionProfiles().entrySet()) {
+				final var profile = entry.getValue();
+
+				out.name(entry.getKey().toString()).beginObject();
+				if (profile.overrides(BLOCK_SHADING_FLAG))
+					out.name("blockShadingEnabled").value((profile.flags & BLOCK_SHADING_FLAG) != 0);
+				if (profile.overrides(CLOUD_SHADING_FLAG))
+					out.name("cloudShadingEnabled").value((profile.flags & CLOUD_SHADING_FLAG) != 0);
+				if (profile.overrides(FLAT_LIGHTING_FLAG))
+					out.name("flatLightingEnabled").value((profile.flags & FLAT_LIGHTING_FLAG) != 0);
+				if (profile.overrides(NORMAL_SHADING_FLAG))
+					out.name("normalShadingEnabled").value((profile.flags & NORMAL_SHADING_FLAG) != 0);
+				if (profile.overrides(SHADER_SHADING_FLAG))
+					out.name("shaderShadingEnabled").value((profile.flags & SHADER_SHADING_FLAG) != 0);
+				out.endObject();
+			}
+			out.endObject();
+			out.name("flatLightingEnabled").value(config.isFlatLightingEnabled());
+			out.name("meshCacheBudgetMegabytes").value(config.getMeshCacheBudgetMegabytes());
+			out.name("normalShadingEnabled").value(config.isNormalShadingEnabled());
+			out.name("reshadeBudgetMillis").value(config.getReshadeBudgetMillis());
+			out.name("shadeFactors").beginObject();
+			for (final var direction : Direction.values())
+				out.name(direction.getName()).value(config.getShadeFactor(direction));
+			out.endObject();
+			out.name("shaderShadingEnabled").value(config.isShaderShadingEnabled());
+			out.endObject();
+		}
+	}
+
 	/**
 	 * The {@code Config.Builder} class is the builder for {@code Config}. For
 	 * further details, refer to the {@code Config} class as documenting the builder
@@ -17,22 +271,134 @@ public class Config {
 	 */
 	public static class Builder {
 		/**
-		 * Controls block shading, excluding block entities.
+		 * The block IDs and {@code #}-prefixed block tags shaded the other way
+		 * around.
 		 */
-		private boolean blockShadingEnabled;
+		private List<String> blockShadingExemptions = List.of();
 
 		/**
-		 * Controls cloud shading.
+		 * The cloud shade factors, indexed by {@link CloudFace#ordinal()}.
 		 */
-		private boolean cloudShadingEnabled;
+		private float[] cloudShadeFactors = VANILLA_CLOUD_SHADE_FACTORS;
 
 		/**
-		 * Returns a newly build config.
+		 * The flag overrides of each dimension.
+		 */
+		private Map<ResourceLocation, DimensionProfile> dimensionProfiles = Map.of();
+
+		/**
+		 * The packed boolean options.
+		 */
+		private int flags;
+
+		/**
+		 * The memory in megabytes the cached section meshes may take.
+		 */
+		private int meshCacheBudgetMegabytes;
+
+		/**
+		 * The interned options other than the flags set in this builder, or
+		 * {@code null} when they were not interned yet or changed since.
+		 */
+		private Options options;
+
+		/**
+		 * The meshing time in milliseconds of the re-shades each frame may submit.
+		 */
+		private float reshadeBudgetMillis = DEFAULT_RESHADE_BUDGET_MILLIS;
+
+		/**
+		 * The shade factors, indexed by {@link Direction#get3DDataValue()}.
+		 */
+		private float[] shadeFactors = VANILLA_SHADE_FACTORS;
+
+		/**
+		 * Whether the arrays are shared with interned options, and are therefore
+		 * copied before being changed.
+		 */
+		private boolean shared = true;
+
+		/**
+		 * Returns the config with the options set in this builder. Configs are
+		 * interned, so building unchanged options returns the same instance.
 		 *
-		 * @return a newly build config
+		 * @return the config with the options set in this builder
 		 */
 		public Config build() {
-			return new Config(this.blockShadingEnabled, this.cloudShadingEnabled);
+			var options = this.options;
+
+			if (options == null) {
+				options = Options.INTERNED.intern(new Options(this));
+				this.options = options;
+				this.shared = true;
+			}
+
+			return options.configOf(this.flags);
+		}
+
+		/**
+		 * Returns the block IDs and {@code #}-prefixed block tags shaded the other
+		 * way around.
+		 *
+		 * @return the block shading exemptions
+		 * @since 6.1.0
+		 */
+		public List<String> getBlockShadingExemptions() {
+			return this.blockShadingExemptions;
+		}
+
+		/**
+		 * Returns the brightness factor applied to the cloud faces when cloud
+		 * shading is enabled.
+		 *
+		 * @param face the cloud face group
+		 * @return the brightness factor applied to the cloud faces
+		 * @since 6.1.0
+		 */
+		public float getCloudShadeFactor(final CloudFace face) {
+			return this.cloudShadeFactors[face.ordinal()];
+		}
+
+		/**
+		 * Returns the flag overrides of each dimension.
+		 *
+		 * @return the dimension profiles
+		 * @since 6.1.0
+		 */
+		public Map<ResourceLocation, DimensionProfile> getDimensionProfiles() {
+			return this.dimensionProfiles;
+		}
+
+		/**
+		 * Returns the memory in megabytes the cached section meshes may take.
+		 *
+		 * @return the mesh cache budget in megabytes
+		 * @since 6.1.0
+		 */
+		public int getMeshCacheBudgetMegabytes() {
+			return this.meshCacheBudgetMegabytes;
+		}
+
+		/**
+		 * Returns the meshing time in milliseconds of the re-shades each frame may
+		 * submit.
+		 *
+		 * @return the re-shade budget in milliseconds
+		 * @since 6.1.0
+		 */
+		public float getReshadeBudgetMillis() {
+			return this.reshadeBudgetMillis;
+		}
+
+		/**
+		 * Returns the brightness factor applied to shaded faces in the direction.
+		 *
+		 * @param direction the face direction
+		 * @return the brightness factor applied to shaded faces in the direction
+		 * @since 6.1.0
+		 */
+		public float getShadeFactor(final Direction direction) {
+			return this.shadeFactors[direction.get3DDataValue()];
 		}
 
 		/**
@@ -41,7 +407,7 @@ public class Config {
 		 * @return {@code true} if block shading is enabled; {@code false} otherwise
 		 */
 		public boolean isBlockShadingEnabled() {
-			return this.blockShadingEnabled;
+			return (this.flags & BLOCK_SHADING_FLAG) != 0;
 		}
 
 		/**
@@ -50,7 +416,43 @@ public class Config {
 		 * @return {@code true} if cloud shading is enabled; {@code false} otherwise
 		 */
 		public boolean isCloudShadingEnabled() {
-			return this.cloudShadingEnabled;
+			return (this.flags & CLOUD_SHADING_FLAG) != 0;
+		}
+
+		/**
+		 * Returns {@code true} if block models are lit flat; {@code false}
+		 * otherwise.
+		 *
+		 * @return {@code true} if block models are lit flat; {@code false}
+		 *         otherwise
+		 * @since 6.1.0
+		 */
+		public boolean isFlatLightingEnabled() {
+			return (this.flags & FLAT_LIGHTING_FLAG) != 0;
+		}
+
+		/**
+		 * Returns {@code true} if tilted quads are shaded from their normal;
+		 * {@code false} otherwise.
+		 *
+		 * @return {@code true} if tilted quads are shaded from their normal;
+		 *         {@code false} otherwise
+		 * @since 6.1.0
+		 */
+		public boolean isNormalShadingEnabled() {
+			return (this.flags & NORMAL_SHADING_FLAG) != 0;
+		}
+
+		/**
+		 * Returns {@code true} if terrain shading is applied by the terrain shaders;
+		 * {@code false} otherwise.
+		 *
+		 * @return {@code true} if terrain shading is applied by the terrain shaders;
+		 *         {@code false} otherwise
+		 * @since 6.1.0
+		 */
+		public boolean isShaderShadingEnabled() {
+			return (this.flags & SHADER_SHADING_FLAG) != 0;
 		}
 
 		/**
@@ -60,8 +462,45 @@ public class Config {
 		 * @return {@code this} builder
 		 */
 		public Builder setBlockShadingEnabled(final boolean blockShadingEnabled) {
-			this.blockShadingEnabled = blockShadingEnabled;
+			return setFlag(BLOCK_SHADING_FLAG, blockShadingEnabled);
+		}
 
+		/**
+		 * Sets the block IDs and {@code #}-prefixed block tags shaded the other way
+		 * around, such as {@code minecraft:glass_pane} or {@code #minecraft:leaves}.
+		 *
+		 * @param blockShadingExemptions the block shading exemptions
+		 * @return {@code this} builder
+		 * @since 6.1.0
+		 */
+		public Builder setBlockShadingExemptions(final Collection<String> blockShadingExemptions) {
+			this.blockShadingExemptions = List.copyOf(blockShadingExemptions);
+			this.options = null;
+			return this;
+		}
+
+		/**
+		 * Sets the brightness factor applied to the cloud faces when cloud shading
+		 * is enabled.
+		 *
+		 * @param face             the cloud face group
+		 * @param cloudShadeFactor the brightness factor, from {@code 0.0f} to
+		 *                         {@code 1.0f}
+		 * @return {@code this} builder
+		 * @throws IllegalArgumentException when the factor is not within
+		 *                                  {@code [0.0f, 1.0f]}
+		 * @since 6.1.0
+		 */
+		public Builder setCloudShadeFactor(final CloudFace face, final float cloudShadeFactor) {
+			Objects.requireNonNull(face, "Parameter face was null");
+
+			if (!(cloudShadeFactor >= 0.0F && cloudShadeFactor <= 1.0F))
+				throw new IllegalArgumentException("Cloud shade factor " + cloudShadeFactor + " for " + face
+				        + " is not within [0.0, 1.0]");
+
+			unshare();
+			this.cloudShadeFactors[face.ordinal()] = cloudShadeFactor;
+			this.options = null;
 			return this;
 		}
 
@@ -72,12 +511,439 @@ public class Config {
 		 * @return {@code this} builder
 		 */
 		public Builder setCloudShadingEnabled(final boolean cloudShadingEnabled) {
-			this.cloudShadingEnabled = cloudShadingEnabled;
+			return setFlag(CLOUD_SHADING_FLAG, cloudShadingEnabled);
+		}
+
+		/**
+		 * Sets the flag overrides of each dimension.
+		 *
+		 * @param dimensionProfiles the dimension profiles
+		 * @return {@code this} builder
+		 * @since 6.1.0
+		 */
+		public Builder setDimensionProfiles(final Map<ResourceLocation, DimensionProfile> dimensionProfiles) {
+			this.dimensionProfiles = Map.copyOf(dimensionProfiles);
+			this.options = null;
+			return this;
+		}
+
+		/**
+		 * Sets block models lit flat, without ambient occlusion, or as the video
+		 * settings say.
+		 *
+		 * @param flatLightingEnabled flat lighting flag
+		 * @return {@code this} builder
+		 * @since 6.1.0
+		 */
+		public Builder setFlatLightingEnabled(final boolean flatLightingEnabled) {
+			return setFlag(FLAT_LIGHTING_FLAG, flatLightingEnabled);
+		}
+
+		/**
+		 * Sets the memory in megabytes the cached section meshes may take, or
+		 * {@code 0} to disable the mesh cache.
+		 *
+		 * @param meshCacheBudgetMegabytes the mesh cache budget in megabytes, not
+		 *                                 negative
+		 * @return {@code this} builder
+		 * @throws IllegalArgumentException when the budget is negative
+		 * @since 6.1.0
+		 */
+		public Builder setMeshCacheBudgetMegabytes(final int meshCacheBudgetMegabytes) {
+			if (meshCacheBudgetMegabytes < 0)
+				throw new IllegalArgumentException("Mesh cache budget " + meshCacheBudgetMegabytes
+				        + " MB is negative");
 
+			this.meshCacheBudgetMegabytes = meshCacheBudgetMegabytes;
+			this.options = null;
 			return this;
 		}
+
+		/**
+		 * Sets tilted quads shaded from their normal, or from the face they
+		 * nominally belong to.
+		 *
+		 * @param normalShadingEnabled normal shading flag
+		 * @return {@code this} builder
+		 * @since 6.1.0
+		 */
+		public Builder setNormalShadingEnabled(final boolean normalShadingEnabled) {
+			return setFlag(NORMAL_SHADING_FLAG, normalShadingEnabled);
+		}
+
+		/**
+		 * Sets the meshing time in milliseconds of the re-shades each frame may
+		 * submit.
+		 *
+		 * @param reshadeBudgetMillis the re-shade budget in milliseconds, greater
+		 *                            than {@code 0.0f}
+		 * @return {@code this} builder
+		 * @throws IllegalArgumentException when the budget is not greater than
+		 *                                  {@code 0.0f}
+		 * @since 6.1.0
+		 */
+		public Builder setReshadeBudgetMillis(final float reshadeBudgetMillis) {
+			if (!(reshadeBudgetMillis > 0.0F && reshadeBudgetMillis < Float.POSITIVE_INFINITY))
+				throw new IllegalArgumentException("Re-shade budget " + reshadeBudgetMillis
+				        + " ms is not a positive finite number");
+
+			this.reshadeBudgetMillis = reshadeBudgetMillis;
+			this.options = null;
+			return this;
+		}
+
+		/**
+		 * Sets the brightness factor applied to shaded faces in the direction.
+		 *
+		 * @param direction   the face direction
+		 * @param shadeFactor the brightness factor, from {@code 0.0f} to {@code 1.0f}
+		 * @return {@code this} builder
+		 * @throws IllegalArgumentException when the factor is not within
+		 *                                  {@code [0.0f, 1.0f]}
+		 * @since 6.1.0
+		 */
+		public Builder setShadeFactor(final Direction direction, final float shadeFactor) {
+			Objects.requireNonNull(direction, "Parameter direction was null");
+
+			if (!(shadeFactor >= 0.0F && shadeFactor <= 1.0F))
+				throw new IllegalArgumentException("Shade factor " + shadeFactor + " for " + direction
+				        + " is not within [0.0, 1.0]");
+
+			unshare();
+			this.shadeFactors[direction.get3DDataValue()] = shadeFactor;
+			this.options = null;
+			return this;
+		}
+
+		/**
+		 * Sets terrain shading applied by the terrain shaders or while meshing.
+		 *
+		 * @param shaderShadingEnabled shader shading flag
+		 * @return {@code this} builder
+		 * @since 6.1.0
+		 */
+		public Builder setShaderShadingEnabled(final boolean shaderShadingEnabled) {
+			return setFlag(SHADER_SHADING_FLAG, shaderShadingEnabled);
+		}
+
+		/**
+		 * Sets or clears a flag.
+		 *
+		 * @param flag  the flag mask
+		 * @param value whether the flag is set
+		 * @return {@code this} builder
+		 */
+		private Builder setFlag(final int flag, final boolean value) {
+			if (value)
+				this.flags |= flag;
+			else
+				this.flags &= ~flag;
+
+			return this;
+		}
+
+		/**
+		 * Copies the arrays if they are shared with interned options, so that they
+		 * may be changed.
+		 */
+		private void unshare() {
+			if (!this.shared)
+				return;
+
+			this.cloudShadeFactors = this.cloudShadeFactors.clone();
+			this.shadeFactors = this.shadeFactors.clone();
+			this.shared = false;
+		}
+	}
+
+	/**
+	 * The {@code Config.MeshingKey} class is the projection of a config onto what
+	 * affects how sections are meshed: the block, flat lighting, normal and shader
+	 * shading flags, the shade factors and the block shading exemptions. Keys are
+	 * weakly interned, so equal keys are the same instance while any is in use,
+	 * and unused ones are reclaimed.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final class MeshingKey {
+		/**
+		 * The flags affecting how sections are meshed.
+		 */
+		private static final int FLAGS = BLOCK_SHADING_FLAG | FLAT_LIGHTING_FLAG | NORMAL_SHADING_FLAG
+		        | SHADER_SHADING_FLAG;
+
+		/**
+		 * The interned keys.
+		 */
+		private static final Interner<MeshingKey> INTERNED = Interners.newWeakInterner();
+
+		/**
+		 * The immutable block IDs and {@code #}-prefixed block tags shaded the other
+		 * way around.
+		 */
+		private final List<String> blockShadingExemptions;
+
+		/**
+		 * The packed boolean options affecting how sections are meshed.
+		 */
+		public final int flags;
+
+		/**
+		 * The hash code, computed once.
+		 */
+		private final int hashCode;
+
+		/**
+		 * The shade factors, indexed by {@link Direction#get3DDataValue()}, shared
+		 * with the options. Never exposed, as keys are immutable.
+		 */
+		private final float[] shadeFactors;
+
+		/**
+		 * Creates a new key from the flags and options of a config.
+		 *
+		 * @param flags   the packed boolean options
+		 * @param options the other options
+		 */
+		private MeshingKey(final int flags, final Options options) {
+			this.blockShadingExemptions = options.blockShadingExemptions;
+			this.flags = flags & FLAGS;
+			this.shadeFactors = options.shadeFactors;
+			this.hashCode = (31 * this.flags + Arrays.hashCode(this.shadeFactors)) * 31
+			        + this.blockShadingExemptions.hashCode();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof final MeshingKey other) || this.hashCode != other.hashCode)
+				return false;
+
+			return this.flags == other.flags && Arrays.equals(this.shadeFactors, other.shadeFactors)
+			        && this.blockShadingExemptions.equals(other.blockShadingExemptions);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		/**
+		 * Returns {@code true} if block models are lit flat; {@code false}
+		 * otherwise.
+		 *
+		 * @return {@code true} if block models are lit flat; {@code false}
+		 *         otherwise
+		 * @see Config#isFlatLightingEnabled()
+		 */
+		public boolean isFlatLightingEnabled() {
+			return (this.flags & FLAT_LIGHTING_FLAG) != 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return getClass().getCanonicalName() + "[flags=" + this.flags + ", shadeFactors="
+			        + Arrays.toString(this.shadeFactors) + ", blockShadingExemptions=" + this.blockShadingExemptions
+			        + "]";
+		}
 	}
 
+	/**
+	 * The {@code Config.Options} class holds every option of a config but its
+	 * flags. Options are weakly interned, and hold the config of each combination
+	 * of flags, created when first asked for, so that configs are interned too.
+	 */
+	private static final class Options {
+		/**
+		 * The mask of every known flag.
+		 */
+		private static final int FLAGS = BLOCK_SHADING_FLAG | CLOUD_SHADING_FLAG | FLAT_LIGHTING_FLAG
+		        | NORMAL_SHADING_FLAG | SHADER_SHADING_FLAG;
+
+		/**
+		 * The interned options.
+		 */
+		private static final Interner<Options> INTERNED = Interners.newWeakInterner();
+
+		/**
+		 * The immutable block IDs and {@code #}-prefixed block tags shaded the other
+		 * way around.
+		 */
+		private final List<String> blockShadingExemptions;
+
+		/**
+		 * The cloud shade factors, indexed by {@link CloudFace#ordinal()}. Never
+		 * exposed, as options are immutable.
+		 */
+		private final float[] cloudShadeFactors;
+
+		/**
+		 * The config of each combination of flags, indexed by the flags.
+		 */
+		private final AtomicReferenceArray<Config> configs = new AtomicReferenceArray<>(FLAGS + 1);
+
+		/**
+		 * The immutable flag overrides of each dimension.
+		 */
+		private final Map<ResourceLocation, DimensionProfile> dimensionProfiles;
+
+		/**
+		 * The hash code, computed once.
+		 */
+		private final int hashCode;
+
+		/**
+		 * The memory in megabytes the cached section meshes may take.
+		 */
+		private final int meshCacheBudgetMegabytes;
+
+		/**
+		 * The meshing time in milliseconds of the re-shades each frame may submit.
+		 */
+		private final float reshadeBudgetMillis;
+
+		/**
+		 * The shade factors, indexed by {@link Direction#get3DDataValue()}. Never
+		 * exposed, as options are immutable.
+		 */
+		private final float[] shadeFactors;
+
+		/**
+		 * Creates new options from the builder, taking over its arrays, which it
+		 * copies before changing them again.
+		 *
+		 * @param builder the builder
+		 */
+		private Options(final Builder builder) {
+			this.blockShadingExemptions = builder.blockShadingExemptions;
+			this.cloudShadeFactors = builder.cloudShadeFactors;
+			this.dimensionProfiles = builder.dimensionProfiles;
+			this.meshCacheBudgetMegabytes = builder.meshCacheBudgetMegabytes;
+			this.reshadeBudgetMillis = builder.reshadeBudgetMillis;
+			this.shadeFactors = builder.shadeFactors;
+
+			var hashCode = Arrays.hashCode(this.shadeFactors);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.cloudShadeFactors);
+			hashCode = 31 * hashCode + this.blockShadingExemptions.hashCode();
+			hashCode = 31 * hashCode + this.dimensionProfiles.hashCode();
+			hashCode = 31 * hashCode + this.meshCacheBudgetMegabytes;
+			hashCode = 31 * hashCode + Float.hashCode(this.reshadeBudgetMillis);
+			this.hashCode = hashCode;
+		}
+
+		/**
+		 * Returns the config with the flags and these options, creating it when
+		 * first asked for. Unknown flags are ignored.
+		 *
+		 * @param flags the packed boolean options
+		 * @return the interned config with the flags and these options
+		 */
+		private Config configOf(final int flags) {
+			final var index = flags & FLAGS;
+			final var config = this.configs.get(index);
+
+			if (config != null)
+				return config;
+
+			final var created = new Config(index, this);
+			final var witness = this.configs.compareAndExchange(index, null, created);
+
+			return witness != null ? witness : created;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof final Options other) || this.hashCode != other.hashCode)
+				return false;
+
+			return Arrays.equals(this.shadeFactors, other.shadeFactors)
+			        && Arrays.equals(this.cloudShadeFactors, other.cloudShadeFactors)
+			        && this.blockShadingExemptions.equals(other.blockShadingExemptions)
+			        && this.dimensionProfiles.equals(other.dimensionProfiles)
+			        && this.meshCacheBudgetMegabytes == other.meshCacheBudgetMegabytes
+			        && Float.compare(this.reshadeBudgetMillis, other.reshadeBudgetMillis) == 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/**
+	 * The flag mask controlling block shading, excluding block entities.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final int BLOCK_SHADING_FLAG = 1 << 0;
+
+	/**
+	 * The flag mask controlling cloud shading.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final int CLOUD_SHADING_FLAG = 1 << 1;
+
+	/**
+	 * The default meshing time in milliseconds of the re-shades each frame may
+	 * submit.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final float DEFAULT_RESHADE_BUDGET_MILLIS = 2.0F;
+
+	/**
+	 * The flag mask controlling block models being lit flat, without ambient
+	 * occlusion, regardless of the video settings.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final int FLAT_LIGHTING_FLAG = 1 << 3;
+
+	/**
+	 * The flag mask controlling rotated and sloped quads being shaded from their
+	 * normal rather than from the face they nominally belong to.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final int NORMAL_SHADING_FLAG = 1 << 4;
+
+	/**
+	 * The flag mask controlling terrain shading being applied by the terrain
+	 * shaders rather than while meshing.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final int SHADER_SHADING_FLAG = 1 << 2;
+
+	/**
+	 * The vanilla cloud shade factors, indexed by {@link CloudFace#ordinal()}.
+	 */
+	private static final float[] VANILLA_CLOUD_SHADE_FACTORS = { 0.7F, 0.8F, 0.9F };
+
+	/**
+	 * The vanilla shade factors, indexed by {@link Direction#get3DDataValue()}.
+	 */
+	private static final float[] VANILLA_SHADE_FACTORS = { 0.5F, 1.0F, 0.8F, 0.8F, 0.6F, 0.6F };
+
 	/**
 	 * The config preset where all shading options were disabled.
 	 */
@@ -111,42 +977,96 @@ public class Config {
 	 * @return a new builder
 	 */
 	public static Builder builder(final Config config) {
-		return builder().setBlockShadingEnabled(config.blockShadingEnabled)
-		                .setCloudShadingEnabled(config.cloudShadingEnabled);
+		final var builder = builder();
+		final var options = config.options;
+		builder.blockShadingExemptions = options.blockShadingExemptions;
+		builder.cloudShadeFactors = options.cloudShadeFactors;
+		builder.dimensionProfiles = options.dimensionProfiles;
+		builder.flags = config.flags;
+		builder.meshCacheBudgetMegabytes = options.meshCacheBudgetMegabytes;
+		builder.options = options;
+		builder.reshadeBudgetMillis = options.reshadeBudgetMillis;
+		builder.shadeFactors = options.shadeFactors;
+
+		return builder;
 	}
 
 	/**
 	 * Controls block shading, excluding block entities.
+	 *
+	 * @deprecated Use {@link #isBlockShadingEnabled()} instead.
 	 */
+	@Deprecated(since = "6.1.0", forRemoval = true)
 	public final boolean blockShadingEnabled;
 
 	/**
 	 * Controls cloud shading.
+	 *
+	 * @deprecated Use {@link #isCloudShadingEnabled()} instead.
 	 */
+	@Deprecated(since = "6.1.0", forRemoval = true)
 	public final boolean cloudShadingEnabled;
 
 	/**
-	 * Creates a new config with all the fields set.
+	 * The packed boolean options. Options are tested by masking with their flag,
+	 * such as {@link #BLOCK_SHADING_FLAG}.
+	 *
+	 * @since 6.1.0
+	 */
+	public final int flags;
+
+	/**
+	 * The interned meshing key, computed once.
+	 */
+	private final MeshingKey meshingKey;
+
+	/**
+	 * The interned options other than the flags.
+	 */
+	private final Options options;
+
+	/**
+	 * Creates a new config with all the fields set, and the vanilla options
+	 * otherwise. Unlike built configs, the config is not interned, though it is
+	 * still equal to the built config with the same options.
 	 *
 	 * @param blockShadingEnabled controls block shading, excluding block entities
 	 * @param cloudShadingEnabled controls cloud shading
+	 * @deprecated Use {@link #builder()} instead.
 	 */
+	@Deprecated(since = "6.1.0", forRemoval = true)
 	public Config(final boolean blockShadingEnabled, final boolean cloudShadingEnabled) {
-		this.blockShadingEnabled = blockShadingEnabled;
-		this.cloudShadingEnabled = cloudShadingEnabled;
+		this((blockShadingEnabled ? BLOCK_SHADING_FLAG : 0) | (cloudShadingEnabled ? CLOUD_SHADING_FLAG : 0),
+		        VANILLA.options);
+	}
+
+	/**
+	 * Creates a new config with the flags and the options. Only
+	 * {@link Options#configOf(int)} is meant to call this, so that configs are
+	 * interned.
+	 *
+	 * @param flags   the packed boolean options
+	 * @param options the interned options
+	 */
+	private Config(final int flags, final Options options) {
+		this.blockShadingEnabled = (flags & BLOCK_SHADING_FLAG) != 0;
+		this.cloudShadingEnabled = (flags & CLOUD_SHADING_FLAG) != 0;
+		this.flags = flags;
+		this.meshingKey = MeshingKey.INTERNED.intern(new MeshingKey(flags, options));
+		this.options = options;
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Built configs are interned, so equal ones are the same instance. Only
+	 * configs created by the deprecated constructor are compared by their flags
+	 * and their options, which are interned as well.
 	 */
 	@Override
 	public boolean equals(final Object obj) {
-		if (this == obj)
-			return true;
-		if (obj instanceof final Config other)
-			return this.blockShadingEnabled == other.blockShadingEnabled
-			        && this.cloudShadingEnabled == other.cloudShadingEnabled;
-		return false;
+		return this == obj
+		        || obj instanceof final Config other && this.flags == other.flags && this.options == other.options;
 	}
 
 	/**
@@ -154,7 +1074,117 @@ public class Config {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.blockShadingEnabled, this.cloudShadingEnabled);
+		return 31 * this.options.hashCode + this.flags;
+	}
+
+	/**
+	 * Returns the block IDs and {@code #}-prefixed block tags shaded the other way
+	 * around. They are shaded when block shading is disabled, and unshaded when it
+	 * is enabled.
+	 *
+	 * @return the immutable block shading exemptions
+	 * @since 6.1.0
+	 */
+	public List<String> getBlockShadingExemptions() {
+		return this.options.blockShadingExemptions;
+	}
+
+	/**
+	 * Returns the brightness factor applied to the cloud faces. It only takes
+	 * effect when {@linkplain #isCloudShadingEnabled() cloud shading is enabled}.
+	 *
+	 * @param face the cloud face group
+	 * @return the brightness factor applied to the cloud faces
+	 * @since 6.1.0
+	 */
+	public float getCloudShadeFactor(final CloudFace face) {
+		return this.options.cloudShadeFactors[face.ordinal()];
+	}
+
+	/**
+	 * Returns the flag overrides of each dimension, keyed by dimension ID.
+	 *
+	 * @return the immutable dimension profiles
+	 * @since 6.1.0
+	 */
+	public Map<ResourceLocation, DimensionProfile> getDimensionProfiles() {
+		return this.options.dimensionProfiles;
+	}
+
+	/**
+	 * Returns the memory in megabytes the cached section meshes may take. The
+	 * mesh cache is disabled when it is {@code 0}, which is the default.
+	 *
+	 * @return the mesh cache budget in megabytes
+	 * @since 6.1.0
+	 */
+	public int getMeshCacheBudgetMegabytes() {
+		return this.options.meshCacheBudgetMegabytes;
+	}
+
+	/**
+	 * Returns the meshing time in milliseconds of the re-shades each frame may
+	 * submit. Sections are weighed by the meshing time measured on the compile
+	 * worker threads, so the budget bounds the work handed to them rather than
+	 * the time spent submitting. At least one section is submitted per frame
+	 * regardless. With Sodium, which rebuilds the visible sections within its
+	 * own per-frame limits and defers the others, the budget does not apply.
+	 *
+	 * @return the re-shade budget in milliseconds
+	 * @since 6.1.0
+	 */
+	public float getReshadeBudgetMillis() {
+		return this.options.reshadeBudgetMillis;
+	}
+
+	/**
+	 * Returns the {@linkplain MeshingKey meshing key} of the config, interned so
+	 * that equal keys are the same instance.
+	 *
+	 * @return the interned meshing key
+	 * @since 6.1.0
+	 */
+	public MeshingKey getMeshingKey() {
+		return this.meshingKey;
+	}
+
+	/**
+	 * Returns the brightness factor applied to shaded faces in the direction. It
+	 * only takes effect when {@linkplain #isBlockShadingEnabled() block shading is
+	 * enabled}.
+	 *
+	 * @param direction the face direction
+	 * @return the brightness factor applied to shaded faces in the direction
+	 * @since 6.1.0
+	 */
+	public float getShadeFactor(final Direction direction) {
+		return this.options.shadeFactors[direction.get3DDataValue()];
+	}
+
+	/**
+	 * Returns {@code true} if both configs share the same cloud shade factors;
+	 * {@code false} otherwise.
+	 *
+	 * @param other the other config
+	 * @return {@code true} if both configs share the same cloud shade factors;
+	 *         {@code false} otherwise
+	 * @since 6.1.0
+	 */
+	public boolean hasSameCloudShadeFactors(final Config other) {
+		return Arrays.equals(this.options.cloudShadeFactors, other.options.cloudShadeFactors);
+	}
+
+	/**
+	 * Returns {@code true} if both configs share the same shade factors;
+	 * {@code false} otherwise.
+	 *
+	 * @param other the other config
+	 * @return {@code true} if both configs share the same shade factors;
+	 *         {@code false} otherwise
+	 * @since 6.1.0
+	 */
+	public boolean hasSameShadeFactors(final Config other) {
+		return Arrays.equals(this.options.shadeFactors, other.options.shadeFactors);
 	}
 
 	/**
@@ -163,7 +1193,7 @@ public class Config {
 	 * @return {@code true} if block shading is enabled; {@code false} otherwise
 	 */
 	public boolean isBlockShadingEnabled() {
-		return this.blockShadingEnabled;
+		return (this.flags & BLOCK_SHADING_FLAG) != 0;
 	}
 
 	/**
@@ -172,7 +1202,45 @@ public class Config {
 	 * @return {@code true} if cloud shading is enabled; {@code false} otherwise
 	 */
 	public boolean isCloudShadingEnabled() {
-		return this.cloudShadingEnabled;
+		return (this.flags & CLOUD_SHADING_FLAG) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if block models are lit flat, without ambient
+	 * occlusion, even when smooth lighting is enabled in the video settings;
+	 * {@code false} otherwise.
+	 *
+	 * @return {@code true} if block models are lit flat; {@code false} otherwise
+	 * @since 6.1.0
+	 */
+	public boolean isFlatLightingEnabled() {
+		return (this.flags & FLAT_LIGHTING_FLAG) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if rotated and sloped quads are shaded from their
+	 * actual normal, blending the shade factors of the faces it leans towards;
+	 * {@code false} if they are shaded like the face they nominally belong to.
+	 *
+	 * @return {@code true} if tilted quads are shaded from their normal;
+	 *         {@code false} otherwise
+	 * @since 6.1.0
+	 */
+	public boolean isNormalShadingEnabled() {
+		return (this.flags & NORMAL_SHADING_FLAG) != 0;
+	}
+
+	/**
+	 * Returns {@code true} if terrain shading is applied by the terrain shaders
+	 * rather than while meshing; {@code false} otherwise. It only takes effect
+	 * when the terrain shaders could be patched.
+	 *
+	 * @return {@code true} if terrain shading is applied by the terrain shaders;
+	 *         {@code false} otherwise
+	 * @since 6.1.0
+	 */
+	public boolean isShaderShadingEnabled() {
+		return (this.flags & SHADER_SHADING_FLAG) != 0;
 	}
 
 	/**
@@ -180,7 +1248,53 @@ public class Config {
 	 */
 	@Override
 	public String toString() {
-		return getClass().getCanonicalName() + "[blockShadingEnabled=" + this.blockShadingEnabled
-		        + ", cloadShadingEnabled=" + this.cloudShadingEnabled + "]";
+		return getClass().getCanonicalName() + "[blockShadingEnabled=" + isBlockShadingEnabled()
+		        + ", cloadShadingEnabled=" + isCloudShadingEnabled() + ", flatLightingEnabled="
+		        + isFlatLightingEnabled() + ", normalShadingEnabled=" + isNormalShadingEnabled()
+		        + ", shaderShadingEnabled=" + isShaderShadingEnabled()
+		        + ", shadeFactors=" + Arrays.toString(this.options.shadeFactors)
+		        + ", cloudShadeFactors=" + Arrays.toString(this.options.cloudShadeFactors)
+		        + ", blockShadingExemptions=" + this.options.blockShadingExemptions
+		        + ", dimensionProfiles=" + this.options.dimensionProfiles + ", meshCacheBudgetMegabytes="
+		        + this.options.meshCacheBudgetMegabytes + ", reshadeBudgetMillis=" + this.options.reshadeBudgetMillis
+		        + "]";
+	}
+
+	/**
+	 * Returns the config with the profile of the dimension applied. The resolved
+	 * config keeps every profile, but only its flags are meant to be read.
+	 *
+	 * @param dimension the dimension ID, possibly {@code null} when there is no
+	 *                  level
+	 * @return the config with the profile of the dimension applied; {@code this}
+	 *         if the dimension has no profile
+	 * @since 6.1.0
+	 */
+	public Config resolve(final ResourceLocation dimension) {
+		if (dimension == null)
+			return this;
+
+		final var profile = this.options.dimensionProfiles.get(dimension);
+
+		if (profile == null)
+			return this;
+
+		return withFlags(profile.apply(this.flags));
+	}
+
+	/**
+	 * Returns the config with the given flags and the same other options. Unknown
+	 * flags are ignored.
+	 *
+	 * @param flags the packed boolean options
+	 * @return the interned config with the given flags; {@code this} if they are
+	 *         unchanged
+	 * @since 6.1.0
+	 */
+	public Config withFlags(final int flags) {
+		if (flags == this.flags)
+			return this;
+
+		return this.options.configOf(flags);
 	}
 }
@@ -0,0 +1,87 @@
+package com.github.startsmercury.simply.no.shading.client;
+
+/**
+ * The {@code DimensionProfile} class is an immutable set of flag overrides that
+ * applies to a single dimension. Only the flags in its {@link #mask} are
+ * overridden, and the rest keep their value from the base {@link Config}.
+ *
+ * @since 6.1.0
+ */
+public final class DimensionProfile {
+	/**
+	 * The overriding values of the flags in the {@link #mask}.
+	 */
+	public final int flags;
+
+	/**
+	 * The flags that are overridden, such as {@link Config#BLOCK_SHADING_FLAG}.
+	 */
+	public final int mask;
+
+	/**
+	 * Creates a new profile overriding the flags in the mask.
+	 *
+	 * @param mask  the flags that are overridden
+	 * @param flags the overriding values, outside bits are ignored
+	 */
+	public DimensionProfile(final int mask, final int flags) {
+		this.flags = flags & mask;
+		this.mask = mask;
+	}
+
+	/**
+	 * Returns the flags with the overrides of this profile applied.
+	 *
+	 * @param flags the base flags
+	 * @return the flags with the overrides of this profile applied
+	 */
+	public int apply(final int flags) {
+		return flags & ~this.mask | this.flags;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		return this == obj
+		        || obj instanceof final DimensionProfile other && this.flags == other.flags && this.mask == other.mask;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * this.mask + this.flags;
+	}
+
+	/**
+	 * Returns {@code true} if the flag is overridden; {@code false} otherwise.
+	 *
+	 * @param flag the flag mask
+	 * @return {@code true} if the flag is overridden; {@code false} otherwise
+	 */
+	public boolean overrides(final int flag) {
+		return (this.mask & flag) != 0;
+	}
+
+	/**
+	 * Returns a profile that also overrides the flag with the value.
+	 *
+	 * @param flag  the flag mask
+	 * @param value whether the flag is set
+	 * @return a profile that also overrides the flag with the value
+	 */
+	public DimensionProfile with(final int flag, final boolean value) {
+		return new DimensionProfile(this.mask | flag, value ? this.flags | flag : this.flags & ~flag);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + "[mask=" + this.mask + ", flags=" + this.flags + "]";
+	}
+}
@@ -0,0 +1,167 @@
+package com.github.startsmercury.simply.no.shading.client;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code ShadingHooks} class holds the bodies of the per-vertex and
+ * per-face shading mixin handlers as plain static methods. Mixin classes are
+ * never loaded on their own, so the handlers only delegate here, which lets the
+ * benchmarks and the allocation test of the test mod call the exact code the
+ * hooks run.
+ * <p>
+ * Every method reads the {@linkplain SimplyNoShading#getSnapshot() snapshot}
+ * once and allocates nothing.
+ *
+ * @since 6.1.0
+ */
+public class ShadingHooks {
+	/**
+	 * Returns the packed color the cloud faces the original face color dims are
+	 * multiplied by, told apart by its red channel, or the original color for the
+	 * top faces.
+	 *
+	 * @param faceColor the original face color
+	 * @return the {@linkplain ShadingSnapshot#getCloudFaceColor(CloudFace)
+	 *         precomputed color} of the cloud faces; {@code faceColor} for the top
+	 *         faces
+	 */
+	public static int getCloudFaceColor(final int faceColor) {
+		final var face = CloudFace.ofVanillaBrightness((faceColor & 0xFF) / 255.0F);
+
+		if (face == null)
+			return faceColor;
+
+		return SimplyNoShading.getFirstInstance().getSnapshot().getCloudFaceColor(face);
+	}
+
+	/**
+	 * Returns the brightness factor of the cloud faces the vanilla brightness
+	 * dims.
+	 *
+	 * @param vanillaBrightness the vanilla brightness, one of {@code 0.7f},
+	 *                          {@code 0.8f} and {@code 0.9f}
+	 * @return the {@linkplain ShadingSnapshot#getCloudShade(CloudFace) brightness
+	 *         factor} of the cloud faces
+	 */
+	public static float getCloudShade(final float vanillaBrightness) {
+		return SimplyNoShading.getFirstInstance()
+		        .getSnapshot()
+		        .getCloudShade(CloudFace.ofVanillaBrightness(vanillaBrightness));
+	}
+
+	/**
+	 * Returns the brightness factor of faces of the fluid block state in the
+	 * direction, which is {@code 1.0f} when the block state is not
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) shaded}.
+	 *
+	 * @param direction the face direction
+	 * @param state     the block state of the fluid
+	 * @return the {@linkplain ShadingSnapshot#getShadeFactor(Direction)
+	 *         configured brightness factor} of the direction if the block state
+	 *         is shaded; {@code 1.0f} otherwise
+	 */
+	public static float getFluidShade(final Direction direction, final BlockState state) {
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+
+		return snapshot.isBlockShaded(state) ? snapshot.getShadeFactor(direction) : 1.0F;
+	}
+
+	/**
+	 * Returns the factor the brightness of a quad baked shaded is multiplied by
+	 * when it is {@linkplain ShadingSnapshot#getNormalIndex(Object) shaded from
+	 * its normal}, or {@code 1.0f} when it is axis aligned or the block state is
+	 * not {@linkplain ShadingSnapshot#isBlockShaded(BlockState) shaded}. Tilted
+	 * quads are lit as unshaded, so this is the only place their block state is
+	 * checked, which matters for models without an unshaded variant.
+	 *
+	 * @param quad  the quad baked shaded
+	 * @param state the block state
+	 * @return the {@linkplain ShadingSnapshot#getNormalShade(int) relative
+	 *         brightness factor} of the normal of the quad; {@code 1.0f} if it is
+	 *         not shaded from its normal
+	 */
+	public static float getNormalShade(final Object quad, final BlockState state) {
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+		final var normalIndex = snapshot.getNormalIndex(quad);
+
+		if (normalIndex == QuadNormals.AXIS_ALIGNED || !snapshot.isBlockShaded(state))
+			return 1.0F;
+
+		return snapshot.getNormalShade(normalIndex);
+	}
+
+	/**
+	 * Returns the brightness factor of shaded faces in the direction.
+	 *
+	 * @param direction the face direction
+	 * @return the {@linkplain ShadingSnapshot#getShadeFactor(Direction)
+	 *         configured brightness factor} of the direction
+	 */
+	public static float getShadeFactor(final Direction direction) {
+		return SimplyNoShading.getFirstInstance().getSnapshot().getShadeFactor(direction);
+	}
+
+	/**
+	 * Returns the brightness factor of faces in the direction from the shade table
+	 * sampled from the shading model of a mod.
+	 *
+	 * @param direction the face direction
+	 * @param shade     whether the face is shaded
+	 * @return the {@linkplain ShadingSnapshot#getTableShade(Direction, boolean)
+	 *         sampled brightness factor} of faces in the direction
+	 */
+	public static float getTableShade(final Direction direction, final boolean shade) {
+		return SimplyNoShading.getFirstInstance().getSnapshot().getTableShade(direction, shade);
+	}
+
+	/**
+	 * Returns {@code true} if {@code shade} is {@code true} and
+	 * {@linkplain ShadingSnapshot#isAnyBlockShaded() any block may be shaded};
+	 * {@code false} otherwise.
+	 *
+	 * @param shade the shade
+	 * @return {@code true} if {@code shade} is {@code true} and any block may be
+	 *         shaded; {@code false} otherwise
+	 */
+	public static boolean isFaceShaded(final boolean shade) {
+		return shade && SimplyNoShading.getFirstInstance().getSnapshot().isAnyBlockShaded();
+	}
+
+	/**
+	 * Returns {@code true} if {@code shade} is {@code true} and the block state
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded};
+	 * {@code false} otherwise.
+	 *
+	 * @param shade the shade
+	 * @param state the block state
+	 * @return {@code true} if {@code shade} is {@code true} and the block state is
+	 *         shaded; {@code false} otherwise
+	 */
+	public static boolean isLiquidShaded(final boolean shade, final BlockState state) {
+		return shade && SimplyNoShading.getFirstInstance().getSnapshot().isBlockShaded(state);
+	}
+
+	/**
+	 * Returns {@code true} if the quad was baked shaded and
+	 * {@linkplain Config#isBlockShadingEnabled() block shading is enabled};
+	 * {@code false} otherwise. Quads baked unshaded are answered without reading
+	 * the snapshot.
+	 *
+	 * @param bakedShade whether the quad was baked shaded
+	 * @return {@code true} if the quad was baked shaded and block shading is
+	 *         enabled; {@code false} otherwise
+	 */
+	public static boolean isQuadShaded(final boolean bakedShade) {
+		return bakedShade && SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isBlockShadingEnabled();
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ShadingHooks() {
+	}
+}
@@ -0,0 +1,555 @@
+package com.github.startsmercury.simply.no.shading.client;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockShadingExemptions;
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockStateIdCache;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormalHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadeTableSource;
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code ShadingSnapshot} class is an immutable view of everything the
+ * shading mixins read, stamped with a generation. A new snapshot with a greater
+ * generation is published every time a change affects how sections are meshed,
+ * so that work started under one snapshot can tell whether it became outdated.
+ * Changes that do not, such as to the clouds or the budgets, keep the
+ * generation.
+ * <p>
+ * The config is {@linkplain Config#resolve(ResourceLocation) resolved} for the
+ * dimension being rendered once, when the snapshot is taken, so the hooks never
+ * look up dimension profiles.
+ *
+ * @since 6.1.0
+ */
+public final class ShadingSnapshot {
+	/**
+	 * The config resolved for the dimension, read by the shading mixins.
+	 */
+	public final Config activeConfig;
+
+	/**
+	 * Whether any block state may be shaded, either because block shading is
+	 * enabled or because some block is exempted from it being disabled.
+	 */
+	private final boolean anyBlockShaded;
+
+	/**
+	 * The brightness factor of each face direction, indexed by
+	 * {@link Direction#get3DDataValue()}. Every entry is {@code 1.0f} when block
+	 * shading is disabled.
+	 */
+	private final float[] blockShades;
+
+	/**
+	 * The packed opaque gray color of each cloud face group, indexed by
+	 * {@link CloudFace#ordinal()}, for cloud renderers that multiply colors
+	 * rather than channels.
+	 */
+	private final int[] cloudFaceColors;
+
+	/**
+	 * The brightness factor of each cloud face group, indexed by
+	 * {@link CloudFace#ordinal()}. Every entry is {@code 1.0f} when cloud shading
+	 * is disabled.
+	 */
+	private final float[] cloudShades;
+
+	/**
+	 * The {@link #cloudShades} as an immutable list, comparable by content.
+	 */
+	private final List<Float> cloudShadeList;
+
+	/**
+	 * The config the snapshot was taken of, before being resolved for the
+	 * dimension.
+	 */
+	public final Config config;
+
+	/**
+	 * The ID of the dimension being rendered, or {@code null} when there is no
+	 * level.
+	 */
+	public final ResourceLocation dimension;
+
+	/**
+	 * Whether the dimension has constant ambient light, like the Nether, where
+	 * unshaded faces are dimmed uniformly.
+	 */
+	public final boolean constantAmbientLight;
+
+	/**
+	 * Whether every face is lit without any diffuse factor, as no block is shaded
+	 * and the dimension has no constant ambient light.
+	 */
+	private final boolean diffuseFree;
+
+	/**
+	 * The {@linkplain BlockShadingExemptions#resolve(java.util.List) resolved}
+	 * exemptions, indexed by block state registry id. Never exposed, as snapshots
+	 * are immutable.
+	 */
+	private final BitSet exemptIds;
+
+	/**
+	 * The generation of the snapshot. Each published snapshot that meshes
+	 * sections differently has a greater generation than the previous one.
+	 */
+	public final long generation;
+
+	/**
+	 * The interned {@linkplain Config.MeshingKey meshing key} of the active
+	 * config, which meshes of sections are cached by.
+	 */
+	public final Config.MeshingKey meshingKey;
+
+	/**
+	 * The brightness factor of tilted quads, indexed by the
+	 * {@linkplain QuadNormals#indexOf(int[], Direction) index of their normal}
+	 * and relative to the factor the level already applies to unshaded faces.
+	 * Only filled while {@link #normalShading} is in effect.
+	 */
+	private final float[] normalShades;
+
+	/**
+	 * Whether tilted quads are shaded from their normal while meshing, as it is
+	 * enabled, some block may be shaded, and the terrain shaders do not shade the
+	 * blocks.
+	 */
+	private final boolean normalShading;
+
+	/**
+	 * The configured brightness factor of each face direction, indexed by
+	 * {@link Direction#get3DDataValue()}, regardless of block shading being
+	 * enabled.
+	 */
+	private final float[] shadeFactors;
+
+	/**
+	 * The shade table {@linkplain ShadeTableSource#simplyNoShading$sampleShadeTable(float[])
+	 * sampled} from the shading model of a mod shading faces on its own, or
+	 * {@code null} if there is none. Never exposed, as snapshots are immutable.
+	 */
+	private final float[] shadeTable;
+
+	/**
+	 * Whether terrain shading is applied by the terrain shaders, as it is enabled
+	 * and the terrain shaders {@linkplain TerrainShaders#isAvailable() could be
+	 * patched}.
+	 */
+	private final boolean shaderShading;
+
+	/**
+	 * The brightness factor of faces of each direction and shade flag, indexed by
+	 * {@link ShadeTableSource#indexOf(Direction, boolean)}. It is the
+	 * {@link #shadeTable}, with shaded faces answered from the unshaded entries
+	 * when block shading is disabled, or the {@link #blockShades} when there is no
+	 * shade table.
+	 */
+	private final float[] tableShades;
+
+	/**
+	 * Creates a new snapshot of a config for a dimension with a generation. The
+	 * block shading exemptions are resolved against the block registry and its
+	 * currently bound tags.
+	 *
+	 * @param config               the config
+	 * @param dimension            the ID of the dimension being rendered,
+	 *                             possibly {@code null}
+	 * @param constantAmbientLight whether the dimension has constant ambient
+	 *                             light
+	 * @param shadeTable           the shade table sampled from the shading model
+	 *                             of a mod, possibly {@code null}; it is not
+	 *                             copied and must not be changed afterwards
+	 * @param generation           the generation
+	 */
+	public ShadingSnapshot(final Config config,
+	        final ResourceLocation dimension,
+	        final boolean constantAmbientLight,
+	        final float[] shadeTable,
+	        final long generation) {
+		Objects.requireNonNull(config, "Parameter config was null");
+
+		this.activeConfig = config.resolve(dimension);
+		this.config = config;
+		this.constantAmbientLight = constantAmbientLight;
+		this.dimension = dimension;
+		this.generation = generation;
+		this.meshingKey = this.activeConfig.getMeshingKey();
+		this.shadeFactors = new float[Direction.values().length];
+		this.blockShades = new float[Direction.values().length];
+
+		for (final var direction : Direction.values())
+			this.shadeFactors[direction.get3DDataValue()] = config.getShadeFactor(direction);
+
+		if (this.activeConfig.isBlockShadingEnabled())
+			System.arraycopy(this.shadeFactors, 0, this.blockShades, 0, this.blockShades.length);
+		else
+			Arrays.fill(this.blockShades, 1.0F);
+
+		this.shadeTable = shadeTable;
+		this.tableShades = new float[ShadeTableSource.TABLE_SIZE];
+
+		for (final var direction : Direction.values()) {
+			final var unshaded = ShadeTableSource.indexOf(direction, false);
+			final var shaded = ShadeTableSource.indexOf(direction, true);
+
+			if (shadeTable == null) {
+				this.tableShades[unshaded] = 1.0F;
+				this.tableShades[shaded] = this.blockShades[direction.get3DDataValue()];
+			} else {
+				this.tableShades[unshaded] = shadeTable[unshaded];
+				this.tableShades[shaded] = shadeTable[this.activeConfig.isBlockShadingEnabled() ? shaded : unshaded];
+			}
+		}
+
+		this.cloudShades = new float[CloudFace.values().length];
+		this.cloudFaceColors = new int[CloudFace.values().length];
+		final var boxedCloudShades = new Float[CloudFace.values().length];
+
+		for (final var face : CloudFace.values()) {
+			final var cloudShade = this.activeConfig.isCloudShadingEnabled() ? config.getCloudShadeFactor(face) : 1.0F;
+			final var channel = (int) (cloudShade * 255.0F);
+
+			this.cloudShades[face.ordinal()] = cloudShade;
+			boxedCloudShades[face.ordinal()] = cloudShade;
+			this.cloudFaceColors[face.ordinal()] = 0xFF000000 | channel << 16 | channel << 8 | channel;
+		}
+
+		this.cloudShadeList = List.of(boxedCloudShades);
+
+		final var exemptions = config.getBlockShadingExemptions();
+		this.exemptIds = exemptions.isEmpty() ? new BitSet() : BlockShadingExemptions.resolve(exemptions);
+		this.anyBlockShaded = this.activeConfig.isBlockShadingEnabled() || !this.exemptIds.isEmpty();
+		this.diffuseFree = !this.anyBlockShaded && !constantAmbientLight;
+		this.shaderShading = this.activeConfig.isShaderShadingEnabled() && TerrainShaders.isAvailable();
+		this.normalShading = this.activeConfig.isNormalShadingEnabled() && this.anyBlockShaded && !this.shaderShading;
+		this.normalShades = new float[QuadNormals.TABLE_SIZE];
+
+		if (this.normalShading) {
+			final var unshaded = constantAmbientLight ? 0.9F : 1.0F;
+			final var sideShades = new float[Direction.values().length];
+
+			for (final var direction : Direction.values()) {
+				final var vertical = direction.getAxis() == Direction.Axis.Y;
+				final var shade = constantAmbientLight && vertical ? 0.9F : getShadeFactor(direction);
+
+				sideShades[direction.get3DDataValue()] = shade / unshaded;
+			}
+
+			for (var index = 0; index < this.normalShades.length; index++)
+				this.normalShades[index] = QuadNormals.shadeOf(index, sideShades);
+		}
+	}
+
+	/**
+	 * Returns the brightness factor of faces in the direction, as precomputed from
+	 * the config. It is a single array read, cheap enough for per-face hooks, and
+	 * is meant for paths that do not know which block is being shaded.
+	 *
+	 * @param direction the face direction
+	 * @return the brightness factor of faces in the direction
+	 */
+	public float getBlockShade(final Direction direction) {
+		return this.blockShades[direction.get3DDataValue()];
+	}
+
+	/**
+	 * Returns the packed opaque gray color the cloud faces are multiplied by. The
+	 * color channels hold the {@linkplain #getCloudShade(CloudFace) brightness
+	 * factor} scaled to {@code 255}, so the byte order does not matter.
+	 *
+	 * @param face the cloud face group
+	 * @return the packed opaque gray color the cloud faces are multiplied by
+	 */
+	public int getCloudFaceColor(final CloudFace face) {
+		return this.cloudFaceColors[face.ordinal()];
+	}
+
+	/**
+	 * Returns the brightness factor of the cloud faces, as precomputed from the
+	 * config. It is a single array read, cheap enough for per-vertex hooks.
+	 *
+	 * @param face the cloud face group
+	 * @return the brightness factor of the cloud faces
+	 */
+	public float getCloudShade(final CloudFace face) {
+		return this.cloudShades[face.ordinal()];
+	}
+
+	/**
+	 * Returns the brightness factor of every cloud face group, indexed by
+	 * {@link CloudFace#ordinal()}. Clouds built under snapshots with equal lists
+	 * look the same, so it is meant for keying cloud geometry.
+	 *
+	 * @return the immutable brightness factors of the cloud face groups
+	 */
+	public List<Float> getCloudShades() {
+		return this.cloudShadeList;
+	}
+
+	/**
+	 * Returns the {@linkplain QuadNormals#indexOf(int[], Direction) index of the
+	 * normal} of a quad if it is to be shaded from its normal, or
+	 * {@link QuadNormals#AXIS_ALIGNED} if it is shaded like the face it nominally
+	 * belongs to, which is always the case while normal shading is not in effect.
+	 * It is a field read, cheap enough for per-quad hooks.
+	 *
+	 * @param quad the quad, which may be any quad view
+	 * @return the index of the normal of the quad, or
+	 *         {@link QuadNormals#AXIS_ALIGNED}
+	 */
+	public int getNormalIndex(final Object quad) {
+		if (!this.normalShading || !(quad instanceof final QuadNormalHolder holder))
+			return QuadNormals.AXIS_ALIGNED;
+
+		return holder.simplyNoShading$getNormalIndex();
+	}
+
+	/**
+	 * Returns the brightness factor of shaded quads with the normal, relative to
+	 * the factor the level applies to unshaded faces, as precomputed from the
+	 * config. Hooks shade such quads as unshaded, then multiply by it.
+	 *
+	 * @param normalIndex the index of the normal, not
+	 *                    {@link QuadNormals#AXIS_ALIGNED}
+	 * @return the relative brightness factor of quads with the normal
+	 */
+	public float getNormalShade(final int normalIndex) {
+		return this.normalShades[normalIndex];
+	}
+
+	/**
+	 * Returns the configured brightness factor of shaded faces in the direction,
+	 * regardless of block shading being enabled. It is meant for paths that
+	 * already decided the face is shaded.
+	 *
+	 * @param direction the face direction
+	 * @return the configured brightness factor of shaded faces in the direction
+	 */
+	public float getShadeFactor(final Direction direction) {
+		return this.shadeFactors[direction.get3DDataValue()];
+	}
+
+	/**
+	 * Returns the brightness factor of faces in the direction from the shade
+	 * table sampled from the shading model of a mod, shaded only if {@code shade}
+	 * is {@code true} and block shading is enabled. It is a single array read,
+	 * cheap enough for per-vertex hooks. Without a shade table, it is
+	 * {@link #getBlockShade(Direction)} for shaded faces and {@code 1.0f} for the
+	 * others.
+	 *
+	 * @param direction the face direction
+	 * @param shade     whether the face is shaded
+	 * @return the brightness factor of faces in the direction
+	 */
+	public float getTableShade(final Direction direction, final boolean shade) {
+		return this.tableShades[ShadeTableSource.indexOf(direction, shade)];
+	}
+
+	/**
+	 * Returns {@code true} if any block state may be shaded; {@code false}
+	 * otherwise.
+	 *
+	 * @return {@code true} if any block state may be shaded; {@code false}
+	 *         otherwise
+	 */
+	public boolean isAnyBlockShaded() {
+		return this.anyBlockShaded;
+	}
+
+	/**
+	 * Returns {@code true} if every face is lit without any diffuse factor;
+	 * {@code false} otherwise. Light pipelines may then skip applying
+	 * {@link net.minecraft.world.level.BlockAndTintGetter#getShade(Direction, boolean)}
+	 * altogether, as it would always be {@code 1.0f}.
+	 *
+	 * @return {@code true} if every face is lit without any diffuse factor;
+	 *         {@code false} otherwise
+	 */
+	public boolean isDiffuseFree() {
+		return this.diffuseFree;
+	}
+
+	/**
+	 * Returns {@code true} if the block state is shaded; {@code false} otherwise.
+	 * It is block shading being enabled, flipped for exempted states, and costs a
+	 * single bit test.
+	 *
+	 * @param state the block state
+	 * @return {@code true} if the block state is shaded; {@code false} otherwise
+	 */
+	public boolean isBlockShaded(final BlockState state) {
+		return isBlockShaded(((BlockStateIdCache) state).simplyNoShading$getStateId());
+	}
+
+	/**
+	 * Returns {@code true} if the block state with the
+	 * {@linkplain BlockStateIdCache#simplyNoShading$getStateId() id} is shaded;
+	 * {@code false} otherwise.
+	 *
+	 * @param stateId the id of the block state, or {@code -1} if it was not
+	 *                registered
+	 * @return {@code true} if the block state is shaded; {@code false} otherwise
+	 */
+	public boolean isBlockShaded(final int stateId) {
+		final var exempt = stateId >= 0 && this.exemptIds.get(stateId);
+
+		return this.activeConfig.isBlockShadingEnabled() != exempt;
+	}
+
+	/**
+	 * Returns {@code true} if the block state is exempted from block shading being
+	 * enabled or disabled; {@code false} otherwise.
+	 *
+	 * @param state the block state
+	 * @return {@code true} if the block state is exempted; {@code false} otherwise
+	 */
+	public boolean isBlockShadingExempt(final BlockState state) {
+		final var stateId = ((BlockStateIdCache) state).simplyNoShading$getStateId();
+
+		return stateId >= 0 && this.exemptIds.get(stateId);
+	}
+
+	/**
+	 * Returns {@code true} if the snapshot holds a shade table equal to the one
+	 * given; {@code false} otherwise.
+	 *
+	 * @param shadeTable the shade table
+	 * @return {@code true} if the snapshot holds an equal shade table;
+	 *         {@code false} otherwise
+	 */
+	public boolean hasShadeTable(final float[] shadeTable) {
+		return Arrays.equals(this.shadeTable, shadeTable);
+	}
+
+	/**
+	 * Returns {@code true} if tilted quads are shaded from their normal while
+	 * meshing; {@code false} otherwise.
+	 *
+	 * @return {@code true} if tilted quads are shaded from their normal;
+	 *         {@code false} otherwise
+	 */
+	public boolean isNormalShading() {
+		return this.normalShading;
+	}
+
+	/**
+	 * Returns {@code true} if terrain shading is applied by the terrain shaders,
+	 * in which case terrain is meshed without shading; {@code false} otherwise.
+	 *
+	 * @return {@code true} if terrain shading is applied by the terrain shaders;
+	 *         {@code false} otherwise
+	 */
+	public boolean isShaderShading() {
+		return this.shaderShading;
+	}
+
+	/**
+	 * Returns the config resolved for the dimension, read by the shading mixins.
+	 *
+	 * @return the config resolved for the dimension
+	 */
+	public Config getActiveConfig() {
+		return this.activeConfig;
+	}
+
+	/**
+	 * Returns the config the snapshot was taken of, before being resolved for the
+	 * dimension.
+	 *
+	 * @return the config the snapshot was taken of
+	 */
+	public Config getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * Returns the ID of the dimension being rendered.
+	 *
+	 * @return the ID of the dimension being rendered, or {@code null} when there
+	 *         is no level
+	 */
+	public ResourceLocation getDimension() {
+		return this.dimension;
+	}
+
+	/**
+	 * Returns the generation of the snapshot.
+	 *
+	 * @return the generation of the snapshot
+	 */
+	public long getGeneration() {
+		return this.generation;
+	}
+
+	/**
+	 * Returns a snapshot of the next generation with a different config.
+	 *
+	 * @param config the config
+	 * @return a snapshot of the next generation
+	 */
+	public ShadingSnapshot next(final Config config) {
+		return new ShadingSnapshot(config,
+		        this.dimension,
+		        this.constantAmbientLight,
+		        this.shadeTable,
+		        this.generation + 1);
+	}
+
+	/**
+	 * Returns a snapshot of the next generation with a different shade table.
+	 *
+	 * @param shadeTable the shade table sampled from the shading model of a mod;
+	 *                   it is not copied and must not be changed afterwards
+	 * @return a snapshot of the next generation
+	 */
+	public ShadingSnapshot next(final float[] shadeTable) {
+		return new ShadingSnapshot(this.config,
+		        this.dimension,
+		        this.constantAmbientLight,
+		        shadeTable,
+		        this.generation + 1);
+	}
+
+	/**
+	 * Returns a snapshot of the next generation for a different dimension.
+	 *
+	 * @param dimension            the ID of the dimension, possibly {@code null}
+	 * @param constantAmbientLight whether the dimension has constant ambient
+	 *                             light
+	 * @return a snapshot of the next generation
+	 */
+	public ShadingSnapshot next(final ResourceLocation dimension, final boolean constantAmbientLight) {
+		return new ShadingSnapshot(this.config, dimension, constantAmbientLight, this.shadeTable, this.generation + 1);
+	}
+
+	/**
+	 * Returns a snapshot of the same generation with a different config, for
+	 * changes that do not affect how sections are meshed, so that no section
+	 * compile in flight is discarded.
+	 *
+	 * @param config the config
+	 * @return a snapshot of the same generation
+	 */
+	public ShadingSnapshot withConfig(final Config config) {
+		return new ShadingSnapshot(config, this.dimension, this.constantAmbientLight, this.shadeTable, this.generation);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + "[config=" + this.config + ", dimension=" + this.dimension
+		        + ", generation=" + this.generation + "]";
+	}
+}
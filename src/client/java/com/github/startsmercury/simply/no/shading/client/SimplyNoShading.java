@@ -6,6 +6,16 @@ import java.util.Objects;
 
 import org.slf4j.Logger;
 
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockShadingExemptions;
+import com.github.startsmercury.simply.no.shading.client.renderer.CloudGeometryCache;
+import com.github.startsmercury.simply.no.shading.client.renderer.LevelReshader;
+import com.github.startsmercury.simply.no.shading.client.renderer.MeshingStats;
+import com.github.startsmercury.simply.no.shading.client.renderer.ReshadePlan;
+import com.github.startsmercury.simply.no.shading.client.renderer.ReshadeScheduler;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionMeshCache;
+import com.github.startsmercury.simply.no.shading.client.renderer.ReshadeScope;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadeTableSource;
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
 import com.github.startsmercury.simply.no.shading.entrypoint.SimplyNoShadingClientEntrypoint;
 import com.github.startsmercury.simply.no.shading.util.PrefixedLogger;
 import com.github.startsmercury.simply.no.shading.util.storage.JsonPathStorage;
@@ -14,12 +24,15 @@ import com.google.gson.GsonBuilder;
 
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
 
 /**
  * The {@code SimplyNoShading} class models the Simply No Shading mod. It
  * contains the config, allows changing the config, and loading and saving of
  * the config. The model does not directly interact with the game, aside from
- * {@link #setConfig(Config)} which reloads the level when a change is detected.
+ * {@link #setConfig(Config)}, {@link #reloadBlockShadingExemptions()} and
+ * {@link #reloadShaderShading()} which re-shade the level when a change is
+ * detected.
  * Coupling this class with the base game is the responsibility of
  * {@link SimplyNoShadingClientEntrypoint} (and the mixins).
  *
@@ -27,15 +40,23 @@ import net.minecraft.client.Minecraft;
  */
 public class SimplyNoShading {
 	/**
-	 * The first instance of the {@code SimplyNoShading} class.
+	 * The first instance of the {@code SimplyNoShading} class. It is volatile as
+	 * it is read by chunk compile worker threads.
 	 */
-	private static SimplyNoShading firstInstance;
+	private static volatile SimplyNoShading firstInstance;
 
 	/**
 	 * This mod's logger.
 	 */
 	public static final Logger LOGGER = PrefixedLogger.named("simply-no-shading", "[SimplyNoShading] ");
 
+	/**
+	 * The shading model of a mod shading faces on its own, which the shade table
+	 * of the {@linkplain #getSnapshot() snapshot} is sampled from, or
+	 * {@code null} if there is none.
+	 */
+	private static volatile ShadeTableSource shadeTableSource;
+
 	/**
 	 * Sets the first instance if there's not one set.
 	 *
@@ -87,22 +108,69 @@ public class SimplyNoShading {
 	}
 
 	/**
-	 * The config is responsible in storing the states that may modify the behavior
-	 * of the mod.
+	 * Sets the shading model of a mod shading faces on its own, which the shade
+	 * table of the {@linkplain #getSnapshot() snapshot} is sampled from. It may be
+	 * called before the client exists, so the table is only sampled on the next
+	 * {@linkplain #resampleShadeTable() resample}.
+	 *
+	 * @param source the shading model
+	 * @since 6.1.0
+	 */
+	public static void setShadeTableSource(final ShadeTableSource source) {
+		Objects.requireNonNull(source, "Parameter source was null");
+
+		shadeTableSource = source;
+	}
+
+	/**
+	 * The cache of the cloud geometry of recent cloud states.
 	 */
-	private Config config;
+	private final CloudGeometryCache cloudGeometryCache;
 
 	/**
-	 * The config storage dictates where the {@link #config} should be stored, most
-	 * likely in a persistent file.
+	 * The config storage dictates where the {@link #getConfig() config} should be
+	 * stored, most likely in a persistent file.
 	 */
 	private Storage<Config> configStorage;
 
+	/**
+	 * The cache of the meshes of recently compiled sections.
+	 */
+	private final SectionMeshCache meshCache;
+
+	/**
+	 * The count and time of the sections meshed block by block.
+	 */
+	private final MeshingStats meshingStats;
+
+	/**
+	 * The scheduler owning the sections waiting to be re-shaded.
+	 */
+	private final ReshadeScheduler reshadeScheduler;
+
+	/**
+	 * The array the {@linkplain #resampleShadeTable() shade table is sampled}
+	 * into before being compared with the one of the snapshot.
+	 */
+	private final float[] shadeTableSamples;
+
+	/**
+	 * The snapshot holds the config, which is responsible in storing the states
+	 * that may modify the behavior of the mod. It is volatile as it is written by
+	 * the render thread and read by chunk compile worker threads.
+	 */
+	private volatile ShadingSnapshot snapshot;
+
 	/**
 	 * Creates a new {@code SimplyNoShading} instance.
 	 */
 	public SimplyNoShading() {
-		this.config = Config.INTERNAL_SHADERS;
+		this.cloudGeometryCache = new CloudGeometryCache();
+		this.meshCache = new SectionMeshCache();
+		this.meshingStats = new MeshingStats();
+		this.reshadeScheduler = new ReshadeScheduler(this.meshingStats);
+		this.shadeTableSamples = new float[ShadeTableSource.TABLE_SIZE];
+		this.snapshot = new ShadingSnapshot(Config.INTERNAL_SHADERS, null, false, null, 0L);
 		this.configStorage = new JsonPathStorage<>(getDefaultConfigPath(),
 		        new GsonBuilder().setPrettyPrinting().create(),
 		        Config.class);
@@ -110,6 +178,17 @@ public class SimplyNoShading {
 		computeFirstInstanceIfAbsent(this);
 	}
 
+	/**
+	 * Returns the cache of the cloud geometry of recent cloud states. It is only
+	 * used on the render thread.
+	 *
+	 * @return the cloud geometry cache
+	 * @since 6.1.0
+	 */
+	public CloudGeometryCache getCloudGeometryCache() {
+		return this.cloudGeometryCache;
+	}
+
 	/**
 	 * Returns the config. It is responsible in storing the states that may modify
 	 * the behavior of the mod
@@ -117,7 +196,7 @@ public class SimplyNoShading {
 	 * @return the config
 	 */
 	public Config getConfig() {
-		return this.config;
+		return this.snapshot.config;
 	}
 
 	/**
@@ -130,6 +209,50 @@ public class SimplyNoShading {
 		return this.configStorage;
 	}
 
+	/**
+	 * Returns the cache of the meshes of recently compiled sections. Its budget
+	 * follows the {@linkplain Config#getMeshCacheBudgetMegabytes() config}.
+	 *
+	 * @return the section mesh cache
+	 * @since 6.1.0
+	 */
+	public SectionMeshCache getMeshCache() {
+		return this.meshCache;
+	}
+
+	/**
+	 * Returns the count and time of the sections meshed block by block, recorded
+	 * by the chunk compile worker threads.
+	 *
+	 * @return the meshing stats
+	 * @since 6.1.0
+	 */
+	public MeshingStats getMeshingStats() {
+		return this.meshingStats;
+	}
+
+	/**
+	 * Returns the scheduler owning the sections waiting to be re-shaded. It is
+	 * expected to be {@linkplain ReshadeScheduler#drain(Minecraft, float) drained}
+	 * once per frame.
+	 *
+	 * @return the re-shade scheduler
+	 * @since 6.1.0
+	 */
+	public ReshadeScheduler getReshadeScheduler() {
+		return this.reshadeScheduler;
+	}
+
+	/**
+	 * Returns the current shading snapshot. Every change affecting how sections
+	 * are meshed publishes a new snapshot with a greater generation.
+	 *
+	 * @return the current shading snapshot
+	 */
+	public ShadingSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+
 	/**
 	 * Loads the config from the {@link #getConfigStorage() config storage} logging
 	 * any errors caught.
@@ -144,6 +267,77 @@ public class SimplyNoShading {
 		}
 	}
 
+	/**
+	 * Resolves the block shading exemptions again, as block tags were rebound.
+	 * Nothing happens when no exemption is a block tag.
+	 */
+	public void reloadBlockShadingExemptions() {
+		final var snapshot = this.snapshot;
+
+		if (!BlockShadingExemptions.hasTags(snapshot.config.getBlockShadingExemptions()))
+			return;
+
+		this.snapshot = snapshot.next(snapshot.config);
+		this.meshCache.clear();
+
+		final var sectionCount = this.reshadeScheduler
+		        .schedule(Minecraft.getInstance(), ReshadeScope.BLOCK_SECTIONS, this.snapshot.generation);
+		LOGGER.debug("Reloaded block shading exemptions with " + sectionCount + " section(s) scheduled");
+	}
+
+	/**
+	 * Checks again whether the {@linkplain TerrainShaders terrain shaders} could
+	 * be patched, as the shaders were reloaded. When that changed while shader
+	 * shading is enabled, terrain is meshed again with or without shading.
+	 */
+	public void reloadShaderShading() {
+		if (!TerrainShaders.updateAvailability())
+			return;
+
+		final var snapshot = this.snapshot;
+		final var next = snapshot.next(snapshot.config);
+
+		if (snapshot.isShaderShading() == next.isShaderShading())
+			return;
+
+		this.snapshot = next;
+		this.meshCache.clear();
+
+		final var sectionCount = this.reshadeScheduler
+		        .schedule(Minecraft.getInstance(), ReshadeScope.BLOCK_SECTIONS, this.snapshot.generation);
+		LOGGER.debug("Shader shading is " + (this.snapshot.isShaderShading() ? "now" : "no longer")
+		        + " in effect with " + sectionCount + " section(s) scheduled");
+	}
+
+	/**
+	 * Samples the shade table from the {@linkplain #setShadeTableSource(ShadeTableSource)
+	 * shading model of a mod} again, as its config may have been changed. When
+	 * the table changed, it is published in a new snapshot and fluids are meshed
+	 * again. Nothing happens when there is no such shading model.
+	 *
+	 * @since 6.1.0
+	 */
+	public void resampleShadeTable() {
+		final var source = shadeTableSource;
+
+		if (source == null)
+			return;
+
+		source.simplyNoShading$sampleShadeTable(this.shadeTableSamples);
+
+		final var snapshot = this.snapshot;
+
+		if (snapshot.hasShadeTable(this.shadeTableSamples))
+			return;
+
+		this.snapshot = snapshot.next(this.shadeTableSamples.clone());
+		this.meshCache.clear();
+
+		final var sectionCount = this.reshadeScheduler
+		        .schedule(Minecraft.getInstance(), ReshadeScope.FLUID_SECTIONS, this.snapshot.generation);
+		LOGGER.debug("Resampled the shade table with " + sectionCount + " section(s) scheduled");
+	}
+
 	/**
 	 * Saves the config to the {@link #getConfigStorage() config storage} logging
 	 * any errors caught.
@@ -160,20 +354,56 @@ public class SimplyNoShading {
 	/**
 	 * Sets a new config. It is responsible in storing the states that may modify
 	 * the behavior of the mod
+	 * <p>
+	 * When a change is detected, only what the changed fields affect in the
+	 * current dimension is
+	 * {@linkplain ReshadePlan#between(ShadingSnapshot, ShadingSnapshot)
+	 * invalidated}. Unlike a full
+	 * renderer reload, the existing meshes remain visible until their replacements
+	 * finish compiling, and the sections are handed to the
+	 * {@linkplain #getReshadeScheduler() re-shade scheduler}. The generation is
+	 * only advanced when sections are to be meshed again, so that changes to the
+	 * clouds or the budgets never discard section compiles in flight.
 	 *
 	 * @param config the new config
 	 */
 	public void setConfig(final Config config) {
 		Objects.requireNonNull(config, "Parameter config was null");
 
-		if (this.config.equals(config))
+		final var snapshot = this.snapshot;
+
+		if (snapshot.config.equals(config))
 			return;
 
-		this.config = config;
+		final var candidate = snapshot.next(config);
+		final var plan = ReshadePlan.between(snapshot, candidate);
+		final var next = plan.affectsSections() ? candidate : snapshot.withConfig(config);
+		this.snapshot = next;
+		this.meshCache.setBudgetMegabytes(config.getMeshCacheBudgetMegabytes());
+
+		final var sectionCount = LevelReshader
+		        .reshade(Minecraft.getInstance(), plan, this.reshadeScheduler, next.generation);
+		LOGGER.debug("Scheduled " + plan + " with " + sectionCount + " section(s) queued, " + this.meshCache + ", "
+		        + this.meshingStats + ", " + this.cloudGeometryCache);
+	}
+
+	/**
+	 * Sets the dimension being rendered, resolving its profile into a new
+	 * snapshot. Nothing is invalidated, as changing levels already recompiles
+	 * every section.
+	 *
+	 * @param dimension            the ID of the dimension, possibly {@code null}
+	 *                             when there is no level
+	 * @param constantAmbientLight whether the dimension has constant ambient
+	 *                             light
+	 */
+	public void setDimension(final ResourceLocation dimension, final boolean constantAmbientLight) {
+		final var snapshot = this.snapshot;
+
+		if (Objects.equals(snapshot.dimension, dimension) && snapshot.constantAmbientLight == constantAmbientLight)
+			return;
 
-		final var minecraft = Minecraft.getInstance();
-		if (minecraft.levelRenderer != null)
-			minecraft.levelRenderer.allChanged();
+		this.snapshot = snapshot.next(dimension, constantAmbientLight);
 	}
 
 	/**
@@ -0,0 +1,22 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code BlockShadeHolder} interface is implemented by the per-block render
+ * state of a Fabric Renderer API implementation through a mixin. It holds
+ * whether the {@linkplain BlockState block state} being rendered is shaded,
+ * decided once when the block is prepared instead of once per quad.
+ *
+ * @since 6.1.0
+ */
+public interface BlockShadeHolder {
+	/**
+	 * Returns {@code true} if the block being rendered is shaded; {@code false}
+	 * otherwise.
+	 *
+	 * @return {@code true} if the block being rendered is shaded; {@code false}
+	 *         otherwise
+	 */
+	boolean simplyNoShading$isBlockShaded();
+}
@@ -0,0 +1,97 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+
+/**
+ * The {@code BlockShadingExemptions} class resolves the
+ * {@linkplain Config#getBlockShadingExemptions() block shading exemptions} of a
+ * config into a dense bitset indexed by {@linkplain Block#BLOCK_STATE_REGISTRY
+ * block state registry id}. Resolution queries the block registry and its tags
+ * once, so meshing only ever tests a bit.
+ *
+ * @since 6.1.0
+ */
+public class BlockShadingExemptions {
+	/**
+	 * Sets the bits of every state of a block.
+	 *
+	 * @param block     the block
+	 * @param exemptIds the bitset to set the bits of
+	 */
+	private static void exempt(final Block block, final BitSet exemptIds) {
+		for (final var state : block.getStateDefinition().getPossibleStates()) {
+			final var stateId = Block.getId(state);
+
+			if (stateId >= 0)
+				exemptIds.set(stateId);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if any exemption is a {@code #}-prefixed block tag;
+	 * {@code false} otherwise. Such exemptions need resolving again when tags are
+	 * reloaded.
+	 *
+	 * @param exemptions the block shading exemptions
+	 * @return {@code true} if any exemption is a block tag; {@code false} otherwise
+	 */
+	public static boolean hasTags(final List<String> exemptions) {
+		for (final var exemption : exemptions)
+			if (exemption.startsWith("#"))
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * Resolves block IDs and {@code #}-prefixed block tags into the ids of all
+	 * their block states. Unknown or malformed entries are logged and skipped, and
+	 * tags that are not bound yet resolve to nothing.
+	 *
+	 * @param exemptions the block shading exemptions
+	 * @return the bitset of exempted block state ids
+	 */
+	public static BitSet resolve(final List<String> exemptions) {
+		final var exemptIds = new BitSet();
+
+		for (final var exemption : exemptions) {
+			final var isTag = exemption.startsWith("#");
+			final var location = ResourceLocation.tryParse(isTag ? exemption.substring(1) : exemption);
+
+			if (location == null) {
+				SimplyNoShading.LOGGER.warn("Ignored malformed block shading exemption " + exemption);
+				continue;
+			}
+
+			if (isTag) {
+				for (final Holder<Block> holder : BuiltInRegistries.BLOCK.getTagOrEmpty(TagKey.create(Registries.BLOCK,
+				        location)))
+					exempt(holder.value(), exemptIds);
+			} else if (BuiltInRegistries.BLOCK.containsKey(location)) {
+				exempt(BuiltInRegistries.BLOCK.get(location), exemptIds);
+			} else {
+				SimplyNoShading.LOGGER.warn("Ignored unknown block shading exemption " + exemption);
+			}
+		}
+
+		return exemptIds;
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private BlockShadingExemptions() {
+	}
+}
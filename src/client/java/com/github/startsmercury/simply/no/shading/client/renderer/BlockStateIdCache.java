@@ -0,0 +1,23 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code BlockStateIdCache} interface is implemented by every
+ * {@link BlockState} through a mixin. It caches the state's
+ * {@linkplain Block#BLOCK_STATE_REGISTRY registry id} in the state itself, so
+ * that indexing a bitset with it needs no map lookup.
+ *
+ * @since 6.1.0
+ */
+public interface BlockStateIdCache {
+	/**
+	 * Returns the registry id of the block state, or {@code -1} if it was not
+	 * registered.
+	 *
+	 * @return the registry id of the block state, or {@code -1} if it was not
+	 *         registered
+	 */
+	int simplyNoShading$getStateId();
+}
@@ -0,0 +1,180 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.mojang.blaze3d.vertex.VertexBuffer;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+/**
+ * The {@code CloudGeometryCache} class keeps the uploaded cloud geometry of the
+ * last few cloud states, so that toggling cloud shading, or coming back to a
+ * state seen recently, binds an existing buffer instead of building the clouds
+ * again. A state is {@linkplain #keyOf(Object...) keyed} by the brightness of
+ * each cloud face and every input the cloud renderer builds its geometry from,
+ * such as the render mode, the cloud color and the cell the camera is in.
+ * <p>
+ * The cache owns the buffers it holds: the cloud renderer must not close them,
+ * and they are closed once evicted or {@linkplain #clear() cleared}. Buffers
+ * are only touched on the render thread.
+ *
+ * @since 6.1.0
+ */
+public class CloudGeometryCache {
+	/**
+	 * The maximum number of cloud states kept.
+	 */
+	public static final int CAPACITY = 8;
+
+	/**
+	 * Returns the key of a cloud state, made of the inputs the cloud geometry is
+	 * built from. Inputs are compared with {@link Object#equals(Object)} and may
+	 * be {@code null}.
+	 *
+	 * @param inputs the inputs
+	 * @return the key of the cloud state
+	 */
+	public static List<Object> keyOf(final Object... inputs) {
+		return Arrays.asList(inputs);
+	}
+
+	/**
+	 * The buffers by cloud state, from the least to the most recently used.
+	 */
+	private final Object2ObjectLinkedOpenHashMap<List<Object>, VertexBuffer> buffers = new Object2ObjectLinkedOpenHashMap<>();
+
+	/**
+	 * The number of times a cloud state was served from the cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * The buffers held, for ownership checks.
+	 */
+	private final ReferenceOpenHashSet<VertexBuffer> owned = new ReferenceOpenHashSet<>();
+
+	/**
+	 * The number of times the clouds were built.
+	 */
+	private long rebuildCount;
+
+	/**
+	 * The total time spent building and uploading the clouds, in nanoseconds.
+	 */
+	private long rebuildNanos;
+
+	/**
+	 * Creates a new empty {@code CloudGeometryCache}.
+	 */
+	public CloudGeometryCache() {
+	}
+
+	/**
+	 * Closes and discards every buffer held, as when the cloud renderer or the
+	 * level goes away.
+	 */
+	public void clear() {
+		for (final var buffer : this.buffers.values())
+			buffer.close();
+
+		this.buffers.clear();
+		this.owned.clear();
+	}
+
+	/**
+	 * Returns the number of times a cloud state was served from the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Returns the number of times the clouds were built.
+	 *
+	 * @return the number of rebuilds
+	 */
+	public long getRebuildCount() {
+		return this.rebuildCount;
+	}
+
+	/**
+	 * Returns the total time spent building and uploading the clouds, in
+	 * nanoseconds.
+	 *
+	 * @return the total rebuild time in nanoseconds
+	 */
+	public long getRebuildNanos() {
+		return this.rebuildNanos;
+	}
+
+	/**
+	 * Returns the buffer holding the geometry of the cloud state, counting a hit,
+	 * or {@code null} if it is not cached.
+	 *
+	 * @param key the key of the cloud state
+	 * @return the buffer of the cloud state, possibly {@code null}
+	 */
+	public VertexBuffer lookup(final List<Object> key) {
+		final var buffer = this.buffers.getAndMoveToLast(key);
+
+		if (buffer != null)
+			this.hitCount++;
+
+		return buffer;
+	}
+
+	/**
+	 * Returns {@code true} if the buffer is held by the cache, in which case it
+	 * must not be closed by anyone else; {@code false} otherwise.
+	 *
+	 * @param buffer the buffer
+	 * @return {@code true} if the buffer is held by the cache; {@code false}
+	 *         otherwise
+	 */
+	public boolean owns(final VertexBuffer buffer) {
+		return this.owned.contains(buffer);
+	}
+
+	/**
+	 * Takes ownership of a freshly built buffer for the cloud state, counting a
+	 * rebuild. The least recently used states beyond the {@link #CAPACITY} are
+	 * evicted and their buffers closed; the new buffer is never evicted right
+	 * away.
+	 *
+	 * @param key        the key of the cloud state
+	 * @param buffer     the buffer holding the geometry of the cloud state
+	 * @param buildNanos the time spent building and uploading it, in nanoseconds
+	 */
+	public void store(final List<Object> key, final VertexBuffer buffer, final long buildNanos) {
+		this.rebuildCount++;
+		this.rebuildNanos += buildNanos;
+
+		final var previous = this.buffers.putAndMoveToLast(key, buffer);
+
+		if (previous != null && previous != buffer) {
+			this.owned.remove(previous);
+			previous.close();
+		}
+
+		this.owned.add(buffer);
+
+		while (this.buffers.size() > CAPACITY) {
+			final var evicted = this.buffers.removeFirst();
+			this.owned.remove(evicted);
+			evicted.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + "[size=" + this.buffers.size() + ", hitCount=" + this.hitCount
+		        + ", rebuildCount=" + this.rebuildCount + ", rebuildMillis=" + this.rebuildNanos / 1_000_000.0 + "]";
+	}
+}
@@ -0,0 +1,195 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+import com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft.LevelRendererAccessor;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * The {@code LevelReshader} class re-shades the level by marking the loaded
+ * sections dirty instead of {@linkplain LevelRenderer#allChanged() resetting
+ * the whole renderer}. The section storage and the chunk render dispatcher are
+ * left intact, and each section keeps its old mesh visible until its
+ * replacement finishes compiling.
+ * <p>
+ * Sections are handed to a {@linkplain ReshadeScheduler scheduler} rather than
+ * marked dirty immediately, so that a change spreads over several frames
+ * starting with the visible terrain near the camera.
+ *
+ * @since 6.1.0
+ */
+public class LevelReshader {
+	/**
+	 * Tests whether a block state carries a fluid.
+	 */
+	private static final Predicate<BlockState> HAS_FLUID = state -> !state.getFluidState().isEmpty();
+
+	/**
+	 * Passes every section within the render distance around the camera that may
+	 * be affected by the scope to the action, as a
+	 * {@linkplain SectionPos#asLong(int, int, int) packed section position}.
+	 * Nothing happens when there is no level being rendered.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param scope     the section scope
+	 * @param action    the action
+	 * @return the number of sections passed to the action
+	 */
+	public static int forEachAffectedSection(final Minecraft minecraft,
+	        final ReshadeScope scope,
+	        final LongConsumer action) {
+		final var level = minecraft.level;
+
+		if (minecraft.levelRenderer == null || level == null)
+			return 0;
+
+		final var cameraPosition = minecraft.gameRenderer.getMainCamera().getBlockPosition();
+		final var centerX = SectionPos.blockToSectionCoord(cameraPosition.getX());
+		final var centerZ = SectionPos.blockToSectionCoord(cameraPosition.getZ());
+		final var renderDistance = minecraft.options.getEffectiveRenderDistance();
+		final var minY = level.getMinSection();
+		final var maxY = level.getMaxSection();
+		var count = 0;
+
+		for (var x = centerX - renderDistance; x <= centerX + renderDistance; x++)
+			for (var z = centerZ - renderDistance; z <= centerZ + renderDistance; z++)
+				for (var y = minY; y < maxY; y++) {
+					if (!isAffected(level, x, y, z, scope))
+						continue;
+
+					action.accept(SectionPos.asLong(x, y, z));
+					count++;
+				}
+
+		return count;
+	}
+
+	/**
+	 * Returns {@code true} if the section at the given coordinates is loaded and
+	 * may produce a mesh affected by the scope; {@code false} otherwise.
+	 *
+	 * @param level    the level
+	 * @param sectionX the section x coordinate
+	 * @param sectionY the section y coordinate
+	 * @param sectionZ the section z coordinate
+	 * @param scope    the scope
+	 * @return {@code true} if the section may be affected by the scope;
+	 *         {@code false} otherwise
+	 */
+	static boolean isAffected(final ClientLevel level,
+	        final int sectionX,
+	        final int sectionY,
+	        final int sectionZ,
+	        final ReshadeScope scope) {
+		final var chunk = level.getChunkSource().getChunk(sectionX, sectionZ, false);
+
+		if (chunk == null)
+			return false;
+
+		final LevelChunkSection section = chunk.getSection(level.getSectionIndexFromSectionY(sectionY));
+
+		if (section.hasOnlyAir())
+			return false;
+
+		return switch (scope) {
+		case BLOCK_SECTIONS, CPU_SHADED_SECTIONS -> true;
+		case FLUID_SECTIONS -> section.maybeHas(HAS_FLUID);
+		case CLOUDS -> false;
+		};
+	}
+
+	/**
+	 * Carries out a {@linkplain ReshadePlan plan}, invalidating only what it
+	 * covers. The clouds are regenerated on the next frame, while the sections
+	 * are handed to the scheduler. Nothing happens when there is no minecraft
+	 * client yet.
+	 *
+	 * @param minecraft  the minecraft client, possibly {@code null}
+	 * @param plan       the plan
+	 * @param scheduler  the scheduler
+	 * @param generation the generation of the shading snapshot the plan leads to
+	 * @return the number of newly queued sections
+	 */
+	public static int reshade(final Minecraft minecraft,
+	        final ReshadePlan plan,
+	        final ReshadeScheduler scheduler,
+	        final long generation) {
+		if (minecraft == null || plan.isEmpty())
+			return 0;
+
+		if (plan.contains(ReshadeScope.CLOUDS))
+			reshadeClouds(minecraft);
+
+		if (plan.contains(ReshadeScope.BLOCK_SECTIONS))
+			return scheduler.schedule(minecraft, ReshadeScope.BLOCK_SECTIONS, generation);
+		if (plan.contains(ReshadeScope.CPU_SHADED_SECTIONS))
+			return scheduler.schedule(minecraft, ReshadeScope.CPU_SHADED_SECTIONS, generation);
+		if (plan.contains(ReshadeScope.FLUID_SECTIONS))
+			return scheduler.schedule(minecraft, ReshadeScope.FLUID_SECTIONS, generation);
+		return 0;
+	}
+
+	/**
+	 * Marks every section within the render distance around the camera dirty at
+	 * once, bypassing any scheduler. Nothing happens when there is no level being
+	 * rendered.
+	 *
+	 * @param minecraft the minecraft client
+	 * @return the number of sections marked dirty
+	 */
+	public static int reshadeAllSections(final Minecraft minecraft) {
+		return invalidateSections(minecraft, ReshadeScope.BLOCK_SECTIONS);
+	}
+
+	/**
+	 * Invalidates every section within the render distance around the camera
+	 * that may be affected by the scope at once, through the
+	 * {@linkplain SectionInvalidator invalidation backend} of the renderer.
+	 * Nothing happens when there is no level being rendered.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param scope     the section scope
+	 * @return the number of sections invalidated
+	 */
+	static int invalidateSections(final Minecraft minecraft, final ReshadeScope scope) {
+		final var levelRenderer = minecraft.levelRenderer;
+
+		if (levelRenderer == null)
+			return 0;
+
+		final var invalidator = (SectionInvalidator) levelRenderer;
+
+		return forEachAffectedSection(minecraft,
+		        scope,
+		        section -> invalidator.simplyNoShading$invalidateSection(SectionPos.x(section),
+		                SectionPos.y(section),
+		                SectionPos.z(section)));
+	}
+
+	/**
+	 * Schedules the cloud geometry to be regenerated on the next frame. Nothing
+	 * happens when there is no level renderer.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	public static void reshadeClouds(final Minecraft minecraft) {
+		final var levelRenderer = minecraft.levelRenderer;
+
+		if (levelRenderer != null)
+			((LevelRendererAccessor) levelRenderer).setGenerateClouds(true);
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private LevelReshader() {
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code MeshingStats} class counts the sections meshed block by block and
+ * the time spent meshing them, so that the cost of the per-quad shading hooks
+ * can be measured on the renderer actually in use. Sections
+ * {@linkplain SectionMeshCache replayed from the cache} are not counted.
+ * <p>
+ * Sections are recorded by the chunk compile worker threads, hence the atomic
+ * counters.
+ *
+ * @since 6.1.0
+ */
+public class MeshingStats {
+	/**
+	 * The number of sections meshed.
+	 */
+	private final AtomicLong meshCount = new AtomicLong();
+
+	/**
+	 * The total time spent meshing sections, in nanoseconds.
+	 */
+	private final AtomicLong meshNanos = new AtomicLong();
+
+	/**
+	 * Creates a new empty {@code MeshingStats}.
+	 */
+	public MeshingStats() {
+	}
+
+	/**
+	 * Returns the number of sections meshed.
+	 *
+	 * @return the number of sections meshed
+	 */
+	public long getMeshCount() {
+		return this.meshCount.get();
+	}
+
+	/**
+	 * Returns the total time spent meshing sections, in nanoseconds.
+	 *
+	 * @return the total meshing time in nanoseconds
+	 */
+	public long getMeshNanos() {
+		return this.meshNanos.get();
+	}
+
+	/**
+	 * Records a section meshed in the given time.
+	 *
+	 * @param nanos the meshing time in nanoseconds
+	 */
+	public void record(final long nanos) {
+		this.meshCount.incrementAndGet();
+		this.meshNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "MeshingStats[meshCount=" + this.meshCount.get() + ", meshMillis="
+		        + this.meshNanos.get() / 1_000_000.0 + "]";
+	}
+}
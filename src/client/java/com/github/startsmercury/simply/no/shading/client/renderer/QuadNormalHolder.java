@@ -0,0 +1,21 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+
+/**
+ * The {@code QuadNormalHolder} interface is implemented by {@link BakedQuad}
+ * through a mixin. It holds the {@linkplain QuadNormals#indexOf(int[],
+ * net.minecraft.core.Direction) index of the normal} of the quad, derived once
+ * when the quad is baked.
+ *
+ * @since 6.1.0
+ */
+public interface QuadNormalHolder {
+	/**
+	 * Returns the index of the normal of the quad, or
+	 * {@link QuadNormals#AXIS_ALIGNED} if it faces one of the six directions.
+	 *
+	 * @return the index of the normal of the quad
+	 */
+	int simplyNoShading$getNormalIndex();
+}
@@ -0,0 +1,144 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code QuadNormals} class derives the normal of a quad from the positions
+ * of its vertices and packs it into a small index, once when the quad is baked.
+ * The index keeps the sign and the quantized square of each normal component,
+ * which is all that is needed to blend the brightness factors of the three
+ * faces the normal leans towards.
+ * <p>
+ * Quads facing one of the six directions, which are the vast majority, get
+ * {@link #AXIS_ALIGNED} and keep being shaded by their nominal direction. Only
+ * rotated and sloped quads are shaded from their
+ * {@linkplain Config#isNormalShadingEnabled() normal}, by looking up a table of
+ * {@link #TABLE_SIZE} brightness factors built once per config.
+ *
+ * @since 6.1.0
+ */
+public class QuadNormals {
+	/**
+	 * The index of quads whose normal is along one of the six directions.
+	 */
+	public static final int AXIS_ALIGNED = -1;
+
+	/**
+	 * The largest square of a normal component of quads that are not
+	 * {@linkplain #AXIS_ALIGNED axis aligned}.
+	 */
+	private static final float MAX_TILTED_SQUARE = 0.9999F;
+
+	/**
+	 * The number of steps the square of a normal component is quantized to.
+	 */
+	private static final int STEPS = 15;
+
+	/**
+	 * The number of indices, and the size of the brightness tables indexed by
+	 * them.
+	 */
+	public static final int TABLE_SIZE = 1 << 11;
+
+	/**
+	 * The size of a vertex of the {@linkplain DefaultVertexFormat#BLOCK block
+	 * format}, in integers.
+	 */
+	private static final int VERTEX_STRIDE = DefaultVertexFormat.BLOCK.getIntegerSize();
+
+	/**
+	 * Returns a coordinate of the position of a vertex.
+	 *
+	 * @param vertices the vertex data of the quad
+	 * @param vertex   the vertex
+	 * @param axis     the axis, from {@code 0} for x to {@code 2} for z
+	 * @return the coordinate of the position of the vertex
+	 */
+	private static float coordinateOf(final int[] vertices, final int vertex, final int axis) {
+		return Float.intBitsToFloat(vertices[vertex * VERTEX_STRIDE + axis]);
+	}
+
+	/**
+	 * Returns the index of the normal of a quad, or {@link #AXIS_ALIGNED} if it is
+	 * along one of the six directions or cannot be derived. The normal is the
+	 * cross product of the diagonals, turned to face the same way as the nominal
+	 * direction of the quad.
+	 *
+	 * @param vertices  the vertex data of the quad
+	 * @param direction the nominal direction of the quad
+	 * @return the index of the normal, or {@link #AXIS_ALIGNED}
+	 */
+	public static int indexOf(final int[] vertices, final Direction direction) {
+		if (vertices.length < 4 * VERTEX_STRIDE)
+			return AXIS_ALIGNED;
+
+		final var ax = coordinateOf(vertices, 2, 0) - coordinateOf(vertices, 0, 0);
+		final var ay = coordinateOf(vertices, 2, 1) - coordinateOf(vertices, 0, 1);
+		final var az = coordinateOf(vertices, 2, 2) - coordinateOf(vertices, 0, 2);
+		final var bx = coordinateOf(vertices, 3, 0) - coordinateOf(vertices, 1, 0);
+		final var by = coordinateOf(vertices, 3, 1) - coordinateOf(vertices, 1, 1);
+		final var bz = coordinateOf(vertices, 3, 2) - coordinateOf(vertices, 1, 2);
+
+		var nx = ay * bz - az * by;
+		var ny = az * bx - ax * bz;
+		var nz = ax * by - ay * bx;
+		final var lengthSquared = nx * nx + ny * ny + nz * nz;
+
+		if (!(lengthSquared > 0.0F))
+			return AXIS_ALIGNED;
+
+		if (nx * direction.getStepX() + ny * direction.getStepY() + nz * direction.getStepZ() < 0.0F) {
+			nx = -nx;
+			ny = -ny;
+			nz = -nz;
+		}
+
+		final var x = nx * nx / lengthSquared;
+		final var y = ny * ny / lengthSquared;
+		final var z = nz * nz / lengthSquared;
+
+		if (x > MAX_TILTED_SQUARE || y > MAX_TILTED_SQUARE || z > MAX_TILTED_SQUARE)
+			return AXIS_ALIGNED;
+
+		final var steppedX = Math.round(x * STEPS);
+		final var steppedY = Math.round(y * STEPS);
+		final var signs = (nx > 0.0F ? 1 : 0) | (ny > 0.0F ? 2 : 0) | (nz > 0.0F ? 4 : 0);
+
+		return signs << 8 | steppedY << 4 | steppedX;
+	}
+
+	/**
+	 * Returns the brightness factor of quads with the normal of the index, blended
+	 * from the brightness factors of the three faces the normal leans towards by
+	 * the square of each normal component.
+	 *
+	 * @param index      the index of the normal
+	 * @param sideShades the brightness factor of each face direction, indexed
+	 *                   by {@link Direction#get3DDataValue()}
+	 * @return the brightness factor of quads with the normal
+	 */
+	public static float shadeOf(final int index, final float[] sideShades) {
+		final var x = (float) (index & 0xF) / STEPS;
+		final var y = (float) (index >> 4 & 0xF) / STEPS;
+		final var z = Math.max(0.0F, 1.0F - x - y);
+		final var east = (index & 1 << 8) != 0;
+		final var up = (index & 2 << 8) != 0;
+		final var south = (index & 4 << 8) != 0;
+
+		final var shade = x * sideShades[(east ? Direction.EAST : Direction.WEST).get3DDataValue()]
+		        + y * sideShades[(up ? Direction.UP : Direction.DOWN).get3DDataValue()]
+		        + z * sideShades[(south ? Direction.SOUTH : Direction.NORTH).get3DDataValue()];
+
+		return shade / (x + y + z);
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private QuadNormals() {
+	}
+}
@@ -0,0 +1,301 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.lwjgl.system.MemoryUtil;
+
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.BakedQuadAccessor;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code QuadShadeRecorder} class records, while a section is meshed, what
+ * every emitted block quad needs for its vertex colors to be recomputed with
+ * another shading, so that a {@linkplain VertexColorPatcher patcher} may later
+ * rewrite them without meshing the section again.
+ * <p>
+ * Records are written off-heap, one stream per layer in the order the quads
+ * were emitted. Each record starts with a flags byte holding the
+ * {@linkplain net.minecraft.core.Direction#get3DDataValue() face direction} and
+ * the {@code FLAG_*} bits, followed by the block state id and, only when the
+ * flags call for them, the per-vertex ambient occlusion, the tint, and the
+ * per-vertex quad colors. An untinted white quad lit flat takes five bytes.
+ * <p>
+ * A recorder is bound to the compiling thread between {@link #begin()} and
+ * {@link #end()}, where the renderer hooks find it through {@link #current()}.
+ *
+ * @since 6.1.0
+ */
+public final class QuadShadeRecorder {
+	/**
+	 * The recorder bound to each compiling thread.
+	 */
+	private static final ThreadLocal<QuadShadeRecorder> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The mask of the face direction in the flags.
+	 */
+	static final int DIRECTION_MASK = 0x07;
+
+	/**
+	 * The flag set when the quad is colored, followed by three bytes of color per
+	 * vertex.
+	 */
+	static final int FLAG_COLORED = 0x40;
+
+	/**
+	 * The flag set when the quad was lit flat, without ambient occlusion values.
+	 */
+	static final int FLAG_FLAT = 0x10;
+
+	/**
+	 * The flag set when the quad is shaded as baked, before any unshaded variant
+	 * was swapped in.
+	 */
+	static final int FLAG_SHADE = 0x08;
+
+	/**
+	 * The flag set when the quad is tinted, followed by the three tint factors.
+	 */
+	static final int FLAG_TINTED = 0x20;
+
+	/**
+	 * The initial capacity of a stream.
+	 */
+	private static final int INITIAL_CAPACITY = 4096;
+
+	/**
+	 * The largest size of a single record.
+	 */
+	private static final int MAX_RECORD_SIZE = 1 + 4 + 4 * 4 + 3 * 4 + 4 * 3;
+
+	/**
+	 * Binds a new recorder to the current thread, discarding any recorder left by
+	 * a compile that failed.
+	 *
+	 * @return the new recorder
+	 */
+	public static QuadShadeRecorder begin() {
+		final var previous = CURRENT.get();
+
+		if (previous != null)
+			previous.discard();
+
+		final var recorder = new QuadShadeRecorder();
+		CURRENT.set(recorder);
+
+		return recorder;
+	}
+
+	/**
+	 * Returns the recorder bound to the current thread, or {@code null} if the
+	 * thread is not recording.
+	 *
+	 * @return the recorder bound to the current thread, possibly {@code null}
+	 */
+	public static QuadShadeRecorder current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * The per-vertex ambient occlusion of the next quad, unless it is lit flat.
+	 */
+	private final float[] ambientOcclusion = new float[4];
+
+	/**
+	 * Whether the next quad is lit flat.
+	 */
+	private boolean flat;
+
+	/**
+	 * The id of the block state being meshed.
+	 */
+	private int stateId;
+
+	/**
+	 * The stream of the layer being meshed, or {@code null} if it was not
+	 * selected yet.
+	 */
+	private ByteBuffer stream;
+
+	/**
+	 * The builder of the layer being meshed, or {@code null} if it was not
+	 * selected yet.
+	 */
+	private VertexConsumer streamConsumer;
+
+	/**
+	 * The streams of each layer, keyed by their builder.
+	 */
+	private final Map<VertexConsumer, ByteBuffer> streams = new IdentityHashMap<>();
+
+	/**
+	 * Creates a new recorder.
+	 */
+	private QuadShadeRecorder() {
+	}
+
+	/**
+	 * Releases every stream and unbinds the recorder.
+	 */
+	public void discard() {
+		this.streams.values().forEach(MemoryUtil::memFree);
+		this.streams.clear();
+		this.stream = null;
+		this.streamConsumer = null;
+		end();
+	}
+
+	/**
+	 * Unbinds the recorder from the current thread.
+	 */
+	public void end() {
+		if (CURRENT.get() == this)
+			CURRENT.remove();
+	}
+
+	/**
+	 * Detaches the streams of the layers, handing their ownership to the caller,
+	 * and releases every other stream. The recorder is unbound.
+	 *
+	 * @param buffers the builders the section was meshed into
+	 * @param layers  the layers to keep the streams of
+	 * @return the streams of the layers, flipped for reading, or {@code null} if
+	 *         some layer was meshed without being recorded
+	 */
+	public Map<RenderType, ByteBuffer> finish(final ChunkBufferBuilderPack buffers, final Set<RenderType> layers) {
+		final var records = new IdentityHashMap<RenderType, ByteBuffer>(layers.size());
+
+		for (final var renderType : layers) {
+			final var stream = this.streams.remove(buffers.builder(renderType));
+
+			if (stream == null) {
+				records.values().forEach(MemoryUtil::memFree);
+				discard();
+				return null;
+			}
+
+			records.put(renderType, stream.flip());
+		}
+
+		discard();
+
+		return records;
+	}
+
+	/**
+	 * Records a quad emitted into the selected layer with the last
+	 * {@linkplain #setAmbientOcclusion(float[]) ambient occlusion} or
+	 * {@linkplain #setFlat() flat lighting}.
+	 *
+	 * @param quad  the quad
+	 * @param red   the red tint factor
+	 * @param green the green tint factor
+	 * @param blue  the blue tint factor
+	 */
+	public void record(final BakedQuad quad, final float red, final float green, final float blue) {
+		var stream = this.stream;
+
+		if (stream == null)
+			return;
+		if (stream.remaining() < MAX_RECORD_SIZE)
+			stream = grow();
+
+		final var vertices = quad.getVertices();
+		final var colored = isColored(vertices);
+		final var tinted = red != 1.0F || green != 1.0F || blue != 1.0F;
+		final var shade = quad instanceof UnshadedQuad || ((BakedQuadAccessor) quad).getBakedShade();
+		var flags = quad.getDirection().get3DDataValue();
+
+		if (shade)
+			flags |= FLAG_SHADE;
+		if (this.flat)
+			flags |= FLAG_FLAT;
+		if (tinted)
+			flags |= FLAG_TINTED;
+		if (colored)
+			flags |= FLAG_COLORED;
+
+		stream.put((byte) flags);
+		stream.putInt(this.stateId);
+
+		if (!this.flat)
+			for (final var value : this.ambientOcclusion)
+				stream.putFloat(value);
+		if (tinted)
+			stream.putFloat(red).putFloat(green).putFloat(blue);
+		if (colored)
+			for (var i = 0; i < 4; i++) {
+				final var color = vertices[i * 8 + 3];
+
+				stream.put((byte) color).put((byte) (color >> 8)).put((byte) (color >> 16));
+			}
+	}
+
+	/**
+	 * Sets the per-vertex ambient occlusion the next quad is lit with.
+	 *
+	 * @param ambientOcclusion the per-vertex brightness without the diffuse
+	 *                         factor
+	 */
+	public void setAmbientOcclusion(final float[] ambientOcclusion) {
+		System.arraycopy(ambientOcclusion, 0, this.ambientOcclusion, 0, this.ambientOcclusion.length);
+		this.flat = false;
+	}
+
+	/**
+	 * Selects the block being meshed and the layer it is meshed into.
+	 *
+	 * @param state    the block state
+	 * @param consumer the builder of the layer
+	 */
+	public void setBlock(final BlockState state, final VertexConsumer consumer) {
+		this.stateId = ((BlockStateIdCache) state).simplyNoShading$getStateId();
+		this.stream = this.streams.computeIfAbsent(consumer, key -> MemoryUtil.memAlloc(INITIAL_CAPACITY));
+		this.streamConsumer = consumer;
+	}
+
+	/**
+	 * Sets the next quad to be lit flat.
+	 */
+	public void setFlat() {
+		this.flat = true;
+	}
+
+	/**
+	 * Doubles the capacity of the selected stream.
+	 *
+	 * @return the grown stream
+	 */
+	private ByteBuffer grow() {
+		final var position = this.stream.position();
+		final var stream = MemoryUtil.memRealloc(this.stream, this.stream.capacity() * 2).position(position);
+
+		this.streams.put(this.streamConsumer, stream);
+		this.stream = stream;
+
+		return stream;
+	}
+
+	/**
+	 * Returns {@code true} if any vertex of the quad is not white; {@code false}
+	 * otherwise.
+	 *
+	 * @param vertices the vertex data of the quad
+	 * @return {@code true} if the quad is colored; {@code false} otherwise
+	 */
+	private static boolean isColored(final int[] vertices) {
+		for (var i = 0; i < 4; i++)
+			if ((vertices[i * 8 + 3] & 0xFFFFFF) != 0xFFFFFF)
+				return true;
+
+		return false;
+	}
+}
@@ -0,0 +1,147 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+
+/**
+ * The {@code ReshadePlan} class is the immutable set of
+ * {@linkplain ReshadeScope invalidations} scheduled for a config change. Each
+ * changed config field maps to the smallest scope that covers it, so that, for
+ * example, toggling cloud shading never recompiles terrain.
+ *
+ * @since 6.1.0
+ */
+public final class ReshadePlan {
+	/**
+	 * The plan where nothing needs to be invalidated.
+	 */
+	public static final ReshadePlan NONE = new ReshadePlan(EnumSet.noneOf(ReshadeScope.class));
+
+	/**
+	 * Plans the invalidations needed to go from one config to another by comparing
+	 * them flag by flag. Changed shade factors and toggled normal shading only
+	 * matter while some block may be shaded, and changed cloud shade factors only
+	 * while cloud shading is enabled.
+	 *
+	 * @param previous the previous config
+	 * @param next     the next config
+	 * @return the planned invalidations
+	 */
+	public static ReshadePlan between(final Config previous, final Config next) {
+		Objects.requireNonNull(previous, "Parameter previous was null");
+		Objects.requireNonNull(next, "Parameter next was null");
+
+		final var changedFlags = previous.flags ^ next.flags;
+		final var scopes = EnumSet.noneOf(ReshadeScope.class);
+
+		if ((changedFlags & (Config.BLOCK_SHADING_FLAG | Config.FLAT_LIGHTING_FLAG | Config.SHADER_SHADING_FLAG)) != 0)
+			scopes.add(ReshadeScope.BLOCK_SECTIONS);
+		else if (!previous.getBlockShadingExemptions().equals(next.getBlockShadingExemptions()))
+			scopes.add(ReshadeScope.BLOCK_SECTIONS);
+		else if ((!previous.hasSameShadeFactors(next) || (changedFlags & Config.NORMAL_SHADING_FLAG) != 0)
+		        && (next.isBlockShadingEnabled() || !next.getBlockShadingExemptions().isEmpty()))
+			scopes.add(ReshadeScope.BLOCK_SECTIONS);
+		if ((changedFlags & Config.CLOUD_SHADING_FLAG) != 0)
+			scopes.add(ReshadeScope.CLOUDS);
+		else if (!previous.hasSameCloudShadeFactors(next) && next.isCloudShadingEnabled())
+			scopes.add(ReshadeScope.CLOUDS);
+
+		if (scopes.isEmpty())
+			return NONE;
+		if (scopes.contains(ReshadeScope.BLOCK_SECTIONS))
+			scopes.remove(ReshadeScope.FLUID_SECTIONS);
+
+		return new ReshadePlan(scopes);
+	}
+
+	/**
+	 * Plans the invalidations needed to go from one snapshot to another. While
+	 * {@linkplain ShadingSnapshot#isShaderShading() shader shading} is in effect
+	 * on both sides, toggling block shading and changing the shade factors are
+	 * applied by the terrain shaders, so unless flat lighting was toggled too,
+	 * only the {@linkplain ReshadeScope#CPU_SHADED_SECTIONS sections shaded while
+	 * meshing} are recompiled instead of every section.
+	 *
+	 * @param previous the previous snapshot
+	 * @param next     the next snapshot
+	 * @return the planned invalidations
+	 */
+	public static ReshadePlan between(final ShadingSnapshot previous, final ShadingSnapshot next) {
+		Objects.requireNonNull(previous, "Parameter previous was null");
+		Objects.requireNonNull(next, "Parameter next was null");
+
+		final var plan = between(previous.activeConfig, next.activeConfig);
+
+		if (!plan.contains(ReshadeScope.BLOCK_SECTIONS) || !previous.isShaderShading() || !next.isShaderShading())
+			return plan;
+		if (!previous.activeConfig.getBlockShadingExemptions().equals(next.activeConfig.getBlockShadingExemptions()))
+			return plan;
+		if (previous.activeConfig.isFlatLightingEnabled() != next.activeConfig.isFlatLightingEnabled())
+			return plan;
+
+		final var scopes = EnumSet.copyOf(plan.scopes);
+		scopes.remove(ReshadeScope.BLOCK_SECTIONS);
+		scopes.add(ReshadeScope.CPU_SHADED_SECTIONS);
+
+		return new ReshadePlan(scopes);
+	}
+
+	/**
+	 * The planned invalidations.
+	 */
+	private final Set<ReshadeScope> scopes;
+
+	/**
+	 * Creates a new plan with the planned invalidations.
+	 *
+	 * @param scopes the planned invalidations
+	 */
+	private ReshadePlan(final Set<ReshadeScope> scopes) {
+		this.scopes = scopes;
+	}
+
+	/**
+	 * Returns {@code true} if the scope was planned; {@code false} otherwise.
+	 *
+	 * @param scope the scope
+	 * @return {@code true} if the scope was planned; {@code false} otherwise
+	 */
+	public boolean contains(final ReshadeScope scope) {
+		return this.scopes.contains(scope);
+	}
+
+	/**
+	 * Returns {@code true} if any section is to be meshed again, which is when
+	 * any scope other than {@link ReshadeScope#CLOUDS} was planned; {@code false}
+	 * otherwise.
+	 *
+	 * @return {@code true} if any section is to be meshed again; {@code false}
+	 *         otherwise
+	 */
+	public boolean affectsSections() {
+		return this.scopes.contains(ReshadeScope.BLOCK_SECTIONS)
+		        || this.scopes.contains(ReshadeScope.CPU_SHADED_SECTIONS)
+		        || this.scopes.contains(ReshadeScope.FLUID_SECTIONS);
+	}
+
+	/**
+	 * Returns {@code true} if nothing was planned; {@code false} otherwise.
+	 *
+	 * @return {@code true} if nothing was planned; {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return this.scopes.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + this.scopes;
+	}
+}
@@ -0,0 +1,605 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft.FrustumAccessor;
+import com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft.LevelRendererAccessor;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongComparator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.core.SectionPos;
+
+/**
+ * The {@code ReshadeScheduler} class owns the sections waiting to be
+ * re-shaded. Instead of marking every affected section dirty at once, sections
+ * are queued with the ones visible in the view frustum first, each group
+ * ordered from the nearest to the camera, and each frame only submits as many
+ * of them as fit a meshing time budget. Sections are weighed by the mean time
+ * recently spent {@linkplain MeshingStats meshing} one on the compile worker
+ * threads, so the budget bounds the work handed to them, not the comparatively
+ * trivial cost of marking sections dirty. Sections replayed from the
+ * {@linkplain SectionMeshCache mesh cache} are not measured, which only makes
+ * the estimate conservative.
+ * <p>
+ * The queue is prioritized when sections are scheduled, using the camera and
+ * frustum of that moment. Its depth and drain rate are exposed for tuning.
+ * Every method is meant to be called from the render thread, except
+ * {@link #requeueOutdated(long)}, which compile worker threads call with the
+ * sections whose mesh they dropped, so that the render thread invalidates them
+ * again when it next drains.
+ * <p>
+ * When {@linkplain #setLazy(boolean) lazy}, scheduling queues nothing. It
+ * records the {@linkplain ShadingSnapshot#generation generation} sections must
+ * have been meshed with, and collects the sections
+ * {@linkplain ShadingGenerationHolder meshed earlier} whose content may change.
+ * Each frame, once culled, the collected sections in the view frustum are
+ * queued ahead of the rest, while off-screen sections keep their compiled
+ * meshes until they come into view. Sections meshed again meanwhile are
+ * dropped, and nothing is checked once no collected section is left. This
+ * relies on the vanilla section storage.
+ *
+ * @since 6.1.0
+ */
+public class ReshadeScheduler {
+	/**
+	 * The meshing time in nanoseconds a section is assumed to take before any
+	 * section was measured.
+	 */
+	private static final long DEFAULT_MESH_NANOS = 500_000L;
+
+	/**
+	 * The interval in nanoseconds over which the drain rate is sampled.
+	 */
+	private static final long DRAIN_RATE_SAMPLE_NANOS = 1_000_000_000L;
+
+	/**
+	 * The minimum number of sections meshed since the last sample before the
+	 * meshing time estimate is sampled again.
+	 */
+	private static final long MESH_SAMPLE_COUNT = 16L;
+
+	/**
+	 * Returns the squared distance between the origin of a section and a point.
+	 *
+	 * @param section the packed section position
+	 * @param x       the x coordinate of the point
+	 * @param y       the y coordinate of the point
+	 * @param z       the z coordinate of the point
+	 * @return the squared distance
+	 */
+	private static double distanceSqr(final long section, final double x, final double y, final double z) {
+		final var dx = SectionPos.sectionToBlockCoord(SectionPos.x(section)) - x;
+		final var dy = SectionPos.sectionToBlockCoord(SectionPos.y(section)) - y;
+		final var dz = SectionPos.sectionToBlockCoord(SectionPos.z(section)) - z;
+
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * The generation every non-empty section must have been meshed with, or
+	 * {@code 0L} if none.
+	 */
+	private long blockSectionsStaleBefore;
+
+	/**
+	 * The generation every section that may contain geometry shaded while meshing
+	 * must have been meshed with, or {@code 0L} if none.
+	 */
+	private long cpuShadedSectionsStaleBefore;
+
+	/**
+	 * The sections submitted per second over the last sample.
+	 */
+	private float drainRate;
+
+	/**
+	 * The number of sections submitted since the current drain rate sample
+	 * started.
+	 */
+	private int drainedSinceSample;
+
+	/**
+	 * The generation every section that may contain fluids must have been meshed
+	 * with, or {@code 0L} if none.
+	 */
+	private long fluidSectionsStaleBefore;
+
+	/**
+	 * The index of the next section to submit in {@link #queue}.
+	 */
+	private int head;
+
+	/**
+	 * Whether off-screen sections are re-shaded only once they come into view.
+	 */
+	private boolean lazy;
+
+	/**
+	 * The estimated time in nanoseconds meshing a section takes.
+	 */
+	private long meshNanosEstimate = DEFAULT_MESH_NANOS;
+
+	/**
+	 * The stats the meshing time of sections is estimated from.
+	 */
+	private final MeshingStats meshingStats;
+
+	/**
+	 * The sections whose mesh was dropped for being outdated, waiting to be
+	 * invalidated again, as {@linkplain SectionPos#asLong(int, int, int) packed
+	 * section positions}. Guarded by itself, as compile worker threads add to it.
+	 */
+	private final LongArrayList outdatedSections = new LongArrayList();
+
+	/**
+	 * The pending sections, for deduplication.
+	 */
+	private final LongOpenHashSet pending = new LongOpenHashSet();
+
+	/**
+	 * The pending sections in submission order, as
+	 * {@linkplain SectionPos#asLong(int, int, int) packed section positions}.
+	 */
+	private long[] queue = LongArrays.EMPTY_ARRAY;
+
+	/**
+	 * The number of sections meshed when the meshing time estimate was last
+	 * sampled.
+	 */
+	private long sampledMeshCount;
+
+	/**
+	 * The total meshing time when the meshing time estimate was last sampled, in
+	 * nanoseconds.
+	 */
+	private long sampledMeshNanos;
+
+	/**
+	 * The time the current drain rate sample started, in nanoseconds.
+	 */
+	private long sampleStartNanos = System.nanoTime();
+
+	/**
+	 * The sections meshed before the generation they must have been meshed with,
+	 * waiting to come into view. Empty unless lazy.
+	 */
+	private final ObjectArrayList<ChunkRenderDispatcher.RenderChunk> staleSections = new ObjectArrayList<>();
+
+	/**
+	 * The stale sections that came into view in the current frame, as
+	 * {@linkplain SectionPos#asLong(int, int, int) packed section positions}.
+	 * Reused every frame.
+	 */
+	private final LongArrayList staleVisibleSections = new LongArrayList();
+
+	/**
+	 * Creates a new {@code ReshadeScheduler} instance with an empty queue.
+	 *
+	 * @param meshingStats the stats the meshing time of sections is estimated
+	 *                     from
+	 */
+	public ReshadeScheduler(final MeshingStats meshingStats) {
+		this.meshingStats = meshingStats;
+	}
+
+	/**
+	 * Discards every pending and stale section, as when the level changes and
+	 * every section gets recompiled anyway.
+	 */
+	public void clear() {
+		this.blockSectionsStaleBefore = 0L;
+		this.cpuShadedSectionsStaleBefore = 0L;
+		this.fluidSectionsStaleBefore = 0L;
+
+		synchronized (this.outdatedSections) {
+			this.outdatedSections.clear();
+		}
+
+		this.pending.clear();
+		this.queue = LongArrays.EMPTY_ARRAY;
+		this.head = 0;
+		this.staleSections.clear();
+		this.staleVisibleSections.clear();
+	}
+
+	/**
+	 * Collects every section of the level renderer that is
+	 * {@linkplain #staleScopeOf(ChunkRenderDispatcher.RenderChunk) stale},
+	 * replacing the sections collected before.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void collectStaleSections(final Minecraft minecraft) {
+		final var staleSections = this.staleSections;
+		final var levelRenderer = minecraft.levelRenderer;
+
+		staleSections.clear();
+
+		if (levelRenderer == null || minecraft.level == null)
+			return;
+
+		final var viewArea = ((LevelRendererAccessor) levelRenderer).getViewArea();
+
+		if (viewArea == null)
+			return;
+
+		for (final var renderChunk : viewArea.chunks)
+			if (staleScopeOf(renderChunk) != null)
+				staleSections.add(renderChunk);
+	}
+
+	/**
+	 * Submits as many pending sections as their
+	 * {@linkplain #getMeshNanosEstimate() estimated meshing time} fits the
+	 * budget, always submitting at least one. Sections whose mesh was dropped for
+	 * being outdated are invalidated again first, outside of the budget, as they
+	 * were already being meshed. When lazy, stale sections in the view frustum
+	 * are queued first. Nothing happens when there is no level being rendered.
+	 *
+	 * @param minecraft    the minecraft client
+	 * @param budgetMillis the meshing time budget in milliseconds
+	 * @return the number of sections submitted
+	 */
+	public int drain(final Minecraft minecraft, final float budgetMillis) {
+		final var now = System.nanoTime();
+
+		if (now - this.sampleStartNanos >= DRAIN_RATE_SAMPLE_NANOS) {
+			this.drainRate = this.drainedSinceSample * 1.0E9F / (now - this.sampleStartNanos);
+			this.drainedSinceSample = 0;
+			this.sampleStartNanos = now;
+		}
+
+		final var levelRenderer = minecraft.levelRenderer;
+
+		if (levelRenderer == null || minecraft.level == null)
+			return 0;
+
+		final var invalidator = (SectionInvalidator) levelRenderer;
+
+		invalidateOutdatedSections(invalidator);
+
+		if (!this.staleSections.isEmpty())
+			queueStaleVisibleSections(minecraft);
+
+		final var queue = this.queue;
+
+		if (this.head >= queue.length)
+			return 0;
+
+		final var sectionBudget = Math.max(1L, (long) (budgetMillis * 1_000_000.0D / estimateMeshNanos()));
+		final var end = (int) Math.min(queue.length, this.head + sectionBudget);
+		var head = this.head;
+
+		do {
+			final var section = queue[head++];
+
+			this.pending.remove(section);
+			invalidator.simplyNoShading$invalidateSection(SectionPos.x(section),
+			        SectionPos.y(section),
+			        SectionPos.z(section));
+		} while (head < end);
+
+		final var drained = head - this.head;
+
+		this.drainedSinceSample += drained;
+
+		if (head < queue.length) {
+			this.head = head;
+		} else {
+			this.queue = LongArrays.EMPTY_ARRAY;
+			this.head = 0;
+		}
+
+		return drained;
+	}
+
+	/**
+	 * Samples the meshing time estimate again once enough sections were meshed
+	 * since the last sample, and returns it.
+	 *
+	 * @return the estimated time in nanoseconds meshing a section takes
+	 */
+	private long estimateMeshNanos() {
+		final var meshCount = this.meshingStats.getMeshCount();
+		final var meshNanos = this.meshingStats.getMeshNanos();
+		final var sampleCount = meshCount - this.sampledMeshCount;
+
+		if (sampleCount >= MESH_SAMPLE_COUNT) {
+			this.meshNanosEstimate = Math.max(1L, (meshNanos - this.sampledMeshNanos) / sampleCount);
+			this.sampledMeshCount = meshCount;
+			this.sampledMeshNanos = meshNanos;
+		}
+
+		return this.meshNanosEstimate;
+	}
+
+	/**
+	 * Returns the number of sections submitted per second, sampled over the last
+	 * second.
+	 *
+	 * @return the number of sections submitted per second
+	 */
+	public float getDrainRate() {
+		return this.drainRate;
+	}
+
+	/**
+	 * Returns the estimated time in nanoseconds meshing a section takes, the mean
+	 * over the sections meshed between the last two samples.
+	 *
+	 * @return the estimated time in nanoseconds meshing a section takes
+	 */
+	public long getMeshNanosEstimate() {
+		return this.meshNanosEstimate;
+	}
+
+	/**
+	 * Returns the number of sections waiting to be submitted.
+	 *
+	 * @return the number of sections waiting to be submitted
+	 */
+	public int getQueueDepth() {
+		return this.queue.length - this.head;
+	}
+
+	/**
+	 * Invalidates the {@linkplain #requeueOutdated(long) outdated sections}
+	 * again and stops tracking them.
+	 *
+	 * @param invalidator the section invalidator
+	 */
+	private void invalidateOutdatedSections(final SectionInvalidator invalidator) {
+		final var outdatedSections = this.outdatedSections;
+
+		synchronized (outdatedSections) {
+			final var size = outdatedSections.size();
+
+			for (var i = 0; i < size; i++) {
+				final var section = outdatedSections.getLong(i);
+
+				invalidator.simplyNoShading$invalidateSection(SectionPos.x(section),
+				        SectionPos.y(section),
+				        SectionPos.z(section));
+			}
+
+			outdatedSections.clear();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if off-screen sections are re-shaded only once they
+	 * come into view; {@code false} otherwise.
+	 *
+	 * @return {@code true} if off-screen sections are re-shaded lazily;
+	 *         {@code false} otherwise
+	 */
+	public boolean isLazy() {
+		return this.lazy;
+	}
+
+	/**
+	 * Queues the {@linkplain #staleSections stale sections} in the view frustum
+	 * the frame was culled with, ahead of the rest of the queue, and stops
+	 * tracking them. Sections that were meshed again meanwhile stop being
+	 * tracked as well. Queued sections are stamped right away, so that none of
+	 * them is collected again until the next change.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void queueStaleVisibleSections(final Minecraft minecraft) {
+		final var level = minecraft.level;
+		final var frustum = ((LevelRendererAccessor) minecraft.levelRenderer).getCullingFrustum();
+
+		if (frustum == null)
+			return;
+
+		final var freshGeneration = Math.max(this.blockSectionsStaleBefore,
+		        Math.max(this.cpuShadedSectionsStaleBefore, this.fluidSectionsStaleBefore));
+		final var staleSections = this.staleSections;
+		final var visible = this.staleVisibleSections;
+		final var size = staleSections.size();
+		var kept = 0;
+
+		for (var i = 0; i < size; i++) {
+			final var renderChunk = staleSections.get(i);
+			final var scope = staleScopeOf(renderChunk);
+
+			if (scope == null)
+				continue;
+
+			if (!frustum.isVisible(renderChunk.getBoundingBox())) {
+				staleSections.set(kept++, renderChunk);
+				continue;
+			}
+
+			((ShadingGenerationHolder) renderChunk).simplyNoShading$setShadingGeneration(freshGeneration);
+
+			final var origin = renderChunk.getOrigin();
+			final var sectionX = SectionPos.blockToSectionCoord(origin.getX());
+			final var sectionY = SectionPos.blockToSectionCoord(origin.getY());
+			final var sectionZ = SectionPos.blockToSectionCoord(origin.getZ());
+
+			if (!LevelReshader.isAffected(level, sectionX, sectionY, sectionZ, scope))
+				continue;
+
+			final var section = SectionPos.asLong(sectionX, sectionY, sectionZ);
+
+			if (this.pending.add(section))
+				visible.add(section);
+		}
+
+		staleSections.size(kept);
+
+		if (visible.isEmpty())
+			return;
+
+		final var remaining = this.queue.length - this.head;
+		final var queue = new long[visible.size() + remaining];
+
+		visible.getElements(0, queue, 0, visible.size());
+		System.arraycopy(this.queue, this.head, queue, visible.size(), remaining);
+		visible.clear();
+
+		this.queue = queue;
+		this.head = 0;
+	}
+
+	/**
+	 * Queues a section whose mesh was dropped, as the shading snapshot changed
+	 * while it was meshed, to be invalidated again by the render thread when it
+	 * next drains. Unlike every other method, this is safe to call from compile
+	 * worker threads.
+	 *
+	 * @param section the packed section position
+	 */
+	public void requeueOutdated(final long section) {
+		synchronized (this.outdatedSections) {
+			this.outdatedSections.add(section);
+		}
+	}
+
+	/**
+	 * Queues the sections affected by the scope and prioritizes the whole queue
+	 * again. Sections already pending are not queued twice. When lazy, nothing is
+	 * queued here, and the sections are instead marked stale for the generation
+	 * and {@linkplain #collectStaleSections(Minecraft) collected}.
+	 * When the renderer {@linkplain SectionInvalidator only rebuilds visible
+	 * sections}, as Sodium does, they are all invalidated at once instead, as the
+	 * renderer defers the off-screen ones and paces the visible ones by itself;
+	 * the budget then does not apply.
+	 *
+	 * @param minecraft  the minecraft client
+	 * @param scope      the section scope
+	 * @param generation the generation the sections must be meshed with
+	 * @return the number of newly queued or invalidated sections
+	 */
+	public int schedule(final Minecraft minecraft, final ReshadeScope scope, final long generation) {
+		final var levelRenderer = minecraft.levelRenderer;
+
+		if (levelRenderer instanceof final SectionInvalidator invalidator
+		        && invalidator.simplyNoShading$rebuildsOnlyVisibleSections())
+			return LevelReshader.invalidateSections(minecraft, scope);
+
+		if (this.lazy) {
+			switch (scope) {
+			case BLOCK_SECTIONS -> this.blockSectionsStaleBefore = generation;
+			case CPU_SHADED_SECTIONS -> this.cpuShadedSectionsStaleBefore = generation;
+			case FLUID_SECTIONS -> this.fluidSectionsStaleBefore = generation;
+			case CLOUDS -> {}
+			}
+
+			collectStaleSections(minecraft);
+			return 0;
+		}
+
+		final var pending = this.pending;
+		final var sizeBefore = pending.size();
+
+		LevelReshader.forEachAffectedSection(minecraft, scope, pending::add);
+
+		final var added = pending.size() - sizeBefore;
+
+		if (added != 0)
+			prioritize(minecraft);
+
+		return added;
+	}
+
+	/**
+	 * Rebuilds the queue from the pending sections, putting the sections visible
+	 * in the view frustum first and ordering each group from the nearest to the
+	 * camera. The frustum is tested against the bounds of each section directly,
+	 * without allocating a box per section.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void prioritize(final Minecraft minecraft) {
+		final var camera = minecraft.gameRenderer.getMainCamera().getPosition();
+		final var levelRenderer = minecraft.levelRenderer;
+		final var frustum = levelRenderer != null
+		        ? (FrustumAccessor) ((LevelRendererAccessor) levelRenderer).getCullingFrustum()
+		        : null;
+		final var visible = new LongArrayList();
+		final var hidden = new LongArrayList();
+
+		for (final var iterator = this.pending.iterator(); iterator.hasNext();) {
+			final var section = iterator.nextLong();
+			final var minX = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+			final var minY = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+			final var minZ = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+
+			if (frustum == null || frustum.invokeCubeInFrustum(minX, minY, minZ, minX + 16, minY + 16, minZ + 16))
+				visible.add(section);
+			else
+				hidden.add(section);
+		}
+
+		final var cameraX = camera.x() - 8.0D;
+		final var cameraY = camera.y() - 8.0D;
+		final var cameraZ = camera.z() - 8.0D;
+		final var queue = new long[visible.size() + hidden.size()];
+
+		visible.getElements(0, queue, 0, visible.size());
+		hidden.getElements(0, queue, visible.size(), hidden.size());
+
+		final LongComparator byDistance = (a, b) -> Double.compare(distanceSqr(a, cameraX, cameraY, cameraZ),
+		        distanceSqr(b, cameraX, cameraY, cameraZ));
+
+		LongArrays.quickSort(queue, 0, visible.size(), byDistance);
+		LongArrays.quickSort(queue, visible.size(), queue.length, byDistance);
+
+		this.queue = queue;
+		this.head = 0;
+	}
+
+	/**
+	 * Sets whether off-screen sections are re-shaded only once they come into
+	 * view. This must only be enabled while the vanilla section storage is in use.
+	 *
+	 * @param lazy whether off-screen sections are re-shaded lazily
+	 */
+	public void setLazy(final boolean lazy) {
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Returns the scope a section must be re-shaded with, as it was meshed before
+	 * the generation the scope requires and its {@linkplain SectionContent
+	 * content} may change with it, or {@code null} if it is not stale.
+	 *
+	 * @param renderChunk the section
+	 * @return the scope the section must be re-shaded with, possibly
+	 *         {@code null}
+	 */
+	private ReshadeScope staleScopeOf(final ChunkRenderDispatcher.RenderChunk renderChunk) {
+		final var generation = ((ShadingGenerationHolder) renderChunk).simplyNoShading$getShadingGeneration();
+		final ReshadeScope scope;
+
+		if (generation < this.blockSectionsStaleBefore)
+			scope = ReshadeScope.BLOCK_SECTIONS;
+		else if (generation < this.cpuShadedSectionsStaleBefore)
+			scope = ReshadeScope.CPU_SHADED_SECTIONS;
+		else if (generation < this.fluidSectionsStaleBefore)
+			scope = ReshadeScope.FLUID_SECTIONS;
+		else
+			return null;
+
+		if ((((SectionContentHolder) renderChunk).simplyNoShading$getContentFlags() & scope.getContentMask()) == 0)
+			return null;
+
+		return scope;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + "[lazy=" + this.lazy + ", queueDepth=" + getQueueDepth()
+		        + ", staleSections=" + this.staleSections.size() + ", drainRate=" + this.drainRate + ", meshNanosEstimate=" + this.meshNanosEstimate + "]";
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+/**
+ * The {@code ReshadeScope} enum lists the invalidations a config change may
+ * require, from the cheapest to the most expensive.
+ *
+ * @since 6.1.0
+ */
+public enum ReshadeScope {
+	/**
+	 * Only the cloud geometry is regenerated.
+	 */
+	CLOUDS(0),
+
+	/**
+	 * Only the sections that may contain fluids are recompiled.
+	 */
+	FLUID_SECTIONS(SectionContent.FLUIDS),
+
+	/**
+	 * Only the sections that may contain geometry shaded while meshing even
+	 * though {@linkplain TerrainShaders terrain shaders} shade the blocks, that is
+	 * fluids and Fabric Renderer API meshes, are recompiled. This covers
+	 * {@link #FLUID_SECTIONS}.
+	 */
+	CPU_SHADED_SECTIONS(SectionContent.FLUIDS | SectionContent.FABRIC_MESHES),
+
+	/**
+	 * Every non-empty section is recompiled. This covers every other section
+	 * scope.
+	 */
+	BLOCK_SECTIONS(SectionContent.SHADED_BLOCKS
+	        | SectionContent.FLUIDS
+	        | SectionContent.FABRIC_MESHES
+	        | SectionContent.OCCLUDED_BLOCKS);
+
+	/**
+	 * The {@linkplain SectionContent content flags} of the sections whose mesh
+	 * may change.
+	 */
+	private final int contentMask;
+
+	/**
+	 * Creates a new scope.
+	 *
+	 * @param contentMask the content flags of the sections whose mesh may change
+	 */
+	private ReshadeScope(final int contentMask) {
+		this.contentMask = contentMask;
+	}
+
+	/**
+	 * Returns the {@linkplain SectionContent content flags} of the sections whose
+	 * mesh may change. Sections whose content does not intersect them are not
+	 * recompiled.
+	 *
+	 * @return the content flags of the sections whose mesh may change
+	 */
+	public int getContentMask() {
+		return this.contentMask;
+	}
+}
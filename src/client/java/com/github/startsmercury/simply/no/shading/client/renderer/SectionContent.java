@@ -0,0 +1,70 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+
+import net.fabricmc.fabric.api.renderer.v1.model.FabricBakedModel;
+import net.minecraft.client.resources.model.BakedModel;
+
+/**
+ * The {@code SectionContent} class lists the flags summarizing what a compiled
+ * section contains, as far as shading is concerned. The summary is built while
+ * the section is meshed, and a section whose summary does not intersect the
+ * {@linkplain ReshadeScope#getContentMask() content a change affects} would be
+ * meshed into identical geometry, so it is not rebuilt.
+ *
+ * @since 6.1.0
+ */
+public final class SectionContent {
+	/**
+	 * The flag set when the section has a block model with at least one shaded
+	 * quad, or a model that cannot be told apart.
+	 */
+	public static final int SHADED_BLOCKS = 1 << 0;
+
+	/**
+	 * The flag set when the section has fluids.
+	 */
+	public static final int FLUIDS = 1 << 1;
+
+	/**
+	 * The flag set when the section has a model emitting Fabric Renderer API
+	 * meshes.
+	 */
+	public static final int FABRIC_MESHES = 1 << 2;
+
+	/**
+	 * The flag set when the section has a block model lit with ambient occlusion
+	 * unless {@linkplain Config#isFlatLightingEnabled() flat lighting} is
+	 * enabled.
+	 */
+	public static final int OCCLUDED_BLOCKS = 1 << 3;
+
+	/**
+	 * The summary of a section not meshed yet, intersecting every content.
+	 */
+	public static final int UNKNOWN = SHADED_BLOCKS | FLUIDS | FABRIC_MESHES | OCCLUDED_BLOCKS;
+
+	/**
+	 * Returns the content flags of a block model.
+	 *
+	 * @param model the model
+	 * @return the content flags of the model
+	 */
+	public static int ofModel(final BakedModel model) {
+		if (!((FabricBakedModel) model).isVanillaAdapter())
+			return FABRIC_MESHES;
+
+		final var occluded = model.useAmbientOcclusion() ? OCCLUDED_BLOCKS : 0;
+
+		if (model instanceof final UnshadedVariantHolder holder && holder.simplyNoShading$getUnshadedVariant() == model)
+			return occluded;
+		return SHADED_BLOCKS | occluded;
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private SectionContent() {
+	}
+}
@@ -0,0 +1,119 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code SectionContentGatherer} class gathers the
+ * {@linkplain SectionContent content flags} of a section while it is meshed,
+ * from the models the block renderer tessellates, so that no model is looked
+ * up again just to summarize the section.
+ * <p>
+ * A block with a model that never reaches the vanilla block renderer was
+ * rendered by a Fabric renderer, and adds the
+ * {@linkplain SectionContent#FABRIC_MESHES Fabric mesh flag}.
+ * <p>
+ * A gatherer is bound to the compiling thread between {@link #begin()} and
+ * {@link #finish()}, where the renderer hooks find it through
+ * {@link #current()}.
+ *
+ * @since 6.1.0
+ */
+public final class SectionContentGatherer {
+	/**
+	 * The gatherer bound to each compiling thread.
+	 */
+	private static final ThreadLocal<SectionContentGatherer> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Binds a new gatherer to the current thread, replacing any gatherer left by
+	 * a compile that failed.
+	 *
+	 * @return the new gatherer
+	 */
+	public static SectionContentGatherer begin() {
+		final var gatherer = new SectionContentGatherer();
+		CURRENT.set(gatherer);
+
+		return gatherer;
+	}
+
+	/**
+	 * Returns the gatherer bound to the current thread, or {@code null} if the
+	 * thread is not gathering.
+	 *
+	 * @return the gatherer bound to the current thread, possibly {@code null}
+	 */
+	public static SectionContentGatherer current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * The content flags gathered so far.
+	 */
+	private int contentFlags;
+
+	/**
+	 * Whether the block being meshed has a model that did not reach the vanilla
+	 * block renderer yet.
+	 */
+	private boolean modelPending;
+
+	/**
+	 * Creates a new gatherer.
+	 */
+	private SectionContentGatherer() {
+	}
+
+	/**
+	 * Starts gathering the content of a block about to be rendered, settling the
+	 * previous one.
+	 *
+	 * @param state the block state
+	 */
+	public void beginBlock(final BlockState state) {
+		settleBlock();
+		this.modelPending = state.getRenderShape() == RenderShape.MODEL;
+	}
+
+	/**
+	 * Settles the last block, unbinds the gatherer from the current thread and
+	 * returns the gathered content flags.
+	 *
+	 * @return the gathered content flags
+	 */
+	public int finish() {
+		settleBlock();
+
+		if (CURRENT.get() == this)
+			CURRENT.remove();
+
+		return this.contentFlags;
+	}
+
+	/**
+	 * Adds the {@linkplain SectionContent#ofModel(BakedModel) content flags} of
+	 * the model of the block being meshed, as passed to the vanilla block
+	 * renderer before any unshaded variant is swapped in.
+	 *
+	 * @param model the model
+	 */
+	public void gatherModel(final BakedModel model) {
+		this.modelPending = false;
+
+		if (this.contentFlags != SectionContent.UNKNOWN)
+			this.contentFlags |= SectionContent.ofModel(model);
+	}
+
+	/**
+	 * Adds the Fabric mesh flag if the model of the block being meshed never
+	 * reached the vanilla block renderer.
+	 */
+	private void settleBlock() {
+		if (this.modelPending) {
+			this.contentFlags |= SectionContent.FABRIC_MESHES;
+			this.modelPending = false;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+/**
+ * The {@code SectionContentHolder} interface is implemented by every compiled
+ * section of the vanilla renderer through a mixin. It holds the
+ * {@linkplain SectionContent content flags} summarizing the section as of its
+ * last compile, and the content epoch identifying what the section contains.
+ *
+ * @since 6.1.0
+ */
+public interface SectionContentHolder {
+	/**
+	 * Returns the content flags of the section, or {@link SectionContent#UNKNOWN}
+	 * if it was not meshed yet.
+	 *
+	 * @return the content flags of the section
+	 */
+	int simplyNoShading$getContentFlags();
+
+	/**
+	 * Returns the content epoch of the section. It changes whenever the section is
+	 * moved or made dirty by anything other than a re-shade, so that two compiles
+	 * at the same epoch only differ by their shading.
+	 *
+	 * @return the content epoch of the section
+	 * @see SectionMeshCache
+	 */
+	long simplyNoShading$getContentEpoch();
+
+	/**
+	 * Sets the content flags of the section.
+	 *
+	 * @param contentFlags the content flags
+	 */
+	void simplyNoShading$setContentFlags(int contentFlags);
+}
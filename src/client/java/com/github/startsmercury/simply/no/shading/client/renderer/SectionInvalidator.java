@@ -0,0 +1,33 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.client.renderer.LevelRenderer;
+
+/**
+ * The {@code SectionInvalidator} interface is implemented by the
+ * {@link LevelRenderer} through a mixin selected for the renderer in use. It
+ * schedules sections for recompiling through the renderer's own rebuild queue,
+ * keeping its section storage and compiled meshes alive.
+ *
+ * @since 6.1.0
+ */
+public interface SectionInvalidator {
+	/**
+	 * Schedules the section at the given coordinates for recompiling. Its current
+	 * mesh remains visible until the replacement is uploaded.
+	 *
+	 * @param sectionX the section x coordinate
+	 * @param sectionY the section y coordinate
+	 * @param sectionZ the section z coordinate
+	 */
+	void simplyNoShading$invalidateSection(int sectionX, int sectionY, int sectionZ);
+
+	/**
+	 * Returns {@code true} if the renderer only rebuilds invalidated sections
+	 * once they are visible; {@code false} otherwise. Such a renderer defers
+	 * off-screen work by itself, so sections may be invalidated all at once.
+	 *
+	 * @return {@code true} if the renderer only rebuilds visible sections;
+	 *         {@code false} otherwise
+	 */
+	boolean simplyNoShading$rebuildsOnlyVisibleSections();
+}
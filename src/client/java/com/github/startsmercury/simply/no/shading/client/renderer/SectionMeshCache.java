@@ -0,0 +1,661 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lwjgl.system.MemoryUtil;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.VisibilitySet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+/**
+ * The {@code SectionMeshCache} class keeps the meshes of recently compiled
+ * sections for each {@linkplain Config.MeshingKey meshing key} of the config
+ * they were meshed with, so that
+ * toggling shading back replays a section instead of meshing it again. Vertex
+ * data is copied off-heap, and the least recently used sections are evicted
+ * once the memory budget is exceeded.
+ * <p>
+ * A cached mesh is only replayed while the section keeps the
+ * {@linkplain SectionContentHolder#simplyNoShading$getContentEpoch() content
+ * epoch} it was meshed with, which changes whenever the section is made dirty
+ * by anything other than a re-shade. The cache is disabled while its budget is
+ * {@code 0}.
+ * <p>
+ * Meshes are stored along with the {@linkplain QuadShadeRecorder records} of
+ * their quads when the section only holds plain block models, so that a config
+ * no mesh was cached for yet is {@linkplain VertexColorPatcher patched} from
+ * another one instead of meshing the section again.
+ *
+ * @since 6.1.0
+ */
+public class SectionMeshCache {
+	/**
+	 * The {@code SectionMeshCache.Mesh} class is the cached output of a single
+	 * section compile.
+	 *
+	 * @since 6.1.0
+	 */
+	public static final class Mesh {
+		/**
+		 * The block entities rendered regardless of the section visibility.
+		 */
+		public final List<BlockEntity> globalBlockEntities;
+
+		/**
+		 * The block entities rendered with the section.
+		 */
+		public final List<BlockEntity> blockEntities;
+
+		/**
+		 * The {@linkplain SectionContent content flags} of the section.
+		 */
+		public final int contentFlags;
+
+		/**
+		 * Whether the mesh was evicted, its memory to be released once unpinned.
+		 */
+		private boolean evicted;
+
+		/**
+		 * The off-heap vertex data of each non-empty layer, in the
+		 * {@linkplain DefaultVertexFormat#BLOCK block format}.
+		 */
+		private final Map<RenderType, ByteBuffer> layers;
+
+		/**
+		 * The number of compiles still reading the mesh.
+		 */
+		private int pins;
+
+		/**
+		 * The off-heap records of the quads of each layer, or an empty map if the
+		 * mesh cannot be patched from.
+		 */
+		private final Map<RenderType, ByteBuffer> shadeRecords;
+
+		/**
+		 * The number of off-heap bytes held.
+		 */
+		private final long size;
+
+		/**
+		 * The visibility between the faces of the section.
+		 */
+		public final VisibilitySet visibilitySet;
+
+		/**
+		 * Creates a new mesh.
+		 *
+		 * @param globalBlockEntities the block entities rendered regardless of the
+		 *                            section visibility
+		 * @param blockEntities       the block entities rendered with the section
+		 * @param contentFlags        the content flags of the section
+		 * @param layers              the off-heap vertex data of each layer
+		 * @param shadeRecords        the off-heap records of the quads of each
+		 *                            layer, possibly empty
+		 * @param size                the number of off-heap bytes held
+		 * @param visibilitySet       the visibility between the faces of the
+		 *                            section
+		 */
+		private Mesh(final List<BlockEntity> globalBlockEntities,
+		        final List<BlockEntity> blockEntities,
+		        final int contentFlags,
+		        final Map<RenderType, ByteBuffer> layers,
+		        final Map<RenderType, ByteBuffer> shadeRecords,
+		        final long size,
+		        final VisibilitySet visibilitySet) {
+			this.globalBlockEntities = globalBlockEntities;
+			this.blockEntities = blockEntities;
+			this.contentFlags = contentFlags;
+			this.layers = layers;
+			this.shadeRecords = shadeRecords;
+			this.size = size;
+			this.visibilitySet = visibilitySet;
+		}
+
+		/**
+		 * Releases the off-heap vertex data.
+		 */
+		private void free() {
+			this.layers.values().forEach(MemoryUtil::memFree);
+			this.layers.clear();
+			this.shadeRecords.values().forEach(MemoryUtil::memFree);
+			this.shadeRecords.clear();
+		}
+
+		/**
+		 * Returns {@code true} if the mesh can be patched from; {@code false}
+		 * otherwise.
+		 *
+		 * @return {@code true} if the mesh can be patched from; {@code false}
+		 *         otherwise
+		 */
+		private boolean isPatchable() {
+			return (this.contentFlags & ~(SectionContent.SHADED_BLOCKS | SectionContent.OCCLUDED_BLOCKS)) == 0
+			        && this.shadeRecords.keySet().equals(this.layers.keySet());
+		}
+
+		/**
+		 * Returns a copy of the mesh with its vertex colors patched for the
+		 * shading of the snapshot, or {@code null} if a layer could not be
+		 * patched. The copy cannot be patched from itself.
+		 *
+		 * @param snapshot the shading snapshot
+		 * @param level    the level providing the diffuse factors
+		 * @return the patched copy, or {@code null} if a layer could not be
+		 *         patched
+		 */
+		private Mesh patch(final ShadingSnapshot snapshot, final BlockAndTintGetter level) {
+			final var layers = new IdentityHashMap<RenderType, ByteBuffer>(this.layers.size());
+			var size = 0L;
+
+			for (final var layer : this.layers.entrySet()) {
+				final var vertices = layer.getValue();
+				final var copy = MemoryUtil.memAlloc(vertices.remaining());
+
+				MemoryUtil.memCopy(vertices, copy);
+				layers.put(layer.getKey(), copy);
+				size += copy.capacity();
+
+				if (!VertexColorPatcher.patch(this.shadeRecords.get(layer.getKey()),
+				        copy,
+				        snapshot,
+				        level)) {
+					layers.values().forEach(MemoryUtil::memFree);
+					return null;
+				}
+			}
+
+			return new Mesh(this.globalBlockEntities,
+			        this.blockEntities,
+			        this.contentFlags,
+			        layers,
+			        new IdentityHashMap<>(0),
+			        size,
+			        this.visibilitySet);
+		}
+
+		/**
+		 * Writes the cached vertex data into the builders of the pack, and puts the
+		 * resulting buffers into the rendered layers. The translucent layer is
+		 * sorted for the camera position like a fresh compile would.
+		 *
+		 * @param buffers        the builders
+		 * @param cameraX        the camera x coordinate
+		 * @param cameraY        the camera y coordinate
+		 * @param cameraZ        the camera z coordinate
+		 * @param origin         the section origin
+		 * @param renderedLayers the rendered layers to put the buffers into
+		 * @return the sort state of the translucent layer, or {@code null} if it is
+		 *         empty
+		 */
+		public BufferBuilder.SortState replay(final ChunkBufferBuilderPack buffers,
+		        final float cameraX,
+		        final float cameraY,
+		        final float cameraZ,
+		        final BlockPos origin,
+		        final Map<RenderType, BufferBuilder.RenderedBuffer> renderedLayers) {
+			BufferBuilder.SortState transparencyState = null;
+
+			for (final var entry : this.layers.entrySet()) {
+				final var renderType = entry.getKey();
+				final var builder = buffers.builder(renderType);
+
+				builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.BLOCK);
+				builder.putBulkData(entry.getValue().duplicate());
+
+				if (renderType == RenderType.translucent()) {
+					builder.setQuadSortOrigin(cameraX - origin.getX(),
+					        cameraY - origin.getY(),
+					        cameraZ - origin.getZ());
+					transparencyState = builder.getSortState();
+				}
+
+				final var renderedBuffer = builder.endOrDiscardIfEmpty();
+
+				if (renderedBuffer != null)
+					renderedLayers.put(renderType, renderedBuffer);
+			}
+
+			return transparencyState;
+		}
+	}
+
+	/**
+	 * The {@code SectionMeshCache.Entry} class holds the cached meshes of a
+	 * single section, one per config.
+	 */
+	private static final class Entry {
+		/**
+		 * The content epoch the meshes were compiled at.
+		 */
+		private final long epoch;
+
+		/**
+		 * The meshes, keyed by the interned meshing key of the config they were
+		 * meshed with.
+		 */
+		private final Map<Config.MeshingKey, Mesh> meshes = new IdentityHashMap<>(4);
+
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param epoch the content epoch the meshes were compiled at
+		 */
+		private Entry(final long epoch) {
+			this.epoch = epoch;
+		}
+	}
+
+	/**
+	 * The source of content epochs, shared by every section so that no two
+	 * contents ever share one.
+	 */
+	private static final AtomicLong EPOCHS = new AtomicLong();
+
+	/**
+	 * Whether a re-shade is being submitted on the current thread, during which
+	 * dirtied sections keep their content epoch. It is thread-local, as sections
+	 * are dirtied again both by the render thread and by the chunk compile worker
+	 * threads cancelling outdated compiles.
+	 */
+	private static final ThreadLocal<Boolean> RESHADING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	/**
+	 * Returns {@code true} if a re-shade is being submitted on the current
+	 * thread; {@code false} otherwise.
+	 *
+	 * @return {@code true} if a re-shade is being submitted; {@code false}
+	 *         otherwise
+	 */
+	public static boolean isReshading() {
+		return RESHADING.get();
+	}
+
+	/**
+	 * Returns a content epoch never returned before.
+	 *
+	 * @return a new content epoch
+	 */
+	public static long nextEpoch() {
+		return EPOCHS.incrementAndGet();
+	}
+
+	/**
+	 * Sets whether a re-shade is being submitted on the current thread.
+	 *
+	 * @param reshading whether a re-shade is being submitted
+	 */
+	public static void setReshading(final boolean reshading) {
+		RESHADING.set(reshading);
+	}
+
+	/**
+	 * The memory budget in bytes. It is volatile as it is written under the lock
+	 * by the render thread and read without it by compile worker threads.
+	 */
+	private volatile long budget;
+
+	/**
+	 * The cached sections, from the least to the most recently used, keyed by
+	 * their packed section position.
+	 */
+	private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+
+	/**
+	 * The number of re-shade compiles served from the cache.
+	 */
+	private final AtomicLong hitCount = new AtomicLong();
+
+	/**
+	 * The number of lookups that found no mesh, whether the section was not
+	 * cached, was cached at another epoch, or had no mesh for the meshing key.
+	 */
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * The number of re-shade compiles served by patching another cached mesh.
+	 */
+	private final AtomicLong patchCount = new AtomicLong();
+
+	/**
+	 * The number of off-heap bytes held.
+	 */
+	private long size;
+
+	/**
+	 * Creates a new {@code SectionMeshCache} instance, disabled until it is given
+	 * a budget.
+	 */
+	public SectionMeshCache() {
+	}
+
+	/**
+	 * Evicts every cached mesh and releases its memory.
+	 */
+	public synchronized void clear() {
+		this.entries.values().forEach(this::evictMeshes);
+		this.entries.clear();
+	}
+
+	/**
+	 * Returns the number of re-shade compiles served from the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Returns the number of lookups that found no mesh.
+	 *
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Returns the number of re-shade compiles served by patching another cached
+	 * mesh. They are also counted as misses.
+	 *
+	 * @return the number of patched meshes
+	 */
+	public long getPatchCount() {
+		return this.patchCount.get();
+	}
+
+	/**
+	 * Returns the number of off-heap bytes held.
+	 *
+	 * @return the number of off-heap bytes held
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns {@code true} if the cache has a budget; {@code false} otherwise.
+	 *
+	 * @return {@code true} if the cache is enabled; {@code false} otherwise
+	 */
+	public boolean isEnabled() {
+		return this.budget > 0L;
+	}
+
+	/**
+	 * Returns the mesh of the section compiled at the epoch with a config of the
+	 * meshing key, or {@code null} if there is none. Every lookup while the cache
+	 * is enabled counts as a hit or a miss, including lookups of sections not
+	 * cached or cached at another epoch.
+	 * <p>
+	 * The returned mesh is pinned, its memory kept even if it gets evicted, until
+	 * it is {@linkplain #release(Mesh) released}.
+	 *
+	 * @param section the packed section position
+	 * @param epoch   the content epoch of the section
+	 * @param key     the interned meshing key
+	 * @return the cached mesh, or {@code null} if there is none
+	 */
+	public synchronized Mesh lookup(final long section, final long epoch, final Config.MeshingKey key) {
+		if (!isEnabled())
+			return null;
+
+		final var entry = this.entries.getAndMoveToLast(section);
+
+		final var mesh = entry != null && entry.epoch == epoch ? entry.meshes.get(key) : null;
+
+		if (mesh == null) {
+			this.missCount.incrementAndGet();
+			return null;
+		}
+
+		this.hitCount.incrementAndGet();
+		mesh.pins++;
+
+		return mesh;
+	}
+
+	/**
+	 * Returns a mesh of the section for the shading of the snapshot, patched from
+	 * another mesh cached at the same epoch with the same
+	 * {@linkplain Config#isFlatLightingEnabled() lighting}, or {@code null} if
+	 * there is none to patch from. The patched mesh is cached for the
+	 * {@linkplain ShadingSnapshot#meshingKey meshing key} of the snapshot.
+	 * Nothing is patched while tilted quads are
+	 * {@linkplain ShadingSnapshot#isNormalShading() shaded from their normal}, as
+	 * the patcher only knows the shading of the six directions.
+	 * <p>
+	 * The copy is patched outside the lock, so that sections are patched in
+	 * parallel by the compile threads. The returned mesh is pinned until it is
+	 * {@linkplain #release(Mesh) released}.
+	 *
+	 * @param section  the packed section position
+	 * @param epoch    the content epoch of the section
+	 * @param snapshot the shading snapshot
+	 * @param level    the level providing the diffuse factors
+	 * @return the patched mesh, or {@code null} if there is none to patch from
+	 */
+	public Mesh patch(final long section,
+	        final long epoch,
+	        final ShadingSnapshot snapshot,
+	        final BlockAndTintGetter level) {
+		if (!isEnabled() || snapshot.isNormalShading())
+			return null;
+
+		final var flatLightingEnabled = snapshot.meshingKey.isFlatLightingEnabled();
+		Mesh source = null;
+
+		synchronized (this) {
+			final var entry = this.entries.get(section);
+
+			if (entry == null || entry.epoch != epoch)
+				return null;
+
+			for (final var cached : entry.meshes.entrySet())
+				if (cached.getValue().isPatchable() && cached.getKey().isFlatLightingEnabled() == flatLightingEnabled) {
+					source = cached.getValue();
+					break;
+				}
+
+			if (source == null)
+				return null;
+
+			source.pins++;
+		}
+
+		final var patched = source.patch(snapshot, level);
+
+		synchronized (this) {
+			release(source);
+
+			if (patched == null)
+				return null;
+
+			final var entry = this.entries.get(section);
+
+			patched.pins++;
+			this.patchCount.incrementAndGet();
+
+			if (entry == null || entry.epoch != epoch || entry.meshes.containsKey(snapshot.meshingKey)) {
+				patched.evicted = true;
+				return patched;
+			}
+
+			entry.meshes.put(snapshot.meshingKey, patched);
+			this.size += patched.size;
+			trim();
+		}
+
+		return patched;
+	}
+
+	/**
+	 * Unpins a mesh returned by {@link #lookup(long, long, Config.MeshingKey)} or
+	 * {@link #patch(long, long, ShadingSnapshot, BlockAndTintGetter)}, releasing
+	 * its memory if it was evicted meanwhile.
+	 *
+	 * @param mesh the mesh
+	 */
+	public synchronized void release(final Mesh mesh) {
+		if (--mesh.pins == 0 && mesh.evicted)
+			mesh.free();
+	}
+
+	/**
+	 * Sets the memory budget, evicting meshes until it is met.
+	 *
+	 * @param budgetMegabytes the memory budget in megabytes, or {@code 0} to
+	 *                        disable the cache
+	 */
+	public synchronized void setBudgetMegabytes(final int budgetMegabytes) {
+		this.budget = budgetMegabytes * 1024L * 1024L;
+		trim();
+	}
+
+	/**
+	 * Copies the output of a section compile into the cache, replacing the meshes
+	 * of older epochs. Nothing is copied when the cache is disabled, or when a
+	 * layer is not in the {@linkplain DefaultVertexFormat#BLOCK block format}.
+	 * The cache takes ownership of the quad records, released along with the mesh
+	 * or right away if nothing is cached.
+	 *
+	 * @param section             the packed section position
+	 * @param epoch               the content epoch of the section
+	 * @param key                 the interned meshing key of the config the
+	 *                            section was meshed with
+	 * @param renderedLayers      the rendered layers
+	 * @param globalBlockEntities the block entities rendered regardless of the
+	 *                            section visibility
+	 * @param blockEntities       the block entities rendered with the section
+	 * @param visibilitySet       the visibility between the faces of the section
+	 * @param contentFlags        the content flags of the section
+	 * @param shadeRecords        the off-heap records of the quads of each
+	 *                            layer, or {@code null} if they were not
+	 *                            recorded
+	 */
+	public void store(final long section,
+	        final long epoch,
+	        final Config.MeshingKey key,
+	        final Map<RenderType, BufferBuilder.RenderedBuffer> renderedLayers,
+	        final List<BlockEntity> globalBlockEntities,
+	        final List<BlockEntity> blockEntities,
+	        final VisibilitySet visibilitySet,
+	        final int contentFlags,
+	        final Map<RenderType, ByteBuffer> shadeRecords) {
+		final Map<RenderType, ByteBuffer> records = shadeRecords != null ? shadeRecords : new IdentityHashMap<>(0);
+
+		if (!isEnabled()) {
+			records.values().forEach(MemoryUtil::memFree);
+			return;
+		}
+
+		for (final var renderedBuffer : renderedLayers.values()) {
+			final var drawState = renderedBuffer.drawState();
+
+			if (drawState.format() != DefaultVertexFormat.BLOCK || drawState.mode() != VertexFormat.Mode.QUADS) {
+				records.values().forEach(MemoryUtil::memFree);
+				return;
+			}
+		}
+
+		final var layers = new IdentityHashMap<RenderType, ByteBuffer>(renderedLayers.size());
+		var size = 0L;
+
+		for (final var stream : records.values())
+			size += stream.capacity();
+
+		for (final var layer : renderedLayers.entrySet()) {
+			final var vertices = layer.getValue().vertexBuffer();
+			final var copy = MemoryUtil.memAlloc(vertices.remaining());
+
+			MemoryUtil.memCopy(vertices, copy);
+			layers.put(layer.getKey(), copy);
+			size += copy.capacity();
+		}
+
+		final var mesh = new Mesh(List.copyOf(globalBlockEntities),
+		        List.copyOf(blockEntities),
+		        contentFlags,
+		        layers,
+		        records,
+		        size,
+		        visibilitySet);
+
+		synchronized (this) {
+			var entry = this.entries.getAndMoveToLast(section);
+
+			if (entry == null || entry.epoch != epoch) {
+				if (entry != null)
+					evictMeshes(entry);
+
+				entry = new Entry(epoch);
+				this.entries.putAndMoveToLast(section, entry);
+			}
+
+			final var previous = entry.meshes.put(key, mesh);
+
+			if (previous != null)
+				evict(previous);
+
+			this.size += size;
+			trim();
+		}
+	}
+
+	/**
+	 * Evicts a mesh, releasing its memory unless it is pinned.
+	 *
+	 * @param mesh the mesh
+	 */
+	private void evict(final Mesh mesh) {
+		this.size -= mesh.size;
+		mesh.evicted = true;
+
+		if (mesh.pins == 0)
+			mesh.free();
+	}
+
+	/**
+	 * Evicts the meshes of an entry without removing it.
+	 *
+	 * @param entry the entry
+	 */
+	private void evictMeshes(final Entry entry) {
+		entry.meshes.values().forEach(this::evict);
+		entry.meshes.clear();
+	}
+
+	/**
+	 * Evicts the least recently used sections until the budget is met.
+	 */
+	private void trim() {
+		while (this.size > this.budget && !this.entries.isEmpty())
+			evictMeshes(this.entries.removeFirst());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getCanonicalName() + "[size=" + getSize() + ", budget=" + this.budget + ", hitCount="
+		        + getHitCount() + ", missCount=" + getMissCount() + ", patchCount=" + getPatchCount() + "]";
+	}
+}
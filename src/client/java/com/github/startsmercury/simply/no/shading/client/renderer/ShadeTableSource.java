@@ -0,0 +1,57 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code ShadeTableSource} interface is implemented through a mixin by the
+ * shading model of a mod that shades faces on its own, such as BedrockIfy. The
+ * model is sampled once for every face direction and shade flag into a shade
+ * table, which the {@linkplain ShadingSnapshot snapshot} holds, so that the
+ * model is answered by a single lookup rather than by running its own math for
+ * every face.
+ *
+ * @since 6.1.0
+ */
+public interface ShadeTableSource {
+	/**
+	 * The number of entries of a shade table, one for every face direction and
+	 * shade flag.
+	 */
+	int TABLE_SIZE = 12;
+
+	/**
+	 * Returns the index in a shade table of the face direction and shade flag.
+	 *
+	 * @param direction the face direction
+	 * @param shade     whether the face is shaded
+	 * @return the index in a shade table
+	 */
+	static int indexOf(final Direction direction, final boolean shade) {
+		return direction.get3DDataValue() << 1 | (shade ? 1 : 0);
+	}
+
+	/**
+	 * Returns the brightness factor of faces in the direction as computed by the
+	 * model's own math, regardless of the shade table.
+	 *
+	 * @param direction the face direction
+	 * @param shade     whether the face is shaded
+	 * @return the brightness factor computed by the model
+	 */
+	float simplyNoShading$computeShade(Direction direction, boolean shade);
+
+	/**
+	 * Samples the model for every face direction and shade flag.
+	 *
+	 * @param shadeTable the shade table to fill, of {@link #TABLE_SIZE} entries
+	 *                   indexed by {@link #indexOf(Direction, boolean)}
+	 */
+	default void simplyNoShading$sampleShadeTable(final float[] shadeTable) {
+		for (final var direction : Direction.values()) {
+			shadeTable[indexOf(direction, false)] = simplyNoShading$computeShade(direction, false);
+			shadeTable[indexOf(direction, true)] = simplyNoShading$computeShade(direction, true);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+
+/**
+ * The {@code ShadingGenerationHolder} interface is implemented by every
+ * compiled section of the vanilla renderer and every Sodium build result
+ * through mixins. It holds the {@linkplain ShadingSnapshot#generation
+ * generation} of the shading snapshot the section was last meshed with, so that
+ * a section can be told stale without recompiling it, and an outdated result
+ * can be dropped before it is uploaded.
+ *
+ * @since 6.1.0
+ */
+public interface ShadingGenerationHolder {
+	/**
+	 * Returns the generation of the shading snapshot the section was last meshed
+	 * with.
+	 *
+	 * @return the shading generation
+	 */
+	long simplyNoShading$getShadingGeneration();
+
+	/**
+	 * Sets the generation of the shading snapshot the section was last meshed
+	 * with.
+	 *
+	 * @param shadingGeneration the shading generation
+	 */
+	void simplyNoShading$setShadingGeneration(long shadingGeneration);
+}
@@ -0,0 +1,371 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.BufferBuilderAccessor;
+import com.mojang.blaze3d.shaders.Program;
+import com.mojang.blaze3d.shaders.Uniform;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.Util;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code TerrainShaders} class applies block shading in the vertex shaders
+ * of the terrain render types instead of while meshing. The vanilla shader
+ * sources are patched as they are compiled, so resource packs replacing them
+ * keep working as long as the lines the patch looks for are left intact;
+ * otherwise the shaders are left untouched and shading stays on the CPU.
+ * <p>
+ * Terrain is then meshed without shading, and the alpha of the vertex color of
+ * every quad baked shaded is set to a mark the patched shaders recognize:
+ * {@code 254} for quads shaded when block shading is enabled, and {@code 253}
+ * for quads of {@linkplain ShadingSnapshot#isBlockShadingExempt(
+ * net.minecraft.world.level.block.state.BlockState) exempted} block states,
+ * shaded the other way around. The shaders multiply the color of marked quads
+ * by the shade factor of the dominant axis of their normal, weighed by a blend
+ * that follows block shading being enabled, and restore the alpha to
+ * {@code 1.0}. Toggling block shading or changing the shade factors therefore
+ * only updates three uniforms, and the blend is animated over
+ * {@value #TRANSITION_MILLIS} milliseconds. The blend and the shade factors
+ * are {@linkplain #beginFrame(ShadingSnapshot) computed once per frame}, so
+ * every terrain layer of a frame is shaded alike.
+ * <p>
+ * Fluids and Fabric Renderer API meshes do not go through the marked path and
+ * remain shaded while meshing.
+ *
+ * @since 6.1.0
+ */
+public class TerrainShaders {
+	/**
+	 * The offset of the color alpha in a vertex of the
+	 * {@linkplain DefaultVertexFormat#BLOCK block format}.
+	 */
+	private static final int ALPHA_OFFSET = 15;
+
+	/**
+	 * The name of the uniform holding the weight of the shading of quads shaded
+	 * when block shading is enabled.
+	 */
+	public static final String BLEND_UNIFORM = "SimplyNoShadingBlend";
+
+	/**
+	 * The pattern of the color assignment the shade is applied to.
+	 */
+	private static final Pattern COLOR_ASSIGNMENT = Pattern.compile("vertexColor\\s*=\\s*Color\\s*\\*");
+
+	/**
+	 * The vertex color alpha marking quads of exempted block states.
+	 */
+	public static final byte EXEMPT_MARK = (byte) 253;
+
+	/**
+	 * The pattern of the entry point declaration the shade function is inserted
+	 * before.
+	 */
+	private static final Pattern MAIN_DECLARATION = Pattern.compile("void\\s+main\\s*\\(");
+
+	/**
+	 * The name of the uniform holding the shade factors of the negative
+	 * directions, ordered by axis.
+	 */
+	public static final String NEGATIVE_SHADES_UNIFORM = "SimplyNoShadingNegativeShades";
+
+	/**
+	 * The name of the uniform holding the shade factors of the positive
+	 * directions, ordered by axis.
+	 */
+	public static final String POSITIVE_SHADES_UNIFORM = "SimplyNoShadingPositiveShades";
+
+	/**
+	 * The names of the shaders of the terrain render types, which are also the
+	 * names of their vertex programs.
+	 */
+	public static final Set<String> PROGRAM_NAMES = Set.of("rendertype_cutout",
+	        "rendertype_cutout_mipped",
+	        "rendertype_solid",
+	        "rendertype_translucent",
+	        "rendertype_tripwire");
+
+	/**
+	 * The uniform declarations and the shade function inserted before the entry
+	 * point. It sticks to GLSL 1.50, which every supported driver, including
+	 * software ones, compiles.
+	 */
+	private static final String SHADE_FUNCTION = """
+	        uniform vec3 SimplyNoShadingPositiveShades;
+	        uniform vec3 SimplyNoShadingNegativeShades;
+	        uniform float SimplyNoShadingBlend;
+
+	        vec4 simplyNoShading_shade(vec4 color) {
+	            float mark = floor(color.a * 255.0 + 0.5);
+
+	            if (mark < 252.5 || mark > 254.5)
+	                return color;
+
+	            vec3 axes = abs(Normal);
+	            vec3 shades = mix(SimplyNoShadingNegativeShades, SimplyNoShadingPositiveShades, step(0.0, Normal));
+	            float shade = axes.x >= axes.y && axes.x >= axes.z ? shades.x : axes.y >= axes.z ? shades.y : shades.z;
+	            float weight = mark > 253.5 ? SimplyNoShadingBlend : 1.0 - SimplyNoShadingBlend;
+
+	            return vec4(color.rgb * mix(1.0, shade, weight), 1.0);
+	        }
+
+	        """;
+
+	/**
+	 * The vertex color alpha marking quads shaded when block shading is enabled.
+	 */
+	public static final byte SHADED_MARK = (byte) 254;
+
+	/**
+	 * The time in milliseconds the blend takes to go from one end to the other.
+	 */
+	public static final long TRANSITION_MILLIS = 250L;
+
+	/**
+	 * Whether every terrain shader was patched on the last shader reload.
+	 */
+	private static volatile boolean available;
+
+	/**
+	 * The current weight of the shading of quads shaded when block shading is
+	 * enabled, or {@code NaN} before the first frame.
+	 */
+	private static float blend = Float.NaN;
+
+	/**
+	 * The time the blend was last advanced, in milliseconds.
+	 */
+	private static long blendMillis;
+
+	/**
+	 * The shade factors of the negative directions of the current frame, ordered
+	 * by axis.
+	 */
+	private static final float[] negativeShades = { 1.0F, 1.0F, 1.0F };
+
+	/**
+	 * The shade factors of the positive directions of the current frame, ordered
+	 * by axis.
+	 */
+	private static final float[] positiveShades = { 1.0F, 1.0F, 1.0F };
+
+	/**
+	 * Adds the uniforms of the patched shaders to a terrain shader, before their
+	 * locations are looked up. Uniforms the program does not use are discarded by
+	 * the lookup. Nothing happens for other shaders.
+	 *
+	 * @param shader   the shader
+	 * @param name     the name of the shader
+	 * @param uniforms the uniforms of the shader
+	 */
+	public static void addUniforms(final ShaderInstance shader, final String name, final List<Uniform> uniforms) {
+		if (!PROGRAM_NAMES.contains(name))
+			return;
+
+		final var positiveShades = new Uniform(POSITIVE_SHADES_UNIFORM, Uniform.UT_FLOAT3, 3, shader);
+		final var negativeShades = new Uniform(NEGATIVE_SHADES_UNIFORM, Uniform.UT_FLOAT3, 3, shader);
+		final var blendUniform = new Uniform(BLEND_UNIFORM, Uniform.UT_FLOAT1, 1, shader);
+
+		positiveShades.set(1.0F, 1.0F, 1.0F);
+		negativeShades.set(1.0F, 1.0F, 1.0F);
+		blendUniform.set(0.0F);
+
+		uniforms.add(positiveShades);
+		uniforms.add(negativeShades);
+		uniforms.add(blendUniform);
+	}
+
+	/**
+	 * Sets the uniforms of a shader to the blend and shade factors of the
+	 * current frame. Nothing happens when the shader is not a patched terrain
+	 * shader.
+	 *
+	 * @param shader the shader about to be applied
+	 */
+	public static void applyUniforms(final ShaderInstance shader) {
+		final var blendUniform = shader.getUniform(BLEND_UNIFORM);
+		final var positiveShadesUniform = shader.getUniform(POSITIVE_SHADES_UNIFORM);
+		final var negativeShadesUniform = shader.getUniform(NEGATIVE_SHADES_UNIFORM);
+
+		if (blendUniform == null || positiveShadesUniform == null || negativeShadesUniform == null)
+			return;
+
+		positiveShadesUniform.set(positiveShades[0], positiveShades[1], positiveShades[2]);
+		negativeShadesUniform.set(negativeShades[0], negativeShades[1], negativeShades[2]);
+		blendUniform.set(Float.isNaN(blend) ? 0.0F : blend);
+	}
+
+	/**
+	 * Advances the blend towards block shading being enabled or disabled and
+	 * computes the shade factors from the snapshot, once at the start of every
+	 * frame. Every terrain shader applied during the frame is then given the same
+	 * uniforms.
+	 *
+	 * @param snapshot the shading snapshot
+	 */
+	public static void beginFrame(final ShadingSnapshot snapshot) {
+		positiveShades[0] = getShadeRatio(snapshot, Direction.EAST);
+		positiveShades[1] = getShadeRatio(snapshot, Direction.UP);
+		positiveShades[2] = getShadeRatio(snapshot, Direction.SOUTH);
+		negativeShades[0] = getShadeRatio(snapshot, Direction.WEST);
+		negativeShades[1] = getShadeRatio(snapshot, Direction.DOWN);
+		negativeShades[2] = getShadeRatio(snapshot, Direction.NORTH);
+		updateBlend(snapshot);
+	}
+
+	/**
+	 * Returns the factor turning the brightness of an unshaded face into the
+	 * brightness of a shaded face in the direction, matching
+	 * {@link net.minecraft.client.multiplayer.ClientLevel#getShade(Direction, boolean)}.
+	 *
+	 * @param snapshot  the shading snapshot
+	 * @param direction the face direction
+	 * @return the factor from unshaded to shaded brightness
+	 */
+	private static float getShadeRatio(final ShadingSnapshot snapshot, final Direction direction) {
+		if (!snapshot.constantAmbientLight)
+			return snapshot.getShadeFactor(direction);
+		if (direction.getAxis() == Direction.Axis.Y)
+			return 1.0F;
+		return snapshot.getShadeFactor(direction) / 0.9F;
+	}
+
+	/**
+	 * Returns {@code true} if every terrain shader was patched on the last shader
+	 * reload; {@code false} otherwise.
+	 *
+	 * @return {@code true} if every terrain shader was patched; {@code false}
+	 *         otherwise
+	 */
+	public static boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * Returns {@code true} if the consumer is a buffer of the
+	 * {@linkplain DefaultVertexFormat#BLOCK block format}, whose quads can be
+	 * {@linkplain #markLastQuad(VertexConsumer, byte) marked}; {@code false}
+	 * otherwise.
+	 *
+	 * @param consumer the vertex consumer
+	 * @return {@code true} if quads written to the consumer can be marked;
+	 *         {@code false} otherwise
+	 */
+	public static boolean isMarkable(final VertexConsumer consumer) {
+		return consumer instanceof final BufferBuilder builder
+		        && ((BufferBuilderAccessor) builder).getFormat() == DefaultVertexFormat.BLOCK;
+	}
+
+	/**
+	 * Sets the alpha of the vertex color of the last quad written to a
+	 * {@linkplain #isMarkable(VertexConsumer) markable} consumer.
+	 *
+	 * @param consumer the vertex consumer
+	 * @param mark     the alpha, either {@link #SHADED_MARK} or
+	 *                 {@link #EXEMPT_MARK}
+	 */
+	public static void markLastQuad(final VertexConsumer consumer, final byte mark) {
+		final var accessor = (BufferBuilderAccessor) consumer;
+		final var buffer = accessor.getBuffer();
+		final var vertexSize = DefaultVertexFormat.BLOCK.getVertexSize();
+		final var end = accessor.getNextElementByte();
+
+		for (var i = 1; i <= 4; i++)
+			buffer.put(end - i * vertexSize + ALPHA_OFFSET, mark);
+	}
+
+	/**
+	 * Patches the source of a terrain vertex program so that it applies the
+	 * shading of marked quads. Other programs are returned unchanged, and so is a
+	 * terrain program whose source does not have the expected lines.
+	 *
+	 * @param type   the program type
+	 * @param name   the program name
+	 * @param source the preprocessed source
+	 * @return the patched source
+	 */
+	public static List<String> patchSource(final Program.Type type, final String name, final List<String> source) {
+		if (type != Program.Type.VERTEX || !PROGRAM_NAMES.contains(name))
+			return source;
+
+		final var joined = String.join("", source);
+		final var main = MAIN_DECLARATION.matcher(joined);
+		final var colorAssignment = COLOR_ASSIGNMENT.matcher(joined);
+
+		if (!main.find() || !colorAssignment.find(main.start())) {
+			SimplyNoShading.LOGGER.warn("Unable to patch the " + name + " vertex shader, shader shading is unavailable");
+			return source;
+		}
+
+		final var patched = joined.substring(0, main.start()) + SHADE_FUNCTION
+		        + joined.substring(main.start(), colorAssignment.start())
+		        + "vertexColor = simplyNoShading_shade(Color) *" + joined.substring(colorAssignment.end());
+
+		return List.of(patched);
+	}
+
+	/**
+	 * Checks again whether every terrain shader was patched, after the shaders
+	 * were reloaded.
+	 *
+	 * @return {@code true} if it changed; {@code false} otherwise
+	 */
+	public static boolean updateAvailability() {
+		final var shaders = new ShaderInstance[] { GameRenderer.getRendertypeCutoutShader(),
+		        GameRenderer.getRendertypeCutoutMippedShader(),
+		        GameRenderer.getRendertypeSolidShader(),
+		        GameRenderer.getRendertypeTranslucentShader(),
+		        GameRenderer.getRendertypeTripwireShader() };
+		var patched = true;
+
+		for (final var shader : shaders)
+			if (shader == null || shader.getUniform(BLEND_UNIFORM) == null) {
+				patched = false;
+				break;
+			}
+
+		if (patched == available)
+			return false;
+
+		available = patched;
+		return true;
+	}
+
+	/**
+	 * Advances the blend towards {@code 1.0f} when block shading is enabled, or
+	 * towards {@code 0.0f} otherwise, by the time elapsed since it was last
+	 * advanced. The blend starts at its target.
+	 *
+	 * @param snapshot the shading snapshot
+	 */
+	private static void updateBlend(final ShadingSnapshot snapshot) {
+		final var target = snapshot.activeConfig.isBlockShadingEnabled() ? 1.0F : 0.0F;
+		final var now = Util.getMillis();
+		final var step = (now - blendMillis) / (float) TRANSITION_MILLIS;
+		blendMillis = now;
+
+		if (Float.isNaN(blend))
+			blend = target;
+		else if (blend < target)
+			blend = Math.min(target, blend + step);
+		else
+			blend = Math.max(target, blend - step);
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private TerrainShaders() {
+	}
+}
@@ -0,0 +1,18 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+/**
+ * The {@code UnshadedBrightnessHolder} interface is implemented through a mixin
+ * by the vanilla ambient occlusion face. It holds the per-vertex brightness of
+ * the last calculated face before the diffuse factor was applied to it.
+ *
+ * @since 6.1.0
+ */
+public interface UnshadedBrightnessHolder {
+	/**
+	 * Returns the per-vertex brightness of the last calculated face, before the
+	 * diffuse factor was applied. The array is reused by every calculation.
+	 *
+	 * @return the per-vertex brightness without the diffuse factor
+	 */
+	float[] simplyNoShading$getUnshadedBrightness();
+}
@@ -0,0 +1,94 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.Arrays;
+
+import link.infra.indium.renderer.RenderMaterialImpl;
+import net.fabricmc.fabric.api.renderer.v1.RendererAccess;
+import net.fabricmc.fabric.api.renderer.v1.material.RenderMaterial;
+
+/**
+ * The {@code UnshadedMaterials} class derives the unshaded twin of every
+ * Indium {@linkplain RenderMaterial render material}. A twin is the same
+ * material with diffuse shading disabled for every sprite layer, so that
+ * unshading a Fabric Renderer API quad only swaps its material.
+ * <p>
+ * Materials are canonical, so twins are derived once per material and cached
+ * by the {@linkplain RenderMaterialImpl.Value#index() material index}.
+ *
+ * @since 6.1.0
+ */
+public class UnshadedMaterials {
+	/**
+	 * The twins derived so far, indexed by the material index. The array is
+	 * replaced instead of written to, so that reading it needs no lock.
+	 */
+	private static volatile RenderMaterialImpl.Value[] variants = new RenderMaterialImpl.Value[0];
+
+	/**
+	 * Derives the unshaded twin of a material.
+	 *
+	 * @param material the material
+	 * @return the unshaded twin
+	 */
+	private static RenderMaterialImpl.Value derive(final RenderMaterialImpl.Value material) {
+		final var finder = RendererAccess.INSTANCE.getRenderer().materialFinder();
+		final var spriteDepth = material.spriteDepth();
+
+		finder.spriteDepth(spriteDepth);
+
+		for (var i = 0; i < spriteDepth; i++)
+			finder.blendMode(i, material.blendMode(i))
+			        .disableAo(i, material.disableAo(i))
+			        .disableColorIndex(i, material.disableColorIndex(i))
+			        .disableDiffuse(i, true)
+			        .emissive(i, material.emissive(i));
+
+		return (RenderMaterialImpl.Value) finder.find();
+	}
+
+	/**
+	 * Returns the unshaded twin of a material, deriving it on first use.
+	 *
+	 * @param material the material
+	 * @return the unshaded twin
+	 */
+	public static RenderMaterialImpl.Value unshadedVariantOf(final RenderMaterialImpl.Value material) {
+		final var index = material.index();
+		final var variants = UnshadedMaterials.variants;
+
+		if (index < variants.length && variants[index] != null)
+			return variants[index];
+
+		return deriveAndCache(material);
+	}
+
+	/**
+	 * Derives the unshaded twin of a material and publishes it to the cache.
+	 *
+	 * @param material the material
+	 * @return the unshaded twin
+	 */
+	private static synchronized RenderMaterialImpl.Value deriveAndCache(final RenderMaterialImpl.Value material) {
+		final var index = material.index();
+		var variants = UnshadedMaterials.variants;
+
+		if (index < variants.length && variants[index] != null)
+			return variants[index];
+
+		final var variant = derive(material);
+
+		variants = Arrays.copyOf(variants, Math.max(variants.length, Math.max(index, variant.index()) + 1));
+		variants[index] = variant;
+		variants[variant.index()] = variant;
+		UnshadedMaterials.variants = variants;
+
+		return variant;
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private UnshadedMaterials() {
+	}
+}
@@ -0,0 +1,265 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.BakedQuadAccessor;
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.MultiPartBakedModelAccessor;
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.WeightedBakedModelAccessor;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.MultiPartBakedModel;
+import net.minecraft.client.resources.model.SimpleBakedModel;
+import net.minecraft.client.resources.model.WeightedBakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.util.random.WeightedEntry;
+
+/**
+ * The {@code UnshadedModels} class bakes an unshaded variant of every baked
+ * model once per resource reload. A variant is a copy of the model where every
+ * shaded quad is replaced by an unshaded twin sharing the same vertex data, so
+ * that meshing picks the model once per block instead of deciding the shading
+ * of every quad.
+ * <p>
+ * Only {@link SimpleBakedModel}, {@link WeightedBakedModel}, and
+ * {@link MultiPartBakedModel} are copied. Other models, including subclasses
+ * of those, are left without a variant and keep being rendered as they are.
+ *
+ * @since 6.1.0
+ */
+public class UnshadedModels {
+	/**
+	 * The random source passed when querying the quads of simple models, which
+	 * ignore it.
+	 */
+	private static final RandomSource RANDOM = RandomSource.create(42L);
+
+	/**
+	 * Bakes the unshaded variants of the models, and of every model nested in
+	 * them.
+	 *
+	 * @param models the top level models
+	 * @return the number of models that got a variant different from themselves
+	 */
+	public static int bake(final Collection<BakedModel> models) {
+		final var variants = new IdentityHashMap<BakedModel, BakedModel>();
+		final var unsupported = Collections.<BakedModel>newSetFromMap(new IdentityHashMap<>());
+		var count = 0;
+
+		for (final var model : models) {
+			final var variant = bakeVariant(model, variants, unsupported);
+
+			if (variant != null && variant != model)
+				count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Bakes the unshaded variant of a model, or returns the one baked already.
+	 *
+	 * @param model       the model
+	 * @param variants    the variants baked so far
+	 * @param unsupported the models that cannot have a variant
+	 * @return the unshaded variant; {@code null} if the model cannot have one
+	 */
+	private static BakedModel bakeVariant(final BakedModel model,
+	        final Map<BakedModel, BakedModel> variants,
+	        final Set<BakedModel> unsupported) {
+		var variant = variants.get(model);
+
+		if (variant != null || unsupported.contains(model))
+			return variant;
+
+		variant = createVariant(model, variants, unsupported);
+
+		if (variant == null) {
+			unsupported.add(model);
+			return null;
+		}
+
+		variants.put(model, variant);
+		((UnshadedVariantHolder) model).simplyNoShading$setUnshadedVariant(variant);
+
+		return variant;
+	}
+
+	/**
+	 * Creates the unshaded variant of a model.
+	 *
+	 * @param model       the model
+	 * @param variants    the variants baked so far
+	 * @param unsupported the models that cannot have a variant
+	 * @return the unshaded variant, which is the model itself when it has no
+	 *         shaded quad; {@code null} if the model cannot have one
+	 */
+	private static BakedModel createVariant(final BakedModel model,
+	        final Map<BakedModel, BakedModel> variants,
+	        final Set<BakedModel> unsupported) {
+		if (model.getClass() == SimpleBakedModel.class)
+			return createSimpleVariant(model);
+		if (model.getClass() == WeightedBakedModel.class)
+			return createWeightedVariant(model, variants, unsupported);
+		if (model.getClass() == MultiPartBakedModel.class)
+			return createMultiPartVariant(model, variants, unsupported);
+		return null;
+	}
+
+	/**
+	 * Creates the unshaded variant of a multi-part model from the variants of its
+	 * parts.
+	 *
+	 * @param model       the multi-part model
+	 * @param variants    the variants baked so far
+	 * @param unsupported the models that cannot have a variant
+	 * @return the unshaded variant; {@code null} if a part cannot have one
+	 */
+	private static BakedModel createMultiPartVariant(final BakedModel model,
+	        final Map<BakedModel, BakedModel> variants,
+	        final Set<BakedModel> unsupported) {
+		final var selectors = ((MultiPartBakedModelAccessor) model).getSelectors();
+		final var variantSelectors = new ArrayList<>(selectors);
+		var changed = false;
+
+		for (var i = 0; i < selectors.size(); i++) {
+			final var selector = selectors.get(i);
+			final var part = bakeVariant(selector.getRight(), variants, unsupported);
+
+			if (part == null)
+				return null;
+			if (part == selector.getRight())
+				continue;
+
+			variantSelectors.set(i, Pair.of(selector.getLeft(), part));
+			changed = true;
+		}
+
+		return changed ? new MultiPartBakedModel(variantSelectors) : model;
+	}
+
+	/**
+	 * Creates the unshaded variant of a simple model by replacing its shaded quads.
+	 *
+	 * @param model the simple model
+	 * @return the unshaded variant
+	 */
+	private static BakedModel createSimpleVariant(final BakedModel model) {
+		final var unculledFaces = model.getQuads(null, null, RANDOM);
+		final var variantUnculledFaces = unshade(unculledFaces);
+		final var variantCulledFaces = new EnumMap<Direction, List<BakedQuad>>(Direction.class);
+		var changed = variantUnculledFaces != unculledFaces;
+
+		for (final var direction : Direction.values()) {
+			final var culledFaces = model.getQuads(null, direction, RANDOM);
+			final var variantCulledFace = unshade(culledFaces);
+
+			variantCulledFaces.put(direction, variantCulledFace);
+			changed |= variantCulledFace != culledFaces;
+		}
+
+		if (!changed)
+			return model;
+
+		return new SimpleBakedModel(variantUnculledFaces,
+		        variantCulledFaces,
+		        model.useAmbientOcclusion(),
+		        model.usesBlockLight(),
+		        model.isGui3d(),
+		        model.getParticleIcon(),
+		        model.getTransforms(),
+		        model.getOverrides());
+	}
+
+	/**
+	 * Creates the unshaded variant of a weighted model from the variants of its
+	 * choices.
+	 *
+	 * @param model       the weighted model
+	 * @param variants    the variants baked so far
+	 * @param unsupported the models that cannot have a variant
+	 * @return the unshaded variant; {@code null} if a choice cannot have one
+	 */
+	private static BakedModel createWeightedVariant(final BakedModel model,
+	        final Map<BakedModel, BakedModel> variants,
+	        final Set<BakedModel> unsupported) {
+		final var choices = ((WeightedBakedModelAccessor) model).getList();
+		final var variantChoices = new ArrayList<>(choices);
+		var changed = false;
+
+		for (var i = 0; i < choices.size(); i++) {
+			final var choice = choices.get(i);
+			final var choiceVariant = bakeVariant(choice.getData(), variants, unsupported);
+
+			if (choiceVariant == null)
+				return null;
+			if (choiceVariant == choice.getData())
+				continue;
+
+			variantChoices.set(i, WeightedEntry.wrap(choiceVariant, choice.getWeight().asInt()));
+			changed = true;
+		}
+
+		return changed ? new WeightedBakedModel(variantChoices) : model;
+	}
+
+	/**
+	 * Returns the unshaded variant of a model if one was baked, or the model
+	 * itself otherwise. It costs a type check and a field read.
+	 *
+	 * @param model the model
+	 * @return the unshaded variant of the model if one was baked; the model
+	 *         itself otherwise
+	 */
+	public static BakedModel unshadedVariantOf(final BakedModel model) {
+		if (model instanceof final UnshadedVariantHolder holder) {
+			final var variant = holder.simplyNoShading$getUnshadedVariant();
+
+			if (variant != null)
+				return variant;
+		}
+
+		return model;
+	}
+
+	/**
+	 * Returns the quads with every shaded quad replaced by an
+	 * {@linkplain UnshadedQuad unshaded twin} sharing its vertex data.
+	 *
+	 * @param quads the quads
+	 * @return the quads themselves if none was shaded; a new list otherwise
+	 */
+	private static List<BakedQuad> unshade(final List<BakedQuad> quads) {
+		List<BakedQuad> unshadedQuads = null;
+
+		for (var i = 0; i < quads.size(); i++) {
+			final var quad = quads.get(i);
+
+			if (!((BakedQuadAccessor) quad).getBakedShade())
+				continue;
+			if (unshadedQuads == null)
+				unshadedQuads = new ArrayList<>(quads);
+
+			unshadedQuads.set(i, new UnshadedQuad(quad));
+		}
+
+		return unshadedQuads == null ? quads : unshadedQuads;
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private UnshadedModels() {
+	}
+}
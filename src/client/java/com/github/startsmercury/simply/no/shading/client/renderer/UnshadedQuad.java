@@ -0,0 +1,23 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+
+/**
+ * The {@code UnshadedQuad} class is the unshaded twin of a shaded
+ * {@link BakedQuad}, as baked into the {@linkplain UnshadedModels unshaded
+ * variant} of a model. It shares the vertex data of the quad it was copied from,
+ * and tells apart quads that were baked unshaded from those that were only
+ * unshaded by the mod.
+ *
+ * @since 6.1.0
+ */
+public final class UnshadedQuad extends BakedQuad {
+	/**
+	 * Creates the unshaded twin of a shaded quad.
+	 *
+	 * @param quad the shaded quad
+	 */
+	public UnshadedQuad(final BakedQuad quad) {
+		super(quad.getVertices(), quad.getTintIndex(), quad.getDirection(), quad.getSprite(), false);
+	}
+}
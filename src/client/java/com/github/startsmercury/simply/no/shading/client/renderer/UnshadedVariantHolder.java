@@ -0,0 +1,28 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import net.minecraft.client.resources.model.BakedModel;
+
+/**
+ * The {@code UnshadedVariantHolder} interface is implemented through a mixin by
+ * the vanilla {@link BakedModel} types {@link UnshadedModels} knows how to copy.
+ * It holds the model's unshaded variant, baked alongside it.
+ *
+ * @since 6.1.0
+ */
+public interface UnshadedVariantHolder {
+	/**
+	 * Returns the unshaded variant of the model, or {@code null} if it was not
+	 * baked.
+	 *
+	 * @return the unshaded variant of the model, or {@code null} if it was not
+	 *         baked
+	 */
+	BakedModel simplyNoShading$getUnshadedVariant();
+
+	/**
+	 * Sets the unshaded variant of the model.
+	 *
+	 * @param unshadedVariant the unshaded variant of the model
+	 */
+	void simplyNoShading$setUnshadedVariant(BakedModel unshadedVariant);
+}
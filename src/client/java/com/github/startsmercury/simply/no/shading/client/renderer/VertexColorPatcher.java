@@ -0,0 +1,120 @@
+package com.github.startsmercury.simply.no.shading.client.renderer;
+
+import java.nio.ByteBuffer;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockAndTintGetter;
+
+/**
+ * The {@code VertexColorPatcher} class rewrites the vertex colors of a meshed
+ * section for another shading, from what a {@linkplain QuadShadeRecorder
+ * recorder} captured while the section was meshed. Only the color bytes are
+ * written; positions, texture coordinates, light and normals are kept.
+ * <p>
+ * Colors are recomputed with the same floating point operations, in the same
+ * order, as the vanilla block renderer, so a patched section is byte for byte
+ * the section meshed again with the new shading.
+ *
+ * @since 6.1.0
+ */
+public class VertexColorPatcher {
+	/**
+	 * The offset of the color in a vertex of the
+	 * {@linkplain DefaultVertexFormat#BLOCK block format}.
+	 */
+	private static final int COLOR_OFFSET = 12;
+
+	/**
+	 * The size of a vertex of the {@linkplain DefaultVertexFormat#BLOCK block
+	 * format}.
+	 */
+	private static final int VERTEX_SIZE = DefaultVertexFormat.BLOCK.getVertexSize();
+
+	/**
+	 * Rewrites the vertex colors of a layer with the shading of the snapshot.
+	 * Nothing is written past the first mismatch between the records and the
+	 * vertices.
+	 *
+	 * @param records  the recorded quads of the layer, left unchanged
+	 * @param vertices the vertex data of the layer
+	 * @param snapshot the shading snapshot
+	 * @param level    the level providing the diffuse factors
+	 * @return {@code true} if every quad was patched; {@code false} if the
+	 *         records do not match the vertices
+	 */
+	public static boolean patch(final ByteBuffer records,
+	        final ByteBuffer vertices,
+	        final ShadingSnapshot snapshot,
+	        final BlockAndTintGetter level) {
+		final var quadSize = VERTEX_SIZE * 4;
+		final var quadCount = vertices.remaining() / quadSize;
+		final var ambientOcclusion = new float[4];
+		final var end = records.limit();
+		var position = records.position();
+		var quadBase = vertices.position();
+
+		for (var quad = 0; quad < quadCount; quad++) {
+			if (position >= end)
+				return false;
+
+			final var flags = records.get(position);
+			final var stateId = records.getInt(position + 1);
+			position += 5;
+
+			final var direction = Direction.from3DDataValue(flags & QuadShadeRecorder.DIRECTION_MASK);
+			final var shade = (flags & QuadShadeRecorder.FLAG_SHADE) != 0 && snapshot.isBlockShaded(stateId);
+			final var diffuse = level.getShade(direction, shade);
+			final var flat = (flags & QuadShadeRecorder.FLAG_FLAT) != 0;
+
+			if (!flat)
+				for (var i = 0; i < 4; i++, position += 4)
+					ambientOcclusion[i] = records.getFloat(position);
+
+			var red = 1.0F;
+			var green = 1.0F;
+			var blue = 1.0F;
+
+			if ((flags & QuadShadeRecorder.FLAG_TINTED) != 0) {
+				red = records.getFloat(position);
+				green = records.getFloat(position + 4);
+				blue = records.getFloat(position + 8);
+				position += 12;
+			}
+
+			final var colored = (flags & QuadShadeRecorder.FLAG_COLORED) != 0;
+
+			for (var i = 0; i < 4; i++) {
+				final var brightness = flat ? diffuse : ambientOcclusion[i] * diffuse;
+				final var color = quadBase + i * VERTEX_SIZE + COLOR_OFFSET;
+				var r = 1.0F;
+				var g = 1.0F;
+				var b = 1.0F;
+
+				if (colored) {
+					r = (records.get(position) & 0xFF) / 255.0F;
+					g = (records.get(position + 1) & 0xFF) / 255.0F;
+					b = (records.get(position + 2) & 0xFF) / 255.0F;
+					position += 3;
+				}
+
+				vertices.put(color, (byte) (int) (r * brightness * red * 255.0F));
+				vertices.put(color + 1, (byte) (int) (g * brightness * green * 255.0F));
+				vertices.put(color + 2, (byte) (int) (b * brightness * blue * 255.0F));
+			}
+
+			quadBase += quadSize;
+		}
+
+		return position == end;
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private VertexColorPatcher() {
+	}
+}
@@ -5,12 +5,21 @@ import static net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper.regi
 import com.github.startsmercury.simply.no.shading.client.Config;
 import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
 import com.github.startsmercury.simply.no.shading.client.gui.screens.ConfigScreen;
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
 import com.mojang.blaze3d.platform.InputConstants;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.KeyMapping;
 import net.minecraft.client.ToggleKeyMapping;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.ResourceManager;
 
 /**
  * The {@code SimplyNoShadingClientEntrypoint} class is an implementation of
@@ -29,7 +38,10 @@ public class SimplyNoShadingClientEntrypoint implements ClientModInitializer {
 		simplyNoShading.loadConfig();
 
 		setupKeyMappings(simplyNoShading);
+		setupReshadeScheduler(simplyNoShading);
+		setupShadeTableSampling(simplyNoShading);
 		setupShutdownHook(simplyNoShading::saveConfig);
+		setupTerrainShaders(simplyNoShading);
 	}
 
 	/**
@@ -47,11 +59,11 @@ public class SimplyNoShadingClientEntrypoint implements ClientModInitializer {
 		final var toggleBlockShading = new ToggleKeyMapping("simply-no-shading.key.toggleBlockShading",
 		        InputConstants.UNKNOWN.getValue(),
 		        "simply-no-shading.key.categories.simply-no-shading",
-		        () -> simplyNoShading.getConfig().blockShadingEnabled);
+		        () -> simplyNoShading.getConfig().isBlockShadingEnabled());
 		final var toggleCloudShading = new ToggleKeyMapping("simply-no-shading.key.toggleCloudShading",
 		        InputConstants.UNKNOWN.getValue(),
 		        "simply-no-shading.key.categories.simply-no-shading",
-		        () -> simplyNoShading.getConfig().blockShadingEnabled);
+		        () -> simplyNoShading.getConfig().isCloudShadingEnabled());
 
 		registerKeyBinding(openConfigScreen);
 		registerKeyBinding(reloadConfig);
@@ -72,17 +84,68 @@ public class SimplyNoShadingClientEntrypoint implements ClientModInitializer {
 				return;
 			}
 
-			final var builder = Config.builder(simplyNoShading.getConfig());
+			final var config = simplyNoShading.getConfig();
+			var flags = config.flags;
 
 			while (toggleBlockShading.consumeClick())
-				builder.setBlockShadingEnabled(!builder.isBlockShadingEnabled());
+				flags ^= Config.BLOCK_SHADING_FLAG;
 			while (toggleCloudShading.consumeClick())
-				builder.setCloudShadingEnabled(!builder.isCloudShadingEnabled());
+				flags ^= Config.CLOUD_SHADING_FLAG;
 
-			simplyNoShading.setConfig(builder.build());
+			simplyNoShading.setConfig(config.withFlags(flags));
 		});
 	}
 
+	/**
+	 * Sets up the re-shade scheduler, which is drained within the
+	 * {@linkplain Config#getReshadeBudgetMillis() configured budget} once every
+	 * frame is culled and before it submits its section compiles. Off-screen
+	 * sections are re-shaded lazily unless Sodium replaces the vanilla section
+	 * storage.
+	 *
+	 * @param simplyNoShading the simply no shading instance
+	 * @since 6.1.0
+	 */
+	protected void setupReshadeScheduler(final SimplyNoShading simplyNoShading) {
+		simplyNoShading.getReshadeScheduler().setLazy(!FabricLoader.getInstance().isModLoaded("sodium"));
+	}
+
+	/**
+	 * Registers the listeners {@linkplain SimplyNoShading#resampleShadeTable()
+	 * sampling the shade table} of the shading model of a mod shading faces on its
+	 * own, such as BedrockIfy, again. The table is sampled on every resource
+	 * reload, including the first one, and whenever a screen is closed.
+	 * BedrockIfy notifies nothing when its config changes, but its config only
+	 * changes through its config screen, so closing a screen is how the change is
+	 * picked up.
+	 *
+	 * @param simplyNoShading the simply no shading instance
+	 * @since 6.1.0
+	 */
+	protected void setupShadeTableSampling(final SimplyNoShading simplyNoShading) {
+		final var shadeTableId = new ResourceLocation("simply-no-shading", "shade_table");
+
+		ResourceManagerHelper.get(PackType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			public ResourceLocation getFabricId() {
+				return shadeTableId;
+			}
+
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			public void onResourceManagerReload(final ResourceManager resourceManager) {
+				simplyNoShading.resampleShadeTable();
+			}
+		});
+		ScreenEvents.AFTER_INIT.register((minecraft, screen, width, height) -> ScreenEvents.remove(screen)
+		        .register(removed -> simplyNoShading.resampleShadeTable()));
+	}
+
 	/**
 	 * Registers a shutdown thread with the name 'Simply No Shading Shutdown Thread'
 	 *
@@ -93,4 +156,20 @@ public class SimplyNoShadingClientEntrypoint implements ClientModInitializer {
 		shutdownThread.setName("Simply No Shading Shutdown Thread");
 		Runtime.getRuntime().addShutdownHook(shutdownThread);
 	}
+
+	/**
+	 * Registers the frame listener {@linkplain TerrainShaders#beginFrame(
+	 * com.github.startsmercury.simply.no.shading.client.ShadingSnapshot)
+	 * advancing} the shading blend of the terrain shaders once per frame. The
+	 * terrain shaders are not patched with Sodium.
+	 *
+	 * @param simplyNoShading the simply no shading instance
+	 * @since 6.1.0
+	 */
+	protected void setupTerrainShaders(final SimplyNoShading simplyNoShading) {
+		if (FabricLoader.getInstance().isModLoaded("sodium"))
+			return;
+
+		WorldRenderEvents.START.register(context -> TerrainShaders.beginFrame(simplyNoShading.getSnapshot()));
+	}
 }
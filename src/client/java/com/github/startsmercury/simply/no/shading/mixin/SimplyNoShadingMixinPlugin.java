@@ -64,19 +64,42 @@ public class SimplyNoShadingMixinPlugin implements IMixinConfigPlugin {
 	}
 
 	/**
-	 * Includes additional mixins.
+	 * Includes additional mixins. Exactly one invalidation backend is included,
+	 * depending on which renderer owns the section storage. The terrain shaders
+	 * are only patched without Sodium, which renders terrain with its own.
 	 *
 	 * @param mixins the additional mixin list
 	 */
 	protected void includeMixins(final List<String> mixins) {
 		final var fabricLoader = FabricLoader.getInstance();
 
-		if (fabricLoader.isModLoaded("bedrockify"))
+		if (fabricLoader.isModLoaded("bedrockify")) {
+			mixins.add("shading.block.bedrockify.BedrockBlockShadingAccessor");
 			mixins.add("shading.block.bedrockify.BedrockBlockShadingMixin");
+		}
+
+		if (fabricLoader.isModLoaded("indium")) {
+			mixins.add("shading.block.indium.AbstractBlockRenderContextMixin");
+			mixins.add("shading.block.indium.BlockRenderInfoMixin");
+		}
 
 		if (fabricLoader.isModLoaded("sodium")) {
+			mixins.add("invalidation.sodium.ChunkBuildResultMixin");
+			mixins.add("invalidation.sodium.ChunkRenderRebuildTaskMixin");
+			mixins.add("invalidation.sodium.LevelRendererInvalidatorMixin");
+			mixins.add("invalidation.sodium.RenderSectionMixin");
+			mixins.add("shading.block.sodium.BlockRendererMixin");
+			mixins.add("shading.block.sodium.FlatLightPipelineMixin");
 			mixins.add("shading.block.sodium.FluidRendererMixin");
+			mixins.add("shading.block.sodium.SmoothLightPipelineMixin");
 			mixins.add("shading.cloud.sodium.CloudRendererMixin");
+		} else {
+			mixins.add("invalidation.minecraft.LevelRendererInvalidatorMixin");
+			mixins.add("shading.block.minecraft.BufferBuilderAccessor");
+			mixins.add("shading.block.minecraft.GameRendererMixin");
+			mixins.add("shading.block.minecraft.LevelRendererMixin");
+			mixins.add("shading.block.minecraft.ProgramMixin");
+			mixins.add("shading.block.minecraft.ShaderInstanceMixin");
 		}
 	}
 
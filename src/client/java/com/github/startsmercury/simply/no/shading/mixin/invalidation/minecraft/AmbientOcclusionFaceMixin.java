@@ -0,0 +1,67 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedBrightnessHolder;
+
+/**
+ * The {@code AmbientOcclusionFaceMixin} is a {@linkplain Mixin mixin} class
+ * for the {@code ModelBlockRenderer.AmbientOcclusionFace} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(targets = "net.minecraft.client.renderer.block.ModelBlockRenderer$AmbientOcclusionFace")
+public class AmbientOcclusionFaceMixin implements UnshadedBrightnessHolder {
+	/**
+	 * The per-vertex brightness of the last calculated face.
+	 */
+	@Shadow
+	@Final
+	float[] brightness;
+
+	/**
+	 * The per-vertex brightness of the last calculated face, before the diffuse
+	 * factor was applied.
+	 */
+	@Unique
+	private final float[] unshadedBrightness = new float[4];
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private AmbientOcclusionFaceMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * the call to
+	 * {@code BlockAndTintGetter.getShade(Direction, boolean)} in
+	 * {@code ModelBlockRenderer.AmbientOcclusionFace.calculate(BlockAndTintGetter, BlockState, BlockPos, Direction, float[], BitSet, boolean)}.
+	 * <p>
+	 * Keeps the calculated brightness before it is multiplied by the diffuse
+	 * factor.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "calculate(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lnet/minecraft/core/Direction;[FLjava/util/BitSet;Z)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/world/level/BlockAndTintGetter;getShade(Lnet/minecraft/core/Direction;Z)F"))
+	private void keepUnshadedBrightness(final CallbackInfo callback) {
+		System.arraycopy(this.brightness, 0, this.unshadedBrightness, 0, this.unshadedBrightness.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float[] simplyNoShading$getUnshadedBrightness() {
+		return this.unshadedBrightness;
+	}
+}
@@ -0,0 +1,25 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * The {@code ChunkCompileTaskAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@code ChunkRenderDispatcher.RenderChunk.ChunkCompileTask}
+ * class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(targets = "net.minecraft.client.renderer.chunk.ChunkRenderDispatcher$RenderChunk$ChunkCompileTask")
+public interface ChunkCompileTaskAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code ChunkCompileTask.isCancelled}.
+	 *
+	 * @return whether the task is cancelled
+	 */
+	@Accessor("isCancelled")
+	AtomicBoolean getIsCancelled();
+}
@@ -0,0 +1,44 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.network.protocol.game.ClientboundUpdateTagsPacket;
+
+/**
+ * The {@code ClientPacketListenerMixin} is a {@linkplain Mixin mixin} class for
+ * the {@link ClientPacketListener} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ClientPacketListener.class)
+public class ClientPacketListenerMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ClientPacketListenerMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the end
+	 * of
+	 * {@link ClientPacketListener#handleUpdateTags(ClientboundUpdateTagsPacket)}.
+	 * <p>
+	 * Resolves the block shading exemptions again against the newly bound tags.
+	 * The method only gets this far on the main thread.
+	 *
+	 * @param packet   the packet
+	 * @param callback the callback
+	 */
+	@Inject(method = "handleUpdateTags(Lnet/minecraft/network/protocol/game/ClientboundUpdateTagsPacket;)V",
+	        at = @At("TAIL"))
+	private void reloadBlockShadingExemptions(final ClientboundUpdateTagsPacket packet, final CallbackInfo callback) {
+		SimplyNoShading.getFirstInstance().reloadBlockShadingExemptions();
+	}
+}
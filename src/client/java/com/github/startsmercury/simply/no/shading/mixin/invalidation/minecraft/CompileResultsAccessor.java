@@ -0,0 +1,77 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import java.util.List;
+import java.util.Map;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.VisibilitySet;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+/**
+ * The {@code CompileResultsAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the
+ * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.CompileResults} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(targets = "net.minecraft.client.renderer.chunk.ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults")
+public interface CompileResultsAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code CompileResults.blockEntities}.
+	 *
+	 * @return the block entities rendered with the section
+	 */
+	@Accessor("blockEntities")
+	List<BlockEntity> getBlockEntities();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code CompileResults.globalBlockEntities}.
+	 *
+	 * @return the block entities rendered regardless of the section visibility
+	 */
+	@Accessor("globalBlockEntities")
+	List<BlockEntity> getGlobalBlockEntities();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code CompileResults.renderedLayers}.
+	 *
+	 * @return the rendered layers
+	 */
+	@Accessor("renderedLayers")
+	Map<RenderType, BufferBuilder.RenderedBuffer> getRenderedLayers();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code CompileResults.visibilitySet}.
+	 *
+	 * @return the visibility between the faces of the section
+	 */
+	@Accessor("visibilitySet")
+	VisibilitySet getVisibilitySet();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for setting the field
+	 * {@code CompileResults.transparencyState}.
+	 *
+	 * @param transparencyState the new value, possibly {@code null}
+	 */
+	@Accessor("transparencyState")
+	void setTransparencyState(BufferBuilder.SortState transparencyState);
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for setting the field
+	 * {@code CompileResults.visibilitySet}.
+	 *
+	 * @param visibilitySet the new value
+	 */
+	@Accessor("visibilitySet")
+	void setVisibilitySet(VisibilitySet visibilitySet);
+}
@@ -0,0 +1,30 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.client.renderer.culling.Frustum;
+
+/**
+ * The {@code FrustumAccessor} is an accessor {@linkplain Mixin mixin} interface
+ * for the {@link Frustum} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(Frustum.class)
+public interface FrustumAccessor {
+	/**
+	 * This is an {@linkplain Invoker invoker} for calling the method
+	 * {@code Frustum.cubeInFrustum(double, double, double, double, double, double)}.
+	 *
+	 * @param minX the minimum x coordinate of the box
+	 * @param minY the minimum y coordinate of the box
+	 * @param minZ the minimum z coordinate of the box
+	 * @param maxX the maximum x coordinate of the box
+	 * @param maxY the maximum y coordinate of the box
+	 * @param maxZ the maximum z coordinate of the box
+	 * @return {@code true} if the box is in the frustum; {@code false} otherwise
+	 */
+	@Invoker("cubeInFrustum")
+	boolean invokeCubeInFrustum(double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
+}
@@ -0,0 +1,66 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.ViewArea;
+import net.minecraft.client.renderer.culling.Frustum;
+
+/**
+ * The {@code LevelRendererAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@link LevelRenderer} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(LevelRenderer.class)
+public interface LevelRendererAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code LevelRenderer.cullingFrustum}.
+	 * <p>
+	 * It is the frustum the last frame was culled with, or {@code null} before the
+	 * first frame.
+	 *
+	 * @return the culling frustum, possibly {@code null}
+	 */
+	@Accessor("cullingFrustum")
+	Frustum getCullingFrustum();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code LevelRenderer.renderChunksInFrustum}.
+	 * <p>
+	 * It lists the sections visible in the frame last culled as
+	 * {@code LevelRenderer.RenderChunkInfo} instances, readable through
+	 * {@link RenderChunkInfoAccessor}.
+	 *
+	 * @return the sections visible in the frame last culled
+	 */
+	@Accessor("renderChunksInFrustum")
+	ObjectArrayList<?> getRenderChunksInFrustum();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code LevelRenderer.viewArea}.
+	 * <p>
+	 * It holds every section of the level renderer, or is {@code null} when
+	 * there is no level.
+	 *
+	 * @return the view area, possibly {@code null}
+	 */
+	@Accessor("viewArea")
+	ViewArea getViewArea();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for setting the field
+	 * {@code LevelRenderer.generateClouds}.
+	 * <p>
+	 * Setting it to {@code true} regenerates the cloud geometry on the next frame.
+	 *
+	 * @param generateClouds the new value
+	 */
+	@Accessor("generateClouds")
+	void setGenerateClouds(boolean generateClouds);
+}
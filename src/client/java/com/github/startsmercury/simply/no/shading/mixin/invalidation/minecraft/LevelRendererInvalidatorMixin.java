@@ -0,0 +1,71 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionInvalidator;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionMeshCache;
+
+import net.minecraft.client.renderer.LevelRenderer;
+
+/**
+ * The {@code LevelRendererInvalidatorMixin} is a {@linkplain Mixin mixin} class
+ * for the {@link LevelRenderer} class. It is the vanilla invalidation backend,
+ * only applied when no other renderer replaces the vanilla section storage.
+ *
+ * @since 6.1.0
+ */
+@Mixin(LevelRenderer.class)
+public class LevelRendererInvalidatorMixin implements SectionInvalidator {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private LevelRendererInvalidatorMixin() {
+	}
+
+	/**
+	 * Marks a single section dirty without discarding its compiled mesh.
+	 *
+	 * @param sectionX             the section x coordinate
+	 * @param sectionY             the section y coordinate
+	 * @param sectionZ             the section z coordinate
+	 * @param reRenderOnMainThread whether the section is to be recompiled on the
+	 *                             main thread
+	 */
+	@Shadow
+	private void setSectionDirty(final int sectionX,
+	        final int sectionY,
+	        final int sectionZ,
+	        final boolean reRenderOnMainThread) {
+		throw new AssertionError();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote The section keeps its content epoch, so that a
+	 *           {@linkplain SectionMeshCache cached mesh} may be replayed.
+	 */
+	@Override
+	public void simplyNoShading$invalidateSection(final int sectionX, final int sectionY, final int sectionZ) {
+		SectionMeshCache.setReshading(true);
+
+		try {
+			setSectionDirty(sectionX, sectionY, sectionZ, false);
+		} finally {
+			SectionMeshCache.setReshading(false);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote The vanilla renderer compiles every dirty section it finds,
+	 *           visible or not.
+	 */
+	@Override
+	public boolean simplyNoShading$rebuildsOnlyVisibleSections() {
+		return false;
+	}
+}
@@ -0,0 +1,116 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.joml.Matrix4f;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.ReshadeScheduler;
+import com.mojang.blaze3d.vertex.PoseStack;
+
+import net.minecraft.client.Camera;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.LightTexture;
+
+/**
+ * The {@code LevelRendererMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link LevelRenderer} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(LevelRenderer.class)
+public class LevelRendererMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private LevelRendererMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@link LevelRenderer#allChanged()}.
+	 * <p>
+	 * Discards pending re-shades and stale sections, as the sections are
+	 * replaced and every one of them gets compiled anyway.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "allChanged()V",
+	        at = @At("HEAD"))
+	private void clearReshadeScheduler(final CallbackInfo callback) {
+		SimplyNoShading.getFirstInstance().getReshadeScheduler().clear();
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * the call to {@code LevelRenderer.compileChunks(Camera)} in
+	 * {@link LevelRenderer#renderLevel(PoseStack, float, long, boolean, Camera, GameRenderer, LightTexture, Matrix4f)}.
+	 * <p>
+	 * {@linkplain ReshadeScheduler#drain(Minecraft, float) Drains} the re-shade
+	 * scheduler within the {@linkplain Config#getReshadeBudgetMillis()
+	 * configured budget}. The frame is culled by then, so the stale sections
+	 * queued first are the ones in the view frustum of this frame, and the
+	 * sections marked dirty are compiled by this very frame.
+	 *
+	 * @param poseStack          the pose stack
+	 * @param partialTick        the partial tick
+	 * @param finishNanoTime     the time the frame should be finished by
+	 * @param renderBlockOutline whether the block outline is rendered
+	 * @param camera             the camera
+	 * @param gameRenderer       the game renderer
+	 * @param lightTexture       the light texture
+	 * @param projectionMatrix   the projection matrix
+	 * @param callback           the callback
+	 */
+	@Inject(method = "renderLevel(Lcom/mojang/blaze3d/vertex/PoseStack;FJZLnet/minecraft/client/Camera;Lnet/minecraft/client/renderer/GameRenderer;Lnet/minecraft/client/renderer/LightTexture;Lorg/joml/Matrix4f;)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/LevelRenderer;compileChunks(Lnet/minecraft/client/Camera;)V"))
+	private void drainReshadeScheduler(final PoseStack poseStack,
+	        final float partialTick,
+	        final long finishNanoTime,
+	        final boolean renderBlockOutline,
+	        final Camera camera,
+	        final GameRenderer gameRenderer,
+	        final LightTexture lightTexture,
+	        final Matrix4f projectionMatrix,
+	        final CallbackInfo callback) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+
+		simplyNoShading.getReshadeScheduler()
+		        .drain(Minecraft.getInstance(), simplyNoShading.getConfig().getReshadeBudgetMillis());
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@link LevelRenderer#setLevel(ClientLevel)}.
+	 * <p>
+	 * Resolves the dimension profile of the new level before its sections start
+	 * compiling, so the switch costs no extra rebuild. Pending re-shades, cached
+	 * meshes and cached cloud geometry are discarded, as every section and the
+	 * clouds get rebuilt anyway.
+	 *
+	 * @param level    the new level, possibly {@code null}
+	 * @param callback the callback
+	 */
+	@Inject(method = "setLevel(Lnet/minecraft/client/multiplayer/ClientLevel;)V",
+	        at = @At("HEAD"))
+	private void resolveDimensionProfile(final ClientLevel level, final CallbackInfo callback) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+
+		simplyNoShading.getReshadeScheduler().clear();
+		simplyNoShading.getMeshCache().clear();
+		simplyNoShading.getCloudGeometryCache().clear();
+
+		if (level != null)
+			simplyNoShading.setDimension(level.dimension().location(), level.effects().constantAmbientLight());
+		else
+			simplyNoShading.setDimension(null, false);
+	}
+}
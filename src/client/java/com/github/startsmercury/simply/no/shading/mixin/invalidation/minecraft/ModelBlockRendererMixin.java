@@ -0,0 +1,142 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Coerce;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadShadeRecorder;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedBrightnessHolder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.renderer.block.ModelBlockRenderer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code ModelBlockRendererMixin} is a {@linkplain Mixin mixin} class for
+ * the {@link ModelBlockRenderer} class. It feeds the
+ * {@linkplain QuadShadeRecorder quad recorder} of the compiling thread, if any.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ModelBlockRenderer.class)
+public class ModelBlockRendererMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ModelBlockRendererMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * every call to
+	 * {@code ModelBlockRenderer.putQuadData(BlockAndTintGetter, BlockState, BlockPos, VertexConsumer, PoseStack.Pose, BakedQuad, float, float, float, float, int, int, int, int, int)}
+	 * in
+	 * {@code ModelBlockRenderer.renderModelFaceAO(BlockAndTintGetter, BlockState, BlockPos, PoseStack, VertexConsumer, List, float[], BitSet, AmbientOcclusionFace, int)}.
+	 * <p>
+	 * Hands the ambient occlusion of the quad to the recorder.
+	 *
+	 * @param level                the level
+	 * @param state                the block state
+	 * @param pos                  the block position
+	 * @param poseStack            the pose stack
+	 * @param consumer             the vertex consumer
+	 * @param quads                the quads
+	 * @param shape                the shape
+	 * @param shapeFlags           the shape flags
+	 * @param ambientOcclusionFace the ambient occlusion face
+	 * @param packedOverlay        the packed overlay
+	 * @param callback             the callback
+	 */
+	@Inject(method = "renderModelFaceAO(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;Ljava/util/List;[FLjava/util/BitSet;Lnet/minecraft/client/renderer/block/ModelBlockRenderer$AmbientOcclusionFace;I)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/block/ModelBlockRenderer;putQuadData(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;FFFFIIIII)V"))
+	private void recordAmbientOcclusion(final BlockAndTintGetter level,
+	        final BlockState state,
+	        final BlockPos pos,
+	        final PoseStack poseStack,
+	        final VertexConsumer consumer,
+	        final List<BakedQuad> quads,
+	        final float[] shape,
+	        final BitSet shapeFlags,
+	        @Coerce final UnshadedBrightnessHolder ambientOcclusionFace,
+	        final int packedOverlay,
+	        final CallbackInfo callback) {
+		final var recorder = QuadShadeRecorder.current();
+
+		if (recorder != null)
+			recorder.setAmbientOcclusion(ambientOcclusionFace.simplyNoShading$getUnshadedBrightness());
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * every call to
+	 * {@code ModelBlockRenderer.putQuadData(BlockAndTintGetter, BlockState, BlockPos, VertexConsumer, PoseStack.Pose, BakedQuad, float, float, float, float, int, int, int, int, int)}
+	 * in
+	 * {@code ModelBlockRenderer.renderModelFaceFlat(BlockAndTintGetter, BlockState, BlockPos, int, int, boolean, PoseStack, VertexConsumer, List, BitSet)}.
+	 * <p>
+	 * Tells the recorder the quad is lit flat.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "renderModelFaceFlat(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;IIZLcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;Ljava/util/List;Ljava/util/BitSet;)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/block/ModelBlockRenderer;putQuadData(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;FFFFIIIII)V"))
+	private void recordFlat(final CallbackInfo callback) {
+		final var recorder = QuadShadeRecorder.current();
+
+		if (recorder != null)
+			recorder.setFlat();
+	}
+
+	/**
+	 * This is an {@linkplain ModifyArg argument modifier} that observes the
+	 * arguments passed to
+	 * {@code VertexConsumer.putBulkData(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)}
+	 * in
+	 * {@code ModelBlockRenderer.putQuadData(BlockAndTintGetter, BlockState, BlockPos, VertexConsumer, PoseStack.Pose, BakedQuad, float, float, float, float, int, int, int, int, int)}.
+	 * <p>
+	 * Records the quad with its tint, leaving the brightness unchanged.
+	 *
+	 * @param pose              the pose
+	 * @param quad              the quad
+	 * @param brightness        the per-vertex brightness
+	 * @param red               the red tint factor
+	 * @param green             the green tint factor
+	 * @param blue              the blue tint factor
+	 * @param lightmap          the per-vertex light
+	 * @param packedOverlay     the packed overlay
+	 * @param readExistingColor whether the quad colors are multiplied in
+	 * @return the per-vertex brightness
+	 */
+	@ModifyArg(method = "putQuadData(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;FFFFIIIII)V",
+	           at = @At(value = "INVOKE",
+	                    target = "Lcom/mojang/blaze3d/vertex/VertexConsumer;putBulkData(Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;[FFFF[IIZ)V"),
+	           index = 2)
+	private float[] recordQuad(final PoseStack.Pose pose,
+	        final BakedQuad quad,
+	        final float[] brightness,
+	        final float red,
+	        final float green,
+	        final float blue,
+	        final int[] lightmap,
+	        final int packedOverlay,
+	        final boolean readExistingColor) {
+		final var recorder = QuadShadeRecorder.current();
+
+		if (recorder != null)
+			recorder.record(quad, red, green, blue);
+
+		return brightness;
+	}
+}
@@ -0,0 +1,383 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadShadeRecorder;
+import com.github.startsmercury.simply.no.shading.client.renderer.ReshadeScheduler;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContent;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContentGatherer;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContentHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionMeshCache;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code RebuildTaskMixin} is a {@linkplain Mixin mixin} class for the
+ * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(targets = "net.minecraft.client.renderer.chunk.ChunkRenderDispatcher$RenderChunk$RebuildTask")
+public abstract class RebuildTaskMixin {
+	/**
+	 * The time the section compile started, in nanoseconds, when the section is
+	 * meshed block by block.
+	 */
+	@Unique
+	private long compileStartNanos;
+
+	/**
+	 * The {@linkplain SectionContent content flags} gathered while meshing.
+	 */
+	@Unique
+	private int contentFlags;
+
+	/**
+	 * The content epoch of the section when the section compile started.
+	 */
+	@Unique
+	private long contentEpoch;
+
+	/**
+	 * The {@linkplain SectionContentGatherer gatherer} of the content flags of
+	 * the models meshed, or {@code null} if the section is not meshed.
+	 */
+	@Unique
+	private SectionContentGatherer gatherer;
+
+	/**
+	 * Whether the shading snapshot {@linkplain ShadingSnapshot#generation meshes
+	 * sections differently} since the section compile started, as of the end of
+	 * the compile.
+	 */
+	@Unique
+	private boolean outdated;
+
+	/**
+	 * The {@linkplain QuadShadeRecorder recorder} of the quads meshed, or
+	 * {@code null} if they are not recorded.
+	 */
+	@Unique
+	private QuadShadeRecorder recorder;
+
+	/**
+	 * The {@linkplain SectionMeshCache cached mesh} replayed instead of meshing
+	 * the section, or {@code null} if the section is meshed.
+	 */
+	@Unique
+	private SectionMeshCache.Mesh replay;
+
+	/**
+	 * The shading snapshot current when the section compile started, which the
+	 * mesh is looked up, patched and cached with.
+	 */
+	@Unique
+	private ShadingSnapshot snapshot;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private RebuildTaskMixin() {
+	}
+
+	/**
+	 * The section this task compiles.
+	 */
+	@Shadow
+	@Final
+	ChunkRenderDispatcher.RenderChunk this$1;
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code after the
+	 * section was compiled in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.doTask(ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Only marks this task cancelled when the mesh is {@link #outdated}, so that
+	 * the outdated mesh is released instead of being uploaded. The section is
+	 * handed to the {@linkplain ReshadeScheduler#requeueOutdated(long) re-shade
+	 * scheduler}, and marked dirty again by the render thread, keeping its
+	 * content epoch, as only its shading is outdated. Otherwise, the gathered
+	 * content flags are published to the section.
+	 *
+	 * @param buffers  the buffers
+	 * @param callback the callback
+	 */
+	@Inject(method = "doTask(Lnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Ljava/util/concurrent/CompletableFuture;",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask;compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	                 shift = At.Shift.AFTER))
+	private void requeueOutdated(final ChunkBufferBuilderPack buffers, final CallbackInfoReturnable<?> callback) {
+		this.snapshot = null;
+
+		if (!this.outdated) {
+			((SectionContentHolder) this.this$1).simplyNoShading$setContentFlags(this.contentFlags);
+			return;
+		}
+
+		((ChunkCompileTaskAccessor) (Object) this).getIsCancelled().set(true);
+		SimplyNoShading.getFirstInstance()
+		        .getReshadeScheduler()
+		        .requeueOutdated(SectionPos.asLong(this.this$1.getOrigin()));
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * the section is compiled in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.doTask(ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Captures the current shading snapshot, which the other injectors of this
+	 * compile read instead of the live one, clears the
+	 * gathered content flags, and looks up a {@linkplain SectionMeshCache cached
+	 * mesh} to replay, patching one from another cached shading if needed. When
+	 * the section is meshed instead, its quads are recorded for later patching,
+	 * the content flags of its models are {@linkplain SectionContentGatherer
+	 * gathered}, and the time meshing starts is noted for the
+	 * {@linkplain SimplyNoShading#getMeshingStats() meshing stats}. Neither patching nor recording happens while the terrain shaders shade the
+	 * blocks, as the vertex colors then carry their marks rather than their
+	 * shading.
+	 *
+	 * @param buffers  the buffers
+	 * @param callback the callback
+	 */
+	@Inject(method = "doTask(Lnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Ljava/util/concurrent/CompletableFuture;",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask;compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;"))
+	private void stampGeneration(final ChunkBufferBuilderPack buffers, final CallbackInfoReturnable<?> callback) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var snapshot = simplyNoShading.getSnapshot();
+		final var meshCache = simplyNoShading.getMeshCache();
+
+		this.contentFlags = 0;
+		this.contentEpoch = ((SectionContentHolder) this.this$1).simplyNoShading$getContentEpoch();
+		this.outdated = false;
+		this.snapshot = snapshot;
+		final var section = SectionPos.asLong(this.this$1.getOrigin());
+		final var level = Minecraft.getInstance().level;
+
+		this.replay = meshCache.lookup(section, this.contentEpoch, snapshot.meshingKey);
+
+		if (this.replay == null && level != null && !snapshot.isShaderShading())
+			this.replay = meshCache.patch(section, this.contentEpoch, snapshot, level);
+		if (this.replay == null && meshCache.isEnabled() && !snapshot.isShaderShading())
+			this.recorder = QuadShadeRecorder.begin();
+		if (this.replay == null) {
+			this.gatherer = SectionContentGatherer.begin();
+			this.compileStartNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces the call to
+	 * {@link BlockPos#betweenClosed(BlockPos, BlockPos)} in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.compile(float, float, float, ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Skips meshing every block when a cached mesh is replayed.
+	 *
+	 * @param from the first corner
+	 * @param to   the second corner
+	 * @return the block positions to mesh
+	 */
+	@Redirect(method = "compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	          at = @At(value = "INVOKE",
+	                   target = "Lnet/minecraft/core/BlockPos;betweenClosed(Lnet/minecraft/core/BlockPos;Lnet/minecraft/core/BlockPos;)Ljava/lang/Iterable;"))
+	private Iterable<BlockPos> skipMeshing(final BlockPos from, final BlockPos to) {
+		return this.replay != null ? List.of() : BlockPos.betweenClosed(from, to);
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.compile(float, float, float, ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Checks once whether the shading snapshot changed since it was
+	 * {@linkplain #snapshot captured}, which decides whether the mesh is
+	 * {@link #outdated}. Fills the results with the replayed mesh. Otherwise,
+	 * adds the gathered content flags of the models, records the time spent
+	 * meshing the section in the {@linkplain SimplyNoShading#getMeshingStats()
+	 * meshing stats}, and copies the section into the {@linkplain SectionMeshCache
+	 * cache} under the meshing key of the captured snapshot, along with the
+	 * records of its quads, unless the mesh is outdated.
+	 *
+	 * @param x        the camera x coordinate
+	 * @param y        the camera y coordinate
+	 * @param z        the camera z coordinate
+	 * @param buffers  the buffers
+	 * @param callback the callback
+	 */
+	@Inject(method = "compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	        at = @At("RETURN"))
+	private void replayOrCapture(final float x,
+	        final float y,
+	        final float z,
+	        final ChunkBufferBuilderPack buffers,
+	        final CallbackInfoReturnable<?> callback) {
+		final var results = (CompileResultsAccessor) callback.getReturnValue();
+		final var replay = this.replay;
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var snapshot = this.snapshot;
+
+		this.outdated = simplyNoShading.getSnapshot().generation != snapshot.generation;
+
+		if (replay != null) {
+			this.replay = null;
+
+			try {
+				this.contentFlags = replay.contentFlags;
+				results.getGlobalBlockEntities().addAll(replay.globalBlockEntities);
+				results.getBlockEntities().addAll(replay.blockEntities);
+				results.setVisibilitySet(replay.visibilitySet);
+				results.setTransparencyState(
+				        replay.replay(buffers, x, y, z, this.this$1.getOrigin(), results.getRenderedLayers()));
+			} finally {
+				simplyNoShading.getMeshCache().release(replay);
+			}
+
+			return;
+		}
+
+		simplyNoShading.getMeshingStats().record(System.nanoTime() - this.compileStartNanos);
+
+		final var gatherer = this.gatherer;
+
+		if (gatherer != null) {
+			this.gatherer = null;
+			this.contentFlags |= gatherer.finish();
+		}
+
+		final var recorder = this.recorder;
+
+		this.recorder = null;
+
+		if (this.outdated) {
+			if (recorder != null)
+				recorder.discard();
+
+			return;
+		}
+
+		simplyNoShading.getMeshCache()
+		        .store(SectionPos.asLong(this.this$1.getOrigin()),
+		                this.contentEpoch,
+		                snapshot.meshingKey,
+		                results.getRenderedLayers(),
+		                results.getGlobalBlockEntities(),
+		                results.getBlockEntities(),
+		                results.getVisibilitySet(),
+		                this.contentFlags,
+		                recorder != null ? recorder.finish(buffers, results.getRenderedLayers().keySet()) : null);
+	}
+
+	/**
+	 * This is an {@linkplain ModifyArg argument modifier} that observes the block
+	 * state passed to
+	 * {@code BlockRenderDispatcher.renderBatched(BlockState, BlockPos, BlockAndTintGetter, PoseStack, VertexConsumer, boolean, RandomSource)}
+	 * in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.compile(float, float, float, ChunkBufferBuilderPack)}.
+	 * <p>
+	 * {@linkplain SectionContentGatherer#beginBlock(BlockState) Starts}
+	 * gathering the content of the block, leaving the state unchanged. The
+	 * content flags of its model are added once the model reaches the block
+	 * renderer, so the model is not looked up here.
+	 *
+	 * @param state the block state
+	 * @return the block state
+	 */
+	@ModifyArg(method = "compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	           at = @At(value = "INVOKE",
+	                    target = "Lnet/minecraft/client/renderer/block/BlockRenderDispatcher;renderBatched(Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/BlockAndTintGetter;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;ZLnet/minecraft/util/RandomSource;)V"),
+	           index = 0)
+	private BlockState beginBlockContent(final BlockState state) {
+		final var gatherer = this.gatherer;
+
+		if (gatherer != null)
+			gatherer.beginBlock(state);
+
+		return state;
+	}
+
+	/**
+	 * This is an {@linkplain ModifyArg argument modifier} that observes the
+	 * vertex consumer passed to
+	 * {@code BlockRenderDispatcher.renderBatched(BlockState, BlockPos, BlockAndTintGetter, PoseStack, VertexConsumer, boolean, RandomSource)}
+	 * in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.compile(float, float, float, ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Selects the block and its layer in the {@linkplain QuadShadeRecorder
+	 * recorder}, if the quads are recorded, leaving the consumer unchanged.
+	 *
+	 * @param state      the block state
+	 * @param pos        the block position
+	 * @param level      the level
+	 * @param poseStack  the pose stack
+	 * @param consumer   the vertex consumer
+	 * @param checkSides whether faces hidden by neighbors are culled
+	 * @param random     the random source
+	 * @return the vertex consumer
+	 */
+	@ModifyArg(method = "compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	           at = @At(value = "INVOKE",
+	                    target = "Lnet/minecraft/client/renderer/block/BlockRenderDispatcher;renderBatched(Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/BlockAndTintGetter;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;ZLnet/minecraft/util/RandomSource;)V"),
+	           index = 4)
+	private VertexConsumer selectRecordedBlock(final BlockState state,
+	        final BlockPos pos,
+	        final BlockAndTintGetter level,
+	        final PoseStack poseStack,
+	        final VertexConsumer consumer,
+	        final boolean checkSides,
+	        final RandomSource random) {
+		final var recorder = this.recorder;
+
+		if (recorder != null)
+			recorder.setBlock(state, consumer);
+
+		return consumer;
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * every call to
+	 * {@code BlockRenderDispatcher.renderLiquid(BlockPos, BlockAndTintGetter, VertexConsumer, BlockState, FluidState)}
+	 * in
+	 * {@code ChunkRenderDispatcher.RenderChunk.RebuildTask.compile(float, float, float, ChunkBufferBuilderPack)}.
+	 * <p>
+	 * Adds the {@linkplain SectionContent#FLUIDS fluid flag}.
+	 *
+	 * @param x        the section x origin
+	 * @param y        the section y origin
+	 * @param z        the section z origin
+	 * @param buffers  the buffers
+	 * @param callback the callback
+	 */
+	@Inject(method = "compile(FFFLnet/minecraft/client/renderer/ChunkBufferBuilderPack;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$RebuildTask$CompileResults;",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/block/BlockRenderDispatcher;renderLiquid(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/BlockAndTintGetter;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/world/level/material/FluidState;)V"))
+	private void gatherFluidContent(final float x,
+	        final float y,
+	        final float z,
+	        final ChunkBufferBuilderPack buffers,
+	        final CallbackInfoReturnable<?> callback) {
+		this.contentFlags |= SectionContent.FLUIDS;
+	}
+}
@@ -0,0 +1,24 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+
+/**
+ * The {@code RenderChunkInfoAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@code LevelRenderer.RenderChunkInfo} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(targets = "net.minecraft.client.renderer.LevelRenderer$RenderChunkInfo")
+public interface RenderChunkInfoAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code LevelRenderer.RenderChunkInfo.chunk}.
+	 *
+	 * @return the section
+	 */
+	@Accessor("chunk")
+	ChunkRenderDispatcher.RenderChunk getChunk();
+}
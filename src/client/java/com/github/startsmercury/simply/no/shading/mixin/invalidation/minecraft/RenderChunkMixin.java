@@ -0,0 +1,149 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContent;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContentHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionMeshCache;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadingGenerationHolder;
+
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.RenderRegionCache;
+
+/**
+ * The {@code RenderChunkMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link ChunkRenderDispatcher.RenderChunk} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ChunkRenderDispatcher.RenderChunk.class)
+public class RenderChunkMixin implements SectionContentHolder, ShadingGenerationHolder {
+	/**
+	 * The content epoch of the section. It is volatile as it is written by the
+	 * render thread and read by chunk compile worker threads.
+	 */
+	@Unique
+	private volatile long contentEpoch = SectionMeshCache.nextEpoch();
+
+	/**
+	 * The content flags of the section as of its last compile. It is volatile as
+	 * it is written by chunk compile worker threads and read by the render
+	 * thread.
+	 */
+	@Unique
+	private volatile int contentFlags = SectionContent.UNKNOWN;
+
+	/**
+	 * The generation of the shading snapshot the section was last meshed with. It
+	 * is volatile, like the rest of the state of the section shared with chunk
+	 * compile worker threads.
+	 */
+	@Unique
+	private volatile long shadingGeneration;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private RenderChunkMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@code ChunkRenderDispatcher.RenderChunk.setDirty(boolean)}.
+	 * <p>
+	 * Moves the section to a new content epoch, unless it is being re-shaded.
+	 *
+	 * @param playerChanged whether a player caused the change
+	 * @param callback      the callback
+	 */
+	@Inject(method = "setDirty(Z)V",
+	        at = @At("HEAD"))
+	private void advanceContentEpoch(final boolean playerChanged, final CallbackInfo callback) {
+		if (!SectionMeshCache.isReshading())
+			this.contentEpoch = SectionMeshCache.nextEpoch();
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@code ChunkRenderDispatcher.RenderChunk.setOrigin(int, int, int)}.
+	 * <p>
+	 * Moves the section to a new content epoch, as it now holds another part of
+	 * the level.
+	 *
+	 * @param x        the new x origin
+	 * @param y        the new y origin
+	 * @param z        the new z origin
+	 * @param callback the callback
+	 */
+	@Inject(method = "setOrigin(III)V",
+	        at = @At("HEAD"))
+	private void advanceContentEpoch(final int x, final int y, final int z, final CallbackInfo callback) {
+		this.contentEpoch = SectionMeshCache.nextEpoch();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long simplyNoShading$getContentEpoch() {
+		return this.contentEpoch;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int simplyNoShading$getContentFlags() {
+		return this.contentFlags;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long simplyNoShading$getShadingGeneration() {
+		return this.shadingGeneration;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void simplyNoShading$setContentFlags(final int contentFlags) {
+		this.contentFlags = contentFlags;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void simplyNoShading$setShadingGeneration(final long shadingGeneration) {
+		this.shadingGeneration = shadingGeneration;
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of
+	 * {@code ChunkRenderDispatcher.RenderChunk.createCompileTask(RenderRegionCache)}.
+	 * <p>
+	 * Stamps the section with the generation of the current shading snapshot. A
+	 * task outdated before it finishes is cancelled and recreated, which stamps
+	 * the section again.
+	 *
+	 * @param regionCache the region cache
+	 * @param callback    the callback
+	 */
+	@Inject(method = "createCompileTask(Lnet/minecraft/client/renderer/chunk/RenderRegionCache;)Lnet/minecraft/client/renderer/chunk/ChunkRenderDispatcher$RenderChunk$ChunkCompileTask;",
+	        at = @At("TAIL"))
+	private void stampShadingGeneration(final RenderRegionCache regionCache,
+	        final CallbackInfoReturnable<?> callback) {
+		this.shadingGeneration = SimplyNoShading.getFirstInstance().getSnapshot().generation;
+	}
+}
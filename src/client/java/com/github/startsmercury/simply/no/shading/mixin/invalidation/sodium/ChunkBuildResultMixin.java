@@ -0,0 +1,48 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadingGenerationHolder;
+
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
+
+/**
+ * The {@code ChunkBuildResultMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link ChunkBuildResult} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ChunkBuildResult.class)
+public class ChunkBuildResultMixin implements ShadingGenerationHolder {
+	/**
+	 * The generation of the shading snapshot the result was meshed with. It is
+	 * written by the chunk build worker thread before the result is handed to
+	 * the render thread.
+	 */
+	@Unique
+	private long shadingGeneration;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ChunkBuildResultMixin() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long simplyNoShading$getShadingGeneration() {
+		return this.shadingGeneration;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void simplyNoShading$setShadingGeneration(final long shadingGeneration) {
+		this.shadingGeneration = shadingGeneration;
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadingGenerationHolder;
+
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
+import me.jellysquid.mods.sodium.client.render.chunk.tasks.ChunkRenderRebuildTask;
+
+/**
+ * The {@code ChunkRenderRebuildTaskMixin} is a {@linkplain Mixin mixin} class
+ * for the {@link ChunkRenderRebuildTask} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ChunkRenderRebuildTask.class)
+public class ChunkRenderRebuildTaskMixin {
+	/**
+	 * The {@linkplain ShadingSnapshot#generation generation} of the shading
+	 * snapshot current when the build started.
+	 */
+	@Unique
+	private long shadingGeneration;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ChunkRenderRebuildTaskMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@code ChunkRenderRebuildTask.performBuild}.
+	 * <p>
+	 * Records the generation of the current shading snapshot.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "performBuild",
+	        at = @At("HEAD"),
+	        remap = false)
+	private void stampGeneration(final CallbackInfoReturnable<ChunkBuildResult> callback) {
+		this.shadingGeneration = SimplyNoShading.getFirstInstance().getSnapshot().generation;
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of {@code ChunkRenderRebuildTask.performBuild}.
+	 * <p>
+	 * Stamps the result with the generation recorded when the build started, so
+	 * that the render thread can tell whether it is outdated before uploading it.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "performBuild",
+	        at = @At("RETURN"),
+	        remap = false)
+	private void stampResult(final CallbackInfoReturnable<ChunkBuildResult> callback) {
+		final var result = callback.getReturnValue();
+
+		if (result != null)
+			((ShadingGenerationHolder) result).simplyNoShading$setShadingGeneration(this.shadingGeneration);
+	}
+}
@@ -0,0 +1,51 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionInvalidator;
+
+import me.jellysquid.mods.sodium.client.render.SodiumWorldRenderer;
+import net.minecraft.client.renderer.LevelRenderer;
+
+/**
+ * The {@code LevelRendererInvalidatorMixin} is a {@linkplain Mixin mixin} class
+ * for the {@link LevelRenderer} class. It is the Sodium invalidation backend,
+ * scheduling rebuilds straight into the rebuild queue of Sodium's
+ * {@code RenderSectionManager}, so that its region arenas, GPU buffers, and
+ * existing meshes stay alive.
+ *
+ * @since 6.1.0
+ */
+@Mixin(LevelRenderer.class)
+public class LevelRendererInvalidatorMixin implements SectionInvalidator {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private LevelRendererInvalidatorMixin() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote Nothing happens while Sodium has no world renderer.
+	 */
+	@Override
+	public void simplyNoShading$invalidateSection(final int sectionX, final int sectionY, final int sectionZ) {
+		final var worldRenderer = SodiumWorldRenderer.instanceNullable();
+
+		if (worldRenderer != null)
+			worldRenderer.scheduleRebuildForChunk(sectionX, sectionY, sectionZ, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote Sodium only flags invalidated sections, and queues their rebuilds
+	 *           as its visibility pass reaches them.
+	 */
+	@Override
+	public boolean simplyNoShading$rebuildsOnlyVisibleSections() {
+		return true;
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.startsmercury.simply.no.shading.mixin.invalidation.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadingGenerationHolder;
+
+import me.jellysquid.mods.sodium.client.render.SodiumWorldRenderer;
+import me.jellysquid.mods.sodium.client.render.chunk.RenderSection;
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
+
+/**
+ * The {@code RenderSectionMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link RenderSection} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(RenderSection.class)
+public abstract class RenderSectionMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private RenderSectionMixin() {
+	}
+
+	/**
+	 * Returns the section x coordinate.
+	 *
+	 * @return the section x coordinate
+	 */
+	@Shadow(remap = false)
+	public abstract int getChunkX();
+
+	/**
+	 * Returns the section y coordinate.
+	 *
+	 * @return the section y coordinate
+	 */
+	@Shadow(remap = false)
+	public abstract int getChunkY();
+
+	/**
+	 * Returns the section z coordinate.
+	 *
+	 * @return the section z coordinate
+	 */
+	@Shadow(remap = false)
+	public abstract int getChunkZ();
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of {@code RenderSection.canAcceptBuildResults}, on the render thread.
+	 * <p>
+	 * Rejects a build result meshed before the shading snapshot
+	 * {@linkplain ShadingSnapshot#generation meshed sections differently}, so
+	 * that the outdated mesh is released instead of being uploaded, and
+	 * schedules the section to be rebuilt.
+	 *
+	 * @param result   the build result
+	 * @param callback the callback
+	 */
+	@Inject(method = "canAcceptBuildResults",
+	        at = @At("RETURN"),
+	        cancellable = true,
+	        remap = false)
+	private void rejectOutdated(final ChunkBuildResult result, final CallbackInfoReturnable<Boolean> callback) {
+		if (!callback.getReturnValueZ())
+			return;
+
+		final var generation = ((ShadingGenerationHolder) result).simplyNoShading$getShadingGeneration();
+
+		if (generation == SimplyNoShading.getFirstInstance().getSnapshot().generation)
+			return;
+
+		callback.setReturnValue(false);
+		SodiumWorldRenderer.instance().scheduleRebuildForChunk(getChunkX(), getChunkY(), getChunkZ(), false);
+	}
+}
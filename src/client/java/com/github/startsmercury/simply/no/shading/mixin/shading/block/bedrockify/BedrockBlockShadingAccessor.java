@@ -0,0 +1,28 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.bedrockify;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import me.juancarloscp52.bedrockify.client.features.bedrockShading.BedrockBlockShading;
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code BedrockBlockShadingAccessor} is an accessor {@linkplain Mixin
+ * mixin} interface for the {@link BedrockBlockShading} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BedrockBlockShading.class)
+public interface BedrockBlockShadingAccessor {
+	/**
+	 * This is an {@linkplain Invoker invoker} for calling the method
+	 * {@link BedrockBlockShading#getLiquidShade(Direction, boolean)}.
+	 *
+	 * @param direction the face direction
+	 * @param shade     the shade
+	 * @return the brightness factor of liquid faces in the direction
+	 */
+	@Invoker(value = "getLiquidShade",
+	         remap = false)
+	float invokeGetLiquidShade(Direction direction, boolean shade);
+}
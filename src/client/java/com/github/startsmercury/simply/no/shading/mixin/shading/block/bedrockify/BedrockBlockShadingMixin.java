@@ -1,12 +1,17 @@
 package com.github.startsmercury.simply.no.shading.mixin.shading.block.bedrockify;
 
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.ShadeTableSource;
 
 import me.juancarloscp52.bedrockify.client.features.bedrockShading.BedrockBlockShading;
 import net.minecraft.core.Direction;
@@ -14,11 +19,26 @@ import net.minecraft.core.Direction;
 /**
  * The {@code BedrockBlockShadingMixin} is a {@linkplain Mixin mixin} class for
  * the {@link BedrockBlockShading} class.
+ * <p>
+ * {@link BedrockBlockShading#getLiquidShade(Direction, boolean)} is left
+ * intact, so that BedrockIfy's shading model is sampled through the
+ * {@linkplain BedrockBlockShadingAccessor invoker}, while every other call is
+ * answered from the shade table.
  *
  * @since 5.0.0
  */
 @Mixin(BedrockBlockShading.class)
-public class BedrockBlockShadingMixin {
+public abstract class BedrockBlockShadingMixin implements ShadeTableSource {
+	/**
+	 * Whether the shade table is being sampled, so that
+	 * {@link BedrockBlockShading#getLiquidShade(Direction, boolean)} runs
+	 * BedrockIfy's own math. It is only written by the render thread. A compile
+	 * worker thread seeing it late only runs that math once more, which is what
+	 * the table holds anyway.
+	 */
+	@Unique
+	private static boolean sampling;
+
 	/**
 	 * A private constructor that does nothing as of the writing of this
 	 * documentation.
@@ -27,21 +47,63 @@ public class BedrockBlockShadingMixin {
 	}
 
 	/**
-	 * This is an {@linkplain Inject injector} that runs additional code at the head
-	 * of {@link BedrockBlockShading#getLiquidShade(Direction, boolean)}.
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@link BedrockBlockShading#getLiquidShade(Direction, boolean)}.
 	 * <p>
-	 * Returns the original method early with the float value of {@code 1.0f} if the
-	 * {@linkplain Config#blockShadingEnabled block shading is not enabled}.
+	 * Returns the brightness factor of liquid faces in the direction, shaded if
+	 * {@code shade} is {@code true} and {@link Config#isBlockShadingEnabled()
+	 * block shading is enabled}, from the {@linkplain
+	 * ShadingSnapshot#getTableShade(Direction, boolean) shade table of the
+	 * snapshot}, unless the table is being sampled.
 	 *
-	 * @param callback the callback
+	 * @param direction the face direction
+	 * @param shade     the shade
+	 * @param callback  the callback
+	 * @since 6.1.0
 	 */
 	@Inject(method = "getLiquidShade(Lnet/minecraft/core/Direction;Z)F",
 	        at = @At("HEAD"),
 	        cancellable = true)
-	private final void changeReturnedShade(final CallbackInfoReturnable<Float> callback) {
-		final var blockShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().blockShadingEnabled;
+	private void answerFromShadeTable(final Direction direction,
+	        final boolean shade,
+	        final CallbackInfoReturnable<Float> callback) {
+		if (!sampling)
+			callback.setReturnValue(ShadingHooks.getTableShade(direction, shade));
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of every constructor of {@link BedrockBlockShading}.
+	 * <p>
+	 * {@linkplain SimplyNoShading#setShadeTableSource(ShadeTableSource) Makes}
+	 * the shading model the one the shade table is sampled from.
+	 *
+	 * @param callback the callback
+	 * @since 6.1.0
+	 */
+	@Inject(method = "<init>",
+	        at = @At("RETURN"))
+	private void registerShadeTableSource(final CallbackInfo callback) {
+		SimplyNoShading.setShadeTableSource(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote The original
+	 *           {@link BedrockBlockShading#getLiquidShade(Direction, boolean)} is
+	 *           called through its {@linkplain BedrockBlockShadingAccessor
+	 *           invoker} while {@link #sampling} is set.
+	 * @since 6.1.0
+	 */
+	@Override
+	public float simplyNoShading$computeShade(final Direction direction, final boolean shade) {
+		sampling = true;
 
-		if (!blockShadingEnabled)
-			callback.setReturnValue(1.0F);
+		try {
+			return ((BedrockBlockShadingAccessor) this).invokeGetLiquidShade(direction, shade);
+		} finally {
+			sampling = false;
+		}
 	}
 }
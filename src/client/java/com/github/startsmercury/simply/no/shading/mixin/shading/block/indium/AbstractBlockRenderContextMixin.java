@@ -0,0 +1,64 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.indium;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockShadeHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedMaterials;
+
+import link.infra.indium.renderer.mesh.MutableQuadViewImpl;
+import link.infra.indium.renderer.render.AbstractBlockRenderContext;
+import link.infra.indium.renderer.render.BlockRenderInfo;
+
+/**
+ * The {@code AbstractBlockRenderContextMixin} is a {@linkplain Mixin mixin}
+ * class for the {@link AbstractBlockRenderContext} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(AbstractBlockRenderContext.class)
+public class AbstractBlockRenderContextMixin {
+	/**
+	 * The render state of the block being rendered.
+	 */
+	@Shadow
+	@Final
+	protected BlockRenderInfo blockInfo;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private AbstractBlockRenderContextMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that is called before the material
+	 * is first read in
+	 * {@code AbstractBlockRenderContext.renderQuad(MutableQuadViewImpl, boolean)}.
+	 * <p>
+	 * Swaps the material of the quad for its
+	 * {@linkplain UnshadedMaterials#unshadedVariantOf unshaded twin} when the block
+	 * is not shaded. This runs after the quad was transformed and culled, and
+	 * before ambient occlusion reads the diffuse flag, so both the lighting and
+	 * the tessellation see the twin. Shaded blocks are left untouched.
+	 *
+	 * @param quad      the quad
+	 * @param isVanilla whether the quad came from a vanilla model
+	 * @param callback  the callback
+	 */
+	@Inject(method = "renderQuad(Llink/infra/indium/renderer/mesh/MutableQuadViewImpl;Z)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Llink/infra/indium/renderer/mesh/MutableQuadViewImpl;material()Llink/infra/indium/renderer/RenderMaterialImpl$Value;",
+	                 ordinal = 0))
+	private final void unshadeMaterial(final MutableQuadViewImpl quad,
+	        final boolean isVanilla,
+	        final CallbackInfo callback) {
+		if (!((BlockShadeHolder) this.blockInfo).simplyNoShading$isBlockShaded())
+			quad.material(UnshadedMaterials.unshadedVariantOf(quad.material()));
+	}
+}
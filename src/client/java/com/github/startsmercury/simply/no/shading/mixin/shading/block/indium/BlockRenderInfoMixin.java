@@ -0,0 +1,87 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.indium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockShadeHolder;
+
+import link.infra.indium.renderer.render.BlockRenderInfo;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code BlockRenderInfoMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link BlockRenderInfo} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BlockRenderInfo.class)
+public class BlockRenderInfoMixin implements BlockShadeHolder {
+	/**
+	 * Whether the block being rendered is shaded.
+	 */
+	@Unique
+	private boolean blockShaded = true;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private BlockRenderInfoMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that is called at the end of
+	 * {@code BlockRenderInfo.prepareForBlock(BlockState, BlockPos, boolean)}.
+	 * <p>
+	 * Decides whether the block is shaded once for all of its quads.
+	 *
+	 * @param blockState the block state
+	 * @param blockPos   the block position
+	 * @param modelAo    whether the model uses ambient occlusion
+	 * @param callback   the callback
+	 */
+	@Inject(method = "prepareForBlock(Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Z)V",
+	        at = @At("TAIL"))
+	private final void decideBlockShaded(final BlockState blockState,
+	        final BlockPos blockPos,
+	        final boolean modelAo,
+	        final CallbackInfo callback) {
+		this.blockShaded = SimplyNoShading.getFirstInstance().getSnapshot().isBlockShaded(blockState);
+	}
+
+	/**
+	 * This is a {@linkplain ModifyVariable variable modifier} that modifies the
+	 * parameter {@code modelAo} in
+	 * {@code BlockRenderInfo.prepareForBlock(BlockState, BlockPos, boolean)}.
+	 * <p>
+	 * Returns {@code false} when {@linkplain Config#isFlatLightingEnabled() flat
+	 * lighting is enabled}, so that quads default to flat lighting without
+	 * sampling the light and occlusion of the neighbors; {@code modelAo}
+	 * otherwise.
+	 *
+	 * @param modelAo whether the model uses ambient occlusion
+	 * @return {@code false} when flat lighting is enabled; {@code modelAo}
+	 *         otherwise
+	 */
+	@ModifyVariable(method = "prepareForBlock(Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Z)V",
+	                at = @At("HEAD"),
+	                argsOnly = true)
+	private boolean skipAmbientOcclusion(final boolean modelAo) {
+		return modelAo && !SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isFlatLightingEnabled();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean simplyNoShading$isBlockShaded() {
+		return this.blockShaded;
+	}
+}
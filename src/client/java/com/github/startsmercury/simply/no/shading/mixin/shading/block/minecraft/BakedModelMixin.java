@@ -0,0 +1,50 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedVariantHolder;
+
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.MultiPartBakedModel;
+import net.minecraft.client.resources.model.SimpleBakedModel;
+import net.minecraft.client.resources.model.WeightedBakedModel;
+
+/**
+ * The {@code BakedModelMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link SimpleBakedModel}, {@link WeightedBakedModel}, and
+ * {@link MultiPartBakedModel} classes.
+ *
+ * @since 6.1.0
+ */
+@Mixin({ MultiPartBakedModel.class, SimpleBakedModel.class, WeightedBakedModel.class })
+public class BakedModelMixin implements UnshadedVariantHolder {
+	/**
+	 * The unshaded variant of the model, or {@code null} if it was not baked.
+	 */
+	@Unique
+	private BakedModel unshadedVariant;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private BakedModelMixin() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BakedModel simplyNoShading$getUnshadedVariant() {
+		return this.unshadedVariant;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void simplyNoShading$setUnshadedVariant(final BakedModel unshadedVariant) {
+		this.unshadedVariant = unshadedVariant;
+	}
+}
@@ -0,0 +1,27 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+
+/**
+ * The {@code BakedQuadAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@link BakedQuad} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BakedQuad.class)
+public interface BakedQuadAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code BakedQuad.shade}.
+	 * <p>
+	 * Unlike {@link BakedQuad#isShade()}, the value is as baked and is not changed
+	 * by the config.
+	 *
+	 * @return whether the quad is to be shaded, as baked
+	 */
+	@Accessor("shade")
+	boolean getBakedShade();
+}
@@ -1,16 +1,26 @@
 package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
 
+import org.objectweb.asm.Opcodes;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.github.startsmercury.simply.no.shading.client.Config;
-import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormalHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedModels;
 
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.Direction;
 
 /**
  * The {@code BakedQuadMixin} is a {@linkplain Mixin mixin} class for the
@@ -20,7 +30,41 @@ import net.minecraft.client.renderer.block.model.BakedQuad;
  */
 @Environment(EnvType.CLIENT)
 @Mixin(BakedQuad.class)
-public abstract class BakedQuadMixin {
+public abstract class BakedQuadMixin implements QuadNormalHolder {
+	/**
+	 * The nominal direction of this quad.
+	 *
+	 * @since 6.1.0
+	 */
+	@Shadow
+	@Final
+	protected Direction direction;
+
+	/**
+	 * The {@linkplain QuadNormals#indexOf(int[], Direction) index of the normal}
+	 * of this quad.
+	 *
+	 * @since 6.1.0
+	 */
+	@Unique
+	private short normalIndex;
+
+	/**
+	 * Whether this quad is to be shaded, as baked.
+	 */
+	@Shadow
+	@Final
+	protected boolean shade;
+
+	/**
+	 * The vertex data of this quad.
+	 *
+	 * @since 6.1.0
+	 */
+	@Shadow
+	@Final
+	protected int[] vertices;
+
 	/**
 	 * A private constructor that does nothing as of the writing of this
 	 * documentation.
@@ -30,21 +74,65 @@ public abstract class BakedQuadMixin {
 
 	/**
 	 * This is an {@linkplain Inject injector} that runs additional code at the
-	 * return of {@link BakedQuad#isShade()}.
+	 * end of
+	 * {@code BakedQuad(int[], int, Direction, TextureAtlasSprite, boolean)}.
+	 * <p>
+	 * Derives the {@linkplain QuadNormals#indexOf(int[], Direction) index of the
+	 * normal} of the quad from its vertex data, once, so that meshing never does
+	 * the normal math.
+	 *
+	 * @param vertices  the vertex data
+	 * @param tintIndex the tint index
+	 * @param direction the nominal direction
+	 * @param sprite    the sprite
+	 * @param shade     whether the quad is to be shaded
+	 * @param callback  the callback
+	 * @since 6.1.0
+	 */
+	@Inject(method = "<init>([IILnet/minecraft/core/Direction;Lnet/minecraft/client/renderer/texture/TextureAtlasSprite;Z)V",
+	        at = @At("RETURN"))
+	private void deriveNormalIndex(final int[] vertices,
+	        final int tintIndex,
+	        final Direction direction,
+	        final TextureAtlasSprite sprite,
+	        final boolean shade,
+	        final CallbackInfo callback) {
+		this.normalIndex = (short) QuadNormals.indexOf(this.vertices, this.direction);
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces the read of the
+	 * field {@code shade} in {@link BakedQuad#isShade()}.
 	 * <p>
-	 * Overwrites the return value the boolean value of {@code true} if the original
-	 * return value was {@code true} and {@linkplain Config#blockShadingEnabled
-	 * block shading is enabled}; {@code false} otherwise.
+	 * Returns {@code true} if the original field value was {@code true} and
+	 * {@linkplain Config#isBlockShadingEnabled() block shading is enabled};
+	 * {@code false} otherwise, as {@linkplain ShadingHooks#isQuadShaded(boolean)
+	 * decided} by the shared hook body.
 	 *
-	 * @param callback the callback
+	 * @param quad the baked quad, which is also {@code this}
+	 * @return {@code true} if the original field value was {@code true} and
+	 *         {@linkplain Config#isBlockShadingEnabled() block shading is enabled};
+	 *         {@code false} otherwise
+	 * @implNote Unlike an injector at the return, this does not allocate a
+	 *           callback on every call. Quads baked unshaded, including those
+	 *           of the {@linkplain UnshadedModels unshaded variants} swapped in
+	 *           by the model renderers, are answered without reading the config.
 	 */
-	@Inject(method = "isShade()Z",
-	        at = @At("RETURN"),
-	        cancellable = true)
-	private final void changeReturnedShade(final CallbackInfoReturnable<Boolean> callback) {
-		final var blockShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().blockShadingEnabled;
-		final var originalReturnValue = callback.getReturnValueZ();
+	@Redirect(method = "isShade()Z",
+	          at = @At(value = "FIELD",
+	                   target = "Lnet/minecraft/client/renderer/block/model/BakedQuad;shade:Z",
+	                   opcode = Opcodes.GETFIELD))
+	private final boolean changeReturnedShade(final BakedQuad quad) {
+		return ShadingHooks.isQuadShaded(this.shade);
+	}
 
-		callback.setReturnValue(originalReturnValue && blockShadingEnabled);
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 6.1.0
+	 */
+	@Override
+	public int simplyNoShading$getNormalIndex() {
+		return this.normalIndex;
 	}
 }
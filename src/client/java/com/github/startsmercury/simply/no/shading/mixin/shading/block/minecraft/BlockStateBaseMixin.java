@@ -0,0 +1,48 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.BlockStateIdCache;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code BlockStateBaseMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link BlockBehaviour.BlockStateBase} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BlockBehaviour.BlockStateBase.class)
+public class BlockStateBaseMixin implements BlockStateIdCache {
+	/**
+	 * The cached registry id, or {@code -1} if not yet looked up.
+	 */
+	@Unique
+	private int stateId = -1;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private BlockStateBaseMixin() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implNote The id is looked up once and cached. Racing threads may both look
+	 *           it up, but they always store the same value.
+	 */
+	@Override
+	public int simplyNoShading$getStateId() {
+		var stateId = this.stateId;
+
+		if (stateId < 0)
+			this.stateId = stateId = Block.getId((BlockState) (Object) this);
+
+		return stateId;
+	}
+}
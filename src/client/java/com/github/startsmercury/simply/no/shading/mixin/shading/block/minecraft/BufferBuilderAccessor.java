@@ -0,0 +1,50 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.nio.ByteBuffer;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+/**
+ * The {@code BufferBuilderAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@link BufferBuilder} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BufferBuilder.class)
+public interface BufferBuilderAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code BufferBuilder.buffer}.
+	 * <p>
+	 * It is the vertex data written so far, which may be reallocated as the
+	 * builder grows.
+	 *
+	 * @return the vertex data
+	 */
+	@Accessor("buffer")
+	ByteBuffer getBuffer();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code BufferBuilder.format}.
+	 *
+	 * @return the vertex format of the current batch
+	 */
+	@Accessor("format")
+	VertexFormat getFormat();
+
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code BufferBuilder.nextElementByte}.
+	 * <p>
+	 * It is the offset right past the last vertex written.
+	 *
+	 * @return the offset right past the last vertex written
+	 */
+	@Accessor("nextElementByte")
+	int getNextElementByte();
+}
@@ -2,10 +2,12 @@ package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft
 
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Constant;
+import org.spongepowered.asm.mixin.injection.ModifyConstant;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
 
-import com.github.startsmercury.simply.no.shading.client.Config;
-import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.core.Direction;
@@ -25,25 +27,50 @@ public abstract class ClientLevelMixin {
 	private ClientLevelMixin() {
 	}
 
+	/**
+	 * This is a {@linkplain ModifyConstant constant modifier} that modifies the
+	 * per-direction float constants {@code 0.5f}, {@code 1.0f}, {@code 0.8f}, and
+	 * {@code 0.6f} returned for shaded faces in
+	 * {@link ClientLevel#getShade(Direction, boolean)}.
+	 * <p>
+	 * Returns the {@linkplain ShadingSnapshot#getShadeFactor(Direction) configured
+	 * brightness factor} of the direction. The {@code 0.9f} constants of dimensions
+	 * with constant ambient light, and the constants returned for unshaded faces,
+	 * are left untouched.
+	 *
+	 * @param constantValue the constant value
+	 * @param direction     the face direction
+	 * @return the configured brightness factor of the direction
+	 * @since 6.1.0
+	 */
+	@ModifyConstant(method = "getShade(Lnet/minecraft/core/Direction;Z)F",
+	                constant = { @Constant(floatValue = 0.5f),
+	                        @Constant(floatValue = 1.0f,
+	                                  ordinal = 1),
+	                        @Constant(floatValue = 0.8f),
+	                        @Constant(floatValue = 0.6f) })
+	private final float changeShadeFactor(final float constantValue, final Direction direction) {
+		return ShadingHooks.getShadeFactor(direction);
+	}
+
 	/**
 	 * This is a {@linkplain ModifyVariable variable modifier} that modifies the
 	 * parameter {@code shade} in {@link ClientLevel#getShade(Direction, boolean)}
 	 * <p>
 	 * Returns {@code true} if {@code shade} is {@code true} and
-	 * {@link Config#blockShadingEnabled block shading is enabled}; {@code false}
-	 * otherwise.
+	 * {@linkplain ShadingSnapshot#isAnyBlockShaded() any block may be shaded};
+	 * {@code false} otherwise. Callers that know the block, such as the
+	 * {@link ModelBlockRendererMixin model block renderer}, already passed
+	 * {@code false} for blocks that are not shaded.
 	 *
 	 * @param shade the shade
-	 * @return {@code true} if {@code shade} is {@code true} and
-	 *         {@link Config#blockShadingEnabled block shading is enabled};
-	 *         {@code false} otherwise
+	 * @return {@code true} if {@code shade} is {@code true} and any block may be
+	 *         shaded; {@code false} otherwise
 	 */
 	@ModifyVariable(method = "getShade(Lnet/minecraft/core/Direction;Z)F",
 	                at = @At("HEAD"),
 	                argsOnly = true)
 	private final boolean changeShade(final boolean shade) {
-		final var blockShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().blockShadingEnabled;
-
-		return shade && blockShadingEnabled;
+		return ShadingHooks.isFaceShaded(shade);
 	}
 }
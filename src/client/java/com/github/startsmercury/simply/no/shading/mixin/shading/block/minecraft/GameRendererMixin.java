@@ -0,0 +1,43 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.server.packs.resources.ResourceProvider;
+
+/**
+ * The {@code GameRendererMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link GameRenderer} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(GameRenderer.class)
+public class GameRendererMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private GameRendererMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * end of {@code GameRenderer.reloadShaders(ResourceProvider)}.
+	 * <p>
+	 * {@linkplain SimplyNoShading#reloadShaderShading() Re-checks} whether the
+	 * terrain shaders were patched.
+	 *
+	 * @param resourceProvider the resource provider
+	 * @param callback         the callback
+	 */
+	@Inject(method = "reloadShaders(Lnet/minecraft/server/packs/resources/ResourceProvider;)V",
+	        at = @At("TAIL"))
+	private void reloadShaderShading(final ResourceProvider resourceProvider, final CallbackInfo callback) {
+		SimplyNoShading.getFirstInstance().reloadShaderShading();
+	}
+}
@@ -0,0 +1,55 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedModels;
+
+import net.minecraft.client.renderer.entity.ItemRenderer;
+import net.minecraft.client.resources.model.BakedModel;
+
+/**
+ * The {@code ItemRendererMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link ItemRenderer} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ItemRenderer.class)
+public class ItemRendererMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ItemRendererMixin() {
+	}
+
+	/**
+	 * This is a {@linkplain ModifyVariable variable modifier} that modifies the
+	 * parameter {@code model} in
+	 * {@code ItemRenderer.renderModelLists(BakedModel, ItemStack, int, int, PoseStack, VertexConsumer)}.
+	 * <p>
+	 * Returns the model unchanged when
+	 * {@linkplain Config#isBlockShadingEnabled() block shading is enabled}; its
+	 * {@linkplain UnshadedModels#unshadedVariantOf(BakedModel) unshaded variant}
+	 * otherwise. The shading is thus decided once per item drawn, and every
+	 * {@code BakedQuad.isShade()} call on its quads is answered from the baked
+	 * value without reading the config again. Vanilla draws the quads without
+	 * asking, but renderers converting them, such as implementations of the
+	 * Fabric Renderer API, ask for every quad of every item each frame.
+	 *
+	 * @param model the model
+	 * @return the model or its unshaded variant
+	 */
+	@ModifyVariable(method = "renderModelLists(Lnet/minecraft/client/resources/model/BakedModel;Lnet/minecraft/world/item/ItemStack;IILcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;)V",
+	                at = @At("HEAD"),
+	                argsOnly = true)
+	private BakedModel changeModel(final BakedModel model) {
+		if (SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isBlockShadingEnabled())
+			return model;
+		else
+			return UnshadedModels.unshadedVariantOf(model);
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.joml.Matrix4f;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+
+/**
+ * The {@code LevelRendererMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link LevelRenderer} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(LevelRenderer.class)
+public class LevelRendererMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private LevelRendererMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * every call to {@link ShaderInstance#apply()} in
+	 * {@code LevelRenderer.renderChunkLayer(RenderType, PoseStack, double, double, double, Matrix4f)}.
+	 * <p>
+	 * {@linkplain TerrainShaders#applyUniforms(ShaderInstance) Sets} the shading
+	 * uniforms of the terrain shader to the ones
+	 * {@linkplain TerrainShaders#beginFrame(com.github.startsmercury.simply.no.shading.client.ShadingSnapshot)
+	 * computed for the frame}.
+	 *
+	 * @param renderType       the render type
+	 * @param poseStack        the pose stack
+	 * @param cameraX          the camera x coordinate
+	 * @param cameraY          the camera y coordinate
+	 * @param cameraZ          the camera z coordinate
+	 * @param projectionMatrix the projection matrix
+	 * @param callback         the callback
+	 */
+	@Inject(method = "renderChunkLayer(Lnet/minecraft/client/renderer/RenderType;Lcom/mojang/blaze3d/vertex/PoseStack;DDDLorg/joml/Matrix4f;)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/ShaderInstance;apply()V"))
+	private void applyTerrainUniforms(final RenderType renderType,
+	        final PoseStack poseStack,
+	        final double cameraX,
+	        final double cameraY,
+	        final double cameraZ,
+	        final Matrix4f projectionMatrix,
+	        final CallbackInfo callback) {
+		TerrainShaders.applyUniforms(RenderSystem.getShader());
+	}
+}
@@ -4,8 +4,8 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.ModifyArg;
 
-import com.github.startsmercury.simply.no.shading.client.Config;
-import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.renderer.block.LiquidBlockRenderer;
@@ -37,22 +37,27 @@ public class LiquidBlockRendererMixin {
 	 * {@link BlockAndTintGetter#getShade(Direction, boolean)} in
 	 * {@link LiquidBlockRenderer#tesselate(BlockAndTintGetter, BlockPos, VertexConsumer, BlockState, FluidState)}.
 	 * <p>
-	 * Returns {@code true} if {@code shade} is {@code true} and
-	 * {@link Config#blockShadingEnabled block shading is enabled}; {@code false}
-	 * otherwise.
+	 * Returns {@code true} if {@code shade} is {@code true} and the block state
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded};
+	 * {@code false} otherwise.
 	 *
-	 * @param shade the shade
-	 * @return {@code true} if {@code shade} is {@code true} and
-	 *         {@link Config#blockShadingEnabled block shading is enabled};
-	 *         {@code false} otherwise
+	 * @param shade      the shade
+	 * @param level      the level
+	 * @param pos        the block position
+	 * @param consumer   the vertex consumer
+	 * @param blockState the block state
+	 * @return {@code true} if {@code shade} is {@code true} and the block state is
+	 *         shaded; {@code false} otherwise
 	 */
 	@ModifyArg(method = "tesselate(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/world/level/material/FluidState;)V",
 	           at = @At(value = "INVOKE",
 	                    target = "Lnet/minecraft/world/level/BlockAndTintGetter;getShade(Lnet/minecraft/core/Direction;Z)F"),
 	           index = 1)
-	private final boolean changeShade(final boolean shade) {
-		final var blockShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().blockShadingEnabled;
-
-		return shade && blockShadingEnabled;
+	private final boolean changeShade(final boolean shade,
+	        final BlockAndTintGetter level,
+	        final BlockPos pos,
+	        final VertexConsumer consumer,
+	        final BlockState blockState) {
+		return ShadingHooks.isLiquidShaded(shade, blockState);
 	}
 }
@@ -0,0 +1,403 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContentGatherer;
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedModels;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.ModelBlockRenderer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code ModelBlockRendererMixin} is a {@linkplain Mixin mixin} class for
+ * the {@link ModelBlockRenderer} class. While
+ * {@linkplain ShadingSnapshot#isShaderShading() shader shading} is in effect,
+ * quads written to a {@linkplain TerrainShaders#isMarkable(VertexConsumer)
+ * markable} buffer are left unshaded and marked for the terrain shaders
+ * instead.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ModelBlockRenderer.class)
+public class ModelBlockRendererMixin {
+	/**
+	 * The block state last tessellated on each thread, so that
+	 * {@link #applyNormalShade(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)}
+	 * can check it. The renderer is shared by the compile worker threads.
+	 *
+	 * @since 6.1.0
+	 */
+	@Unique
+	private static final ThreadLocal<BlockState> TESSELATED_STATE = new ThreadLocal<>();
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ModelBlockRendererMixin() {
+	}
+
+	/**
+	 * Returns {@code true} if the quad is shaded from its
+	 * {@linkplain ShadingSnapshot#getNormalIndex(Object) normal} rather than like
+	 * the face it nominally belongs to; {@code false} otherwise.
+	 *
+	 * @param snapshot the shading snapshot
+	 * @param quad     the quad
+	 * @return {@code true} if the quad is shaded from its normal; {@code false}
+	 *         otherwise
+	 */
+	private static boolean isNormalShaded(final ShadingSnapshot snapshot, final BakedQuad quad) {
+		return snapshot.getNormalIndex(quad) != QuadNormals.AXIS_ALIGNED;
+	}
+
+	/**
+	 * Returns {@code true} if a quad baked shaded is shaded while meshing;
+	 * {@code false} otherwise. It is not when the terrain shaders shade it or it
+	 * is shaded from its normal instead, nor when the block state is not
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) shaded}. Models with
+	 * an unshaded variant were already swapped for unshaded states, so the bit
+	 * test of the state only matters for models without one.
+	 *
+	 * @param snapshot the shading snapshot
+	 * @param quad     the quad baked shaded
+	 * @param state    the block state
+	 * @param consumer the vertex consumer
+	 * @return {@code true} if the quad is shaded while meshing; {@code false}
+	 *         otherwise
+	 */
+	private static boolean isQuadShaded(final ShadingSnapshot snapshot,
+	        final BakedQuad quad,
+	        final BlockState state,
+	        final VertexConsumer consumer) {
+		return !isShadedByShaders(snapshot, consumer) && !isNormalShaded(snapshot, quad)
+		        && snapshot.isBlockShaded(state);
+	}
+
+	/**
+	 * Returns {@code true} if the shading of quads written to the consumer is left
+	 * to the terrain shaders; {@code false} otherwise.
+	 *
+	 * @param snapshot the shading snapshot
+	 * @param consumer the vertex consumer
+	 * @return {@code true} if the terrain shaders shade the quads; {@code false}
+	 *         otherwise
+	 */
+	private static boolean isShadedByShaders(final ShadingSnapshot snapshot, final VertexConsumer consumer) {
+		return snapshot.isShaderShading() && TerrainShaders.isMarkable(consumer);
+	}
+
+	/**
+	 * This is an {@linkplain ModifyArg argument modifier} that modifies the
+	 * argument {@code brightness} passed to
+	 * {@code VertexConsumer.putBulkData(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)}
+	 * in
+	 * {@code ModelBlockRenderer.putQuadData(BlockAndTintGetter, BlockState, BlockPos, VertexConsumer, PoseStack.Pose, BakedQuad, float, float, float, float, int, int, int, int, int)}.
+	 * <p>
+	 * Multiplies the brightness of every vertex of a quad baked shaded by the
+	 * {@linkplain ShadingSnapshot#getNormalShade(int) brightness factor of its
+	 * normal}, when it is shaded from its normal and was thus lit as unshaded,
+	 * unless the block state being tessellated is not shaded. The array is
+	 * freshly allocated by the caller, so it is changed in place.
+	 *
+	 * @param pose              the pose
+	 * @param quad              the quad
+	 * @param brightness        the per-vertex brightness
+	 * @param red               the red tint factor
+	 * @param green             the green tint factor
+	 * @param blue              the blue tint factor
+	 * @param lightmap          the per-vertex light
+	 * @param packedOverlay     the packed overlay
+	 * @param readExistingColor whether the quad colors are multiplied in
+	 * @return the per-vertex brightness
+	 * @since 6.1.0
+	 */
+	@ModifyArg(method = "putQuadData(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;FFFFIIIII)V",
+	           at = @At(value = "INVOKE",
+	                    target = "Lcom/mojang/blaze3d/vertex/VertexConsumer;putBulkData(Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;[FFFF[IIZ)V"),
+	           index = 2)
+	private float[] applyNormalShade(final PoseStack.Pose pose,
+	        final BakedQuad quad,
+	        final float[] brightness,
+	        final float red,
+	        final float green,
+	        final float blue,
+	        final int[] lightmap,
+	        final int packedOverlay,
+	        final boolean readExistingColor) {
+		if (!((BakedQuadAccessor) quad).getBakedShade())
+			return brightness;
+
+		final var normalShade = ShadingHooks.getNormalShade(quad, TESSELATED_STATE.get());
+
+		if (normalShade == 1.0F)
+			return brightness;
+
+		for (var i = 0; i < brightness.length; i++)
+			brightness[i] *= normalShade;
+
+		return brightness;
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link BakedQuad#isShade()} in
+	 * {@code ModelBlockRenderer.renderModelFaceAO(BlockAndTintGetter, BlockState, BlockPos, PoseStack, VertexConsumer, List, float[], BitSet, AmbientOcclusionFace, int)}.
+	 * <p>
+	 * Returns whether the quad was baked shaded, as the model was already
+	 * {@linkplain #changeModel(BakedModel, BlockAndTintGetter, BakedModel, BlockState, BlockPos, PoseStack, VertexConsumer)
+	 * swapped} for the block state, unless the terrain shaders shade it or it is
+	 * {@linkplain #applyNormalShade(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)
+	 * shaded from its normal} instead. Quads of models without an unshaded
+	 * variant are still only shaded if the block state is. The snapshot is read
+	 * once, and only for quads baked shaded.
+	 *
+	 * @param quad      the quad
+	 * @param level     the level
+	 * @param state     the block state
+	 * @param pos       the block position
+	 * @param poseStack the pose stack
+	 * @param consumer  the vertex consumer
+	 * @return whether the quad is shaded while meshing
+	 */
+	@Redirect(method = "renderModelFaceAO(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;Ljava/util/List;[FLjava/util/BitSet;Lnet/minecraft/client/renderer/block/ModelBlockRenderer$AmbientOcclusionFace;I)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lnet/minecraft/client/renderer/block/model/BakedQuad;isShade()Z"))
+	private final boolean changeShadeAO(final BakedQuad quad,
+	        final BlockAndTintGetter level,
+	        final BlockState state,
+	        final BlockPos pos,
+	        final PoseStack poseStack,
+	        final VertexConsumer consumer) {
+		return ((BakedQuadAccessor) quad).getBakedShade()
+		        && isQuadShaded(SimplyNoShading.getFirstInstance().getSnapshot(), quad, state, consumer);
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link BakedQuad#isShade()} in
+	 * {@code ModelBlockRenderer.renderModelFaceFlat(BlockAndTintGetter, BlockState, BlockPos, int, int, boolean, PoseStack, VertexConsumer, List, BitSet)}.
+	 * <p>
+	 * Returns whether the quad was baked shaded, as the model was already
+	 * {@linkplain #changeModel(BakedModel, BlockAndTintGetter, BakedModel, BlockState, BlockPos, PoseStack, VertexConsumer)
+	 * swapped} for the block state, unless the terrain shaders shade it or it is
+	 * {@linkplain #applyNormalShade(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)
+	 * shaded from its normal} instead. Quads of models without an unshaded
+	 * variant are still only shaded if the block state is. The snapshot is read
+	 * once, and only for quads baked shaded.
+	 *
+	 * @param quad          the quad
+	 * @param level         the level
+	 * @param state         the block state
+	 * @param pos           the block position
+	 * @param packedLight   the packed light
+	 * @param packedOverlay the packed overlay
+	 * @param repackLight   whether the light is computed per face
+	 * @param poseStack     the pose stack
+	 * @param consumer      the vertex consumer
+	 * @return whether the quad is shaded while meshing
+	 */
+	@Redirect(method = "renderModelFaceFlat(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;IIZLcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;Ljava/util/List;Ljava/util/BitSet;)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lnet/minecraft/client/renderer/block/model/BakedQuad;isShade()Z"))
+	private final boolean changeShadeFlat(final BakedQuad quad,
+	        final BlockAndTintGetter level,
+	        final BlockState state,
+	        final BlockPos pos,
+	        final int packedLight,
+	        final int packedOverlay,
+	        final boolean repackLight,
+	        final PoseStack poseStack,
+	        final VertexConsumer consumer) {
+		return ((BakedQuadAccessor) quad).getBakedShade()
+		        && isQuadShaded(SimplyNoShading.getFirstInstance().getSnapshot(), quad, state, consumer);
+	}
+
+	/**
+	 * This is a {@linkplain ModifyVariable variable modifier} that modifies the
+	 * parameter {@code model} in
+	 * {@code ModelBlockRenderer.tesselateBlock(BlockAndTintGetter, BakedModel, BlockState, BlockPos, PoseStack, VertexConsumer, boolean, RandomSource, long, int)}.
+	 * <p>
+	 * Returns the model when the block state
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded} or when the
+	 * terrain shaders shade it; its
+	 * {@linkplain UnshadedModels#unshadedVariantOf(BakedModel) unshaded variant}
+	 * otherwise. Shading is thereby decided once per block rather than once per
+	 * quad. The model, before any swap, is also handed to the
+	 * {@linkplain SectionContentGatherer content gatherer} of the compiling
+	 * section, if any, and the block state is kept for the quads shaded from
+	 * their normal.
+	 *
+	 * @param model         the model
+	 * @param level         the level
+	 * @param originalModel the model, as passed
+	 * @param state         the block state
+	 * @param pos           the block position
+	 * @param poseStack     the pose stack
+	 * @param consumer      the vertex consumer
+	 * @return the model or its unshaded variant
+	 */
+	@ModifyVariable(method = "tesselateBlock(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/client/resources/model/BakedModel;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;ZLnet/minecraft/util/RandomSource;JI)V",
+	                at = @At("HEAD"),
+	                argsOnly = true)
+	private final BakedModel changeModel(final BakedModel model,
+	        final BlockAndTintGetter level,
+	        final BakedModel originalModel,
+	        final BlockState state,
+	        final BlockPos pos,
+	        final PoseStack poseStack,
+	        final VertexConsumer consumer) {
+		final var gatherer = SectionContentGatherer.current();
+		TESSELATED_STATE.set(state);
+
+		if (gatherer != null)
+			gatherer.gatherModel(model);
+
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+
+		if (snapshot.isBlockShaded(state) || isShadedByShaders(snapshot, consumer))
+			return model;
+		else
+			return UnshadedModels.unshadedVariantOf(model);
+	}
+
+	/**
+	 * This is a {@linkplain ModifyVariable variable modifier} that modifies the
+	 * parameter {@code model} in
+	 * {@code ModelBlockRenderer.renderModel(PoseStack.Pose, VertexConsumer, BlockState, BakedModel, float, float, float, int, int)},
+	 * which draws single blocks outside of the level, such as those carried by
+	 * minecarts and endermen.
+	 * <p>
+	 * Returns the model when the block state
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded}, or when
+	 * {@linkplain Config#isBlockShadingEnabled() block shading is enabled} if
+	 * there is no block state; its
+	 * {@linkplain UnshadedModels#unshadedVariantOf(BakedModel) unshaded variant}
+	 * otherwise. Shading is thereby decided once per block drawn, and every
+	 * {@code BakedQuad.isShade()} call on its quads, made by renderers converting
+	 * them rather than by vanilla, is answered from the baked value.
+	 *
+	 * @param model    the model
+	 * @param pose     the pose
+	 * @param consumer the vertex consumer
+	 * @param state    the block state, possibly {@code null}
+	 * @return the model or its unshaded variant
+	 */
+	@ModifyVariable(method = "renderModel(Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/client/resources/model/BakedModel;FFFII)V",
+	                at = @At("HEAD"),
+	                argsOnly = true)
+	private final BakedModel changeSingleBlockModel(final BakedModel model,
+	        final PoseStack.Pose pose,
+	        final VertexConsumer consumer,
+	        final BlockState state) {
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+		final var shaded = state != null ? snapshot.isBlockShaded(state) : snapshot.activeConfig.isBlockShadingEnabled();
+
+		if (shaded)
+			return model;
+		else
+			return UnshadedModels.unshadedVariantOf(model);
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code after
+	 * every call to
+	 * {@code VertexConsumer.putBulkData(PoseStack.Pose, BakedQuad, float[], float, float, float, int[], int, boolean)}
+	 * in
+	 * {@code ModelBlockRenderer.putQuadData(BlockAndTintGetter, BlockState, BlockPos, VertexConsumer, PoseStack.Pose, BakedQuad, float, float, float, float, int, int, int, int, int)}.
+	 * <p>
+	 * {@linkplain TerrainShaders#markLastQuad(VertexConsumer, byte) Marks} the
+	 * quad just written when it was baked shaded and the terrain shaders shade it.
+	 *
+	 * @param level         the level
+	 * @param state         the block state
+	 * @param pos           the block position
+	 * @param consumer      the vertex consumer
+	 * @param pose          the pose
+	 * @param quad          the quad
+	 * @param brightness0   the brightness of the first vertex
+	 * @param brightness1   the brightness of the second vertex
+	 * @param brightness2   the brightness of the third vertex
+	 * @param brightness3   the brightness of the fourth vertex
+	 * @param lightmap0     the light of the first vertex
+	 * @param lightmap1     the light of the second vertex
+	 * @param lightmap2     the light of the third vertex
+	 * @param lightmap3     the light of the fourth vertex
+	 * @param packedOverlay the packed overlay
+	 * @param callback      the callback
+	 */
+	@Inject(method = "putQuadData(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/VertexConsumer;Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;FFFFIIIII)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lcom/mojang/blaze3d/vertex/VertexConsumer;putBulkData(Lcom/mojang/blaze3d/vertex/PoseStack$Pose;Lnet/minecraft/client/renderer/block/model/BakedQuad;[FFFF[IIZ)V",
+	                 shift = At.Shift.AFTER))
+	private void markShadedQuad(final BlockAndTintGetter level,
+	        final BlockState state,
+	        final BlockPos pos,
+	        final VertexConsumer consumer,
+	        final PoseStack.Pose pose,
+	        final BakedQuad quad,
+	        final float brightness0,
+	        final float brightness1,
+	        final float brightness2,
+	        final float brightness3,
+	        final int lightmap0,
+	        final int lightmap1,
+	        final int lightmap2,
+	        final int lightmap3,
+	        final int packedOverlay,
+	        final CallbackInfo callback) {
+		if (!((BakedQuadAccessor) quad).getBakedShade())
+			return;
+
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+
+		if (!isShadedByShaders(snapshot, consumer))
+			return;
+
+		final var exempt = snapshot.isBlockShadingExempt(state);
+		TerrainShaders.markLastQuad(consumer, exempt ? TerrainShaders.EXEMPT_MARK : TerrainShaders.SHADED_MARK);
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link Minecraft#useAmbientOcclusion()} in
+	 * {@code ModelBlockRenderer.tesselateBlock(BlockAndTintGetter, BakedModel, BlockState, BlockPos, PoseStack, VertexConsumer, boolean, RandomSource, long, int)}.
+	 * <p>
+	 * Returns {@code false} when {@linkplain Config#isFlatLightingEnabled() flat
+	 * lighting is enabled}, sending the block through the flat path without
+	 * sampling the light and occlusion of its neighbors; the video setting
+	 * otherwise.
+	 *
+	 * @return {@code false} when flat lighting is enabled; the video setting
+	 *         otherwise
+	 */
+	@Redirect(method = "tesselateBlock(Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/client/resources/model/BakedModel;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/core/BlockPos;Lcom/mojang/blaze3d/vertex/PoseStack;Lcom/mojang/blaze3d/vertex/VertexConsumer;ZLnet/minecraft/util/RandomSource;JI)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lnet/minecraft/client/Minecraft;useAmbientOcclusion()Z"))
+	private boolean skipAmbientOcclusion() {
+		if (SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isFlatLightingEnabled())
+			return false;
+		else
+			return Minecraft.useAmbientOcclusion();
+	}
+}
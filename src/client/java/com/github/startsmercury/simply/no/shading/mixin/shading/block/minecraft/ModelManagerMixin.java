@@ -0,0 +1,61 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.util.Map;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.UnshadedModels;
+
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.ModelManager;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * The {@code ModelManagerMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link ModelManager} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ModelManager.class)
+public class ModelManagerMixin {
+	/**
+	 * The top level baked models.
+	 */
+	@Shadow
+	private Map<ResourceLocation, BakedModel> bakedRegistry;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ModelManagerMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the end
+	 * of {@code ModelManager.apply(ModelManager.ReloadState, ProfilerFiller)}.
+	 * <p>
+	 * {@linkplain UnshadedModels#bake(java.util.Collection) Bakes} the unshaded
+	 * variants of the newly baked models, and logs how long it took. The cached
+	 * section meshes are discarded, as they were meshed from the old models.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "apply(Lnet/minecraft/client/resources/model/ModelManager$ReloadState;Lnet/minecraft/util/profiling/ProfilerFiller;)V",
+	        at = @At("TAIL"))
+	private void bakeUnshadedVariants(final CallbackInfo callback) {
+		SimplyNoShading.getFirstInstance().getMeshCache().clear();
+
+		final var start = System.nanoTime();
+		final var count = UnshadedModels.bake(this.bakedRegistry.values());
+		final var millis = (System.nanoTime() - start) / 1_000_000.0;
+
+		SimplyNoShading.LOGGER.info("Baked " + count + " unshaded variant(s) of " + this.bakedRegistry.size()
+		        + " model(s) in " + millis + " ms");
+	}
+}
@@ -0,0 +1,30 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.MultiPartBakedModel;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code MultiPartBakedModelAccessor} is an accessor
+ * {@linkplain Mixin mixin} interface for the {@link MultiPartBakedModel} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(MultiPartBakedModel.class)
+public interface MultiPartBakedModelAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code MultiPartBakedModel.selectors}.
+	 *
+	 * @return the part selectors and their models
+	 */
+	@Accessor("selectors")
+	List<Pair<Predicate<BlockState>, BakedModel>> getSelectors();
+}
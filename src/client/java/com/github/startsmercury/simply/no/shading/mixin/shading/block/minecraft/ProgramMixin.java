@@ -0,0 +1,58 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.preprocessor.GlslPreprocessor;
+import com.mojang.blaze3d.shaders.Program;
+
+/**
+ * The {@code ProgramMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link Program} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(Program.class)
+public class ProgramMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ProgramMixin() {
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link GlStateManager#glShaderSource(int, List)} in
+	 * {@code Program.compileShaderInternal(Program.Type, String, InputStream, String, GlslPreprocessor)}.
+	 * <p>
+	 * Passes the source {@linkplain TerrainShaders#patchSource(Program.Type, String, List)
+	 * patched} when it is a terrain vertex program.
+	 *
+	 * @param shader       the shader object
+	 * @param source       the preprocessed source
+	 * @param type         the program type
+	 * @param name         the program name
+	 * @param stream       the source stream
+	 * @param sourceName   the name of the pack providing the source
+	 * @param preprocessor the preprocessor
+	 */
+	@Redirect(method = "compileShaderInternal(Lcom/mojang/blaze3d/shaders/Program$Type;Ljava/lang/String;Ljava/io/InputStream;Ljava/lang/String;Lcom/mojang/blaze3d/preprocessor/GlslPreprocessor;)I",
+	          at = @At(value = "INVOKE",
+	                   target = "Lcom/mojang/blaze3d/platform/GlStateManager;glShaderSource(ILjava/util/List;)V"))
+	private static void patchTerrainSource(final int shader,
+	        final List<String> source,
+	        final Program.Type type,
+	        final String name,
+	        final InputStream stream,
+	        final String sourceName,
+	        final GlslPreprocessor preprocessor) {
+		GlStateManager.glShaderSource(shader, TerrainShaders.patchSource(type, name, source));
+	}
+}
@@ -0,0 +1,64 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+import com.mojang.blaze3d.shaders.Uniform;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.server.packs.resources.ResourceProvider;
+
+/**
+ * The {@code ShaderInstanceMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link ShaderInstance} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(ShaderInstance.class)
+public class ShaderInstanceMixin {
+	/**
+	 * The uniforms of the shader, as declared by its definition.
+	 */
+	@Shadow
+	@Final
+	private List<Uniform> uniforms;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private ShaderInstanceMixin() {
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * every call to {@code ShaderInstance.updateLocations()} in
+	 * {@link ShaderInstance#ShaderInstance(ResourceProvider, String, VertexFormat)}.
+	 * <p>
+	 * {@linkplain TerrainShaders#addUniforms(ShaderInstance, String, List) Adds}
+	 * the uniforms of the patched terrain shaders, so that their locations are
+	 * looked up along the declared ones.
+	 *
+	 * @param resourceProvider the resource provider
+	 * @param name             the name of the shader
+	 * @param vertexFormat     the vertex format
+	 * @param callback         the callback
+	 */
+	@Inject(method = "<init>(Lnet/minecraft/server/packs/resources/ResourceProvider;Ljava/lang/String;Lcom/mojang/blaze3d/vertex/VertexFormat;)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lnet/minecraft/client/renderer/ShaderInstance;updateLocations()V"))
+	private void addTerrainUniforms(final ResourceProvider resourceProvider,
+	        final String name,
+	        final VertexFormat vertexFormat,
+	        final CallbackInfo callback) {
+		TerrainShaders.addUniforms((ShaderInstance) (Object) this, name, this.uniforms);
+	}
+}
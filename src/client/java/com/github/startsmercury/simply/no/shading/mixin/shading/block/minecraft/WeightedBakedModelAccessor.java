@@ -0,0 +1,28 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.WeightedBakedModel;
+import net.minecraft.util.random.WeightedEntry;
+
+/**
+ * The {@code WeightedBakedModelAccessor} is an accessor {@linkplain Mixin mixin}
+ * interface for the {@link WeightedBakedModel} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(WeightedBakedModel.class)
+public interface WeightedBakedModelAccessor {
+	/**
+	 * This is an {@linkplain Accessor accessor} for getting the field
+	 * {@code WeightedBakedModel.list}.
+	 *
+	 * @return the weighted models
+	 */
+	@Accessor("list")
+	List<WeightedEntry.Wrapper<BakedModel>> getList();
+}
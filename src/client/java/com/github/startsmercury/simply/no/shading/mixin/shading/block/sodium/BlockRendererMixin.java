@@ -0,0 +1,115 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.mixin.shading.block.minecraft.BakedQuadAccessor;
+
+import me.jellysquid.mods.sodium.client.model.light.LightMode;
+import me.jellysquid.mods.sodium.client.model.light.data.QuadLightData;
+import me.jellysquid.mods.sodium.client.model.quad.ModelQuadView;
+import me.jellysquid.mods.sodium.client.render.chunk.compile.pipeline.BlockRenderer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * The {@code BlockRendererMixin} is a {@linkplain Mixin mixin} class for the
+ * {@link BlockRenderer} class. Sodium lights quads without going through
+ * {@code ModelBlockRenderer}, so the block shading exemptions are applied here
+ * to the shade flag every quad is lit with.
+ *
+ * @since 6.1.0
+ */
+@Mixin(BlockRenderer.class)
+public class BlockRendererMixin {
+	/**
+	 * The block state being rendered, so that
+	 * {@link #changeShade(ModelQuadView, BlockPos, QuadLightData, Direction, Direction, boolean)}
+	 * can check it. Each compile worker thread has its own renderer.
+	 */
+	@Unique
+	private BlockState renderedState;
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private BlockRendererMixin() {
+	}
+
+	/**
+	 * This is a {@linkplain ModifyArg argument modifier} that modifies the
+	 * argument {@code shade} passed to
+	 * {@code LightPipeline.calculate(ModelQuadView, BlockPos, QuadLightData, Direction, Direction, boolean)}
+	 * in {@code BlockRenderer.renderQuadList}.
+	 * <p>
+	 * Returns whether the quad was baked shaded and the block state being
+	 * rendered {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded}.
+	 * The level only keeps faces flat when no block can be shaded at all, so this
+	 * is what leaves exempted blocks unshaded while block shading is enabled, and
+	 * shades them while it is disabled.
+	 *
+	 * @param quad      the quad
+	 * @param pos       the block position
+	 * @param out       the light data
+	 * @param cullFace  the cull face
+	 * @param lightFace the light face
+	 * @param shade     whether the quad is shaded
+	 * @return whether the quad is shaded while meshing
+	 */
+	@ModifyArg(method = "renderQuadList",
+	           at = @At(value = "INVOKE",
+	                    target = "Lme/jellysquid/mods/sodium/client/model/light/LightPipeline;calculate(Lme/jellysquid/mods/sodium/client/model/quad/ModelQuadView;Lnet/minecraft/core/BlockPos;Lme/jellysquid/mods/sodium/client/model/light/data/QuadLightData;Lnet/minecraft/core/Direction;Lnet/minecraft/core/Direction;Z)V"),
+	           index = 5)
+	private final boolean changeShade(final ModelQuadView quad,
+	        final BlockPos pos,
+	        final QuadLightData out,
+	        final Direction cullFace,
+	        final Direction lightFace,
+	        final boolean shade) {
+		final var bakedShade = quad instanceof final BakedQuad bakedQuad
+		        ? ((BakedQuadAccessor) bakedQuad).getBakedShade()
+		        : shade;
+
+		return bakedShade && SimplyNoShading.getFirstInstance().getSnapshot().isBlockShaded(this.renderedState);
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@code BlockRenderer.getLightingMode(BlockState, BakedModel)}.
+	 * <p>
+	 * Keeps the block state for
+	 * {@link #changeShade(ModelQuadView, BlockPos, QuadLightData, Direction, Direction, boolean)},
+	 * as the lighting mode is asked for once per block before any of its quads
+	 * is lit. Then returns {@link LightMode#FLAT} right away when
+	 * {@linkplain Config#isFlatLightingEnabled() flat lighting is enabled}, so
+	 * that the block is lit by the flat pipeline without sampling the light and
+	 * occlusion of its neighbors.
+	 *
+	 * @param state    the block state
+	 * @param model    the model
+	 * @param callback the callback
+	 */
+	@Inject(method = "getLightingMode",
+	        at = @At("HEAD"),
+	        cancellable = true,
+	        remap = false)
+	private void forceFlatLighting(final BlockState state,
+	        final BakedModel model,
+	        final CallbackInfoReturnable<LightMode> callback) {
+		this.renderedState = state;
+
+		if (SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isFlatLightingEnabled())
+			callback.setReturnValue(LightMode.FLAT);
+	}
+}
@@ -0,0 +1,81 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+
+import me.jellysquid.mods.sodium.client.model.light.data.QuadLightData;
+import me.jellysquid.mods.sodium.client.model.light.flat.FlatLightPipeline;
+import me.jellysquid.mods.sodium.client.model.quad.ModelQuadView;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockAndTintGetter;
+
+/**
+ * The {@code FlatLightPipelineMixin} is a {@linkplain Mixin mixin} class for
+ * the {@link FlatLightPipeline} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(FlatLightPipeline.class)
+public class FlatLightPipelineMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private FlatLightPipelineMixin() {
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link BlockAndTintGetter#getShade(Direction, boolean)} in
+	 * {@code FlatLightPipeline.calculate(ModelQuadView, BlockPos, QuadLightData, Direction, Direction, boolean)}.
+	 * <p>
+	 * Returns {@code 1.0f} without asking the level when the snapshot is
+	 * {@linkplain ShadingSnapshot#isDiffuseFree() diffuse-free}. Shaded quads
+	 * {@linkplain ShadingSnapshot#getNormalIndex(Object) shaded from their
+	 * normal} get the unshaded shade from the level multiplied by the
+	 * {@linkplain ShadingSnapshot#getNormalShade(int) brightness factor of their
+	 * normal}. Other quads get the shade from the level.
+	 *
+	 * @param level     the level
+	 * @param direction the face direction
+	 * @param shade     the shade
+	 * @param quad      the quad
+	 * @param pos       the block position
+	 * @param out       the light data
+	 * @param cullFace  the cull face
+	 * @param lightFace the light face
+	 * @param shadeQuad whether the quad is shaded
+	 * @return {@code 1.0f} when the snapshot is diffuse-free; the shade of the
+	 *         quad otherwise
+	 */
+	@Redirect(method = "calculate(Lme/jellysquid/mods/sodium/client/model/quad/ModelQuadView;Lnet/minecraft/core/BlockPos;Lme/jellysquid/mods/sodium/client/model/light/data/QuadLightData;Lnet/minecraft/core/Direction;Lnet/minecraft/core/Direction;Z)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lnet/minecraft/world/level/BlockAndTintGetter;getShade(Lnet/minecraft/core/Direction;Z)F"))
+	private final float changeShade(final BlockAndTintGetter level,
+	        final Direction direction,
+	        final boolean shade,
+	        final ModelQuadView quad,
+	        final BlockPos pos,
+	        final QuadLightData out,
+	        final Direction cullFace,
+	        final Direction lightFace,
+	        final boolean shadeQuad) {
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+
+		if (snapshot.isDiffuseFree())
+			return 1.0F;
+
+		final var normalIndex = shade ? snapshot.getNormalIndex(quad) : QuadNormals.AXIS_ALIGNED;
+
+		if (normalIndex == QuadNormals.AXIS_ALIGNED)
+			return level.getShade(direction, shade);
+		else
+			return level.getShade(direction, false) * snapshot.getNormalShade(normalIndex);
+	}
+}
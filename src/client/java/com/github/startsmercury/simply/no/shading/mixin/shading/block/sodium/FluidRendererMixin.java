@@ -4,10 +4,18 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
 
-import com.github.startsmercury.simply.no.shading.client.Config;
-import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 
+import me.jellysquid.mods.sodium.client.model.light.LightPipeline;
+import me.jellysquid.mods.sodium.client.model.quad.ModelQuadView;
+import me.jellysquid.mods.sodium.client.model.quad.blender.ColorSampler;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.pipeline.FluidRenderer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
 
 /**
  * The {@code FluidRendererMixin} is a {@linkplain Mixin mixin} class for the
@@ -29,23 +37,34 @@ public class FluidRendererMixin {
 	 * parameter {@code brightness} in
 	 * {@code FluidRenderer.updateQuad(ModelQuadView, BlockAndTintGetter, BlockPos, LightPipeline, Direction, float, ColorSampler, FluidState)}.
 	 * <p>
-	 * Returns the {@code brightness} when {@linkplain Config#blockShadingEnabled
-	 * block shading is enabled}; {@code 1.0f} otherwise.
+	 * Returns the {@linkplain ShadingSnapshot#getShadeFactor(Direction) configured
+	 * brightness factor} of the face direction when the block state of the fluid
+	 * {@linkplain ShadingSnapshot#isBlockShaded(BlockState) is shaded};
+	 * {@code 1.0f} otherwise.
 	 *
-	 * @param brightness the brightness
-	 * @return the block{@code brightness} when
-	 *         {@linkplain Config#blockShadingEnabled block shading is enabled};
-	 *         {@code 1.0f} otherwise
+	 * @param brightness   the brightness
+	 * @param quad         the quad
+	 * @param world        the world
+	 * @param pos          the block position
+	 * @param lighter      the light pipeline
+	 * @param direction    the face direction
+	 * @param original     the brightness, as passed
+	 * @param colorSampler the color sampler
+	 * @param fluidState   the fluid state
+	 * @return the brightness factor of the face direction
 	 */
 	@ModifyVariable(method = "updateQuad(Lme/jellysquid/mods/sodium/client/model/quad/ModelQuadView;Lnet/minecraft/world/level/BlockAndTintGetter;Lnet/minecraft/core/BlockPos;Lme/jellysquid/mods/sodium/client/model/light/LightPipeline;Lnet/minecraft/core/Direction;FLme/jellysquid/mods/sodium/client/model/quad/blender/ColorSampler;Lnet/minecraft/world/level/material/FluidState;)V",
 	                at = @At("HEAD"),
 	                argsOnly = true)
-	private final float changeShade(final float brightness) {
-		final var blockShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().blockShadingEnabled;
-
-		if (blockShadingEnabled)
-			return brightness;
-		else
-			return 1.0F;
+	private final float changeShade(final float brightness,
+	        final ModelQuadView quad,
+	        final BlockAndTintGetter world,
+	        final BlockPos pos,
+	        final LightPipeline lighter,
+	        final Direction direction,
+	        final float original,
+	        final ColorSampler<FluidState> colorSampler,
+	        final FluidState fluidState) {
+		return ShadingHooks.getFluidShade(direction, fluidState.createLegacyBlock());
 	}
 }
@@ -0,0 +1,102 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading.block.sodium;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.QuadNormals;
+
+import me.jellysquid.mods.sodium.client.model.light.data.QuadLightData;
+import me.jellysquid.mods.sodium.client.model.light.smooth.SmoothLightPipeline;
+import me.jellysquid.mods.sodium.client.model.quad.ModelQuadView;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+/**
+ * The {@code SmoothLightPipelineMixin} is a {@linkplain Mixin mixin} class for
+ * the {@link SmoothLightPipeline} class.
+ *
+ * @since 6.1.0
+ */
+@Mixin(SmoothLightPipeline.class)
+public class SmoothLightPipelineMixin {
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private SmoothLightPipelineMixin() {
+	}
+
+	/**
+	 * Multiplies the brightness of every vertex by the shade of the face.
+	 *
+	 * @param out   the light data
+	 * @param face  the face direction
+	 * @param shade whether the face is shaded
+	 */
+	@Shadow
+	private void applySidedBrightness(final QuadLightData out, final Direction face, final boolean shade) {
+		throw new AssertionError();
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@code SmoothLightPipeline.applySidedBrightness(QuadLightData, Direction, boolean)}
+	 * in
+	 * {@code SmoothLightPipeline.calculate(ModelQuadView, BlockPos, QuadLightData, Direction, Direction, boolean)}.
+	 * <p>
+	 * Skips the per-vertex multiply when the snapshot is
+	 * {@linkplain ShadingSnapshot#isDiffuseFree() diffuse-free}, as it would only
+	 * multiply by {@code 1.0f}. Shaded quads
+	 * {@linkplain ShadingSnapshot#getNormalIndex(Object) shaded from their
+	 * normal} are brightened as unshaded, then multiplied by the
+	 * {@linkplain ShadingSnapshot#getNormalShade(int) brightness factor of their
+	 * normal}. Other quads are brightened as usual.
+	 *
+	 * @param pipeline  the pipeline, which is also {@code this}
+	 * @param out       the light data
+	 * @param face      the face direction
+	 * @param shade     whether the face is shaded
+	 * @param quad      the quad
+	 * @param pos       the block position
+	 * @param quadOut   the light data of the quad, same as {@code out}
+	 * @param cullFace  the cull face
+	 * @param lightFace the light face
+	 * @param shadeQuad whether the quad is shaded
+	 */
+	@Redirect(method = "calculate(Lme/jellysquid/mods/sodium/client/model/quad/ModelQuadView;Lnet/minecraft/core/BlockPos;Lme/jellysquid/mods/sodium/client/model/light/data/QuadLightData;Lnet/minecraft/core/Direction;Lnet/minecraft/core/Direction;Z)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lme/jellysquid/mods/sodium/client/model/light/smooth/SmoothLightPipeline;applySidedBrightness(Lme/jellysquid/mods/sodium/client/model/light/data/QuadLightData;Lnet/minecraft/core/Direction;Z)V"))
+	private final void skipSidedBrightness(final SmoothLightPipeline pipeline,
+	        final QuadLightData out,
+	        final Direction face,
+	        final boolean shade,
+	        final ModelQuadView quad,
+	        final BlockPos pos,
+	        final QuadLightData quadOut,
+	        final Direction cullFace,
+	        final Direction lightFace,
+	        final boolean shadeQuad) {
+		final var snapshot = SimplyNoShading.getFirstInstance().getSnapshot();
+
+		if (snapshot.isDiffuseFree())
+			return;
+
+		final var normalIndex = shade ? snapshot.getNormalIndex(quad) : QuadNormals.AXIS_ALIGNED;
+
+		if (normalIndex == QuadNormals.AXIS_ALIGNED) {
+			applySidedBrightness(out, face, shade);
+			return;
+		}
+
+		applySidedBrightness(out, face, false);
+
+		final var normalShade = snapshot.getNormalShade(normalIndex);
+
+		for (var i = 0; i < out.br.length; i++)
+			out.br[i] *= normalShade;
+	}
+}
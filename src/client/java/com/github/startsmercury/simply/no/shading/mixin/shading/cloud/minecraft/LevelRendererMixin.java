@@ -1,13 +1,30 @@
 package com.github.startsmercury.simply.no.shading.mixin.shading.cloud.minecraft;
 
+import java.util.List;
+
+import org.joml.Matrix4f;
+import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Constant;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyConstant;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.CloudFace;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.CloudGeometryCache;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
 
+import net.minecraft.client.CloudStatus;
 import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.world.phys.Vec3;
 
 /**
  * The {@code LevelRendererMixin} is a {@linkplain Mixin mixin} class for the
@@ -17,6 +34,60 @@ import net.minecraft.client.renderer.LevelRenderer;
  */
 @Mixin(LevelRenderer.class)
 public class LevelRendererMixin {
+	/**
+	 * The time the clouds started being built, in nanoseconds.
+	 */
+	@Unique
+	private long cloudBuildStartNanos;
+
+	/**
+	 * The key of the cloud state being built.
+	 */
+	@Unique
+	private List<Object> cloudKey;
+
+	/**
+	 * The buffer holding the cloud geometry.
+	 */
+	@Shadow
+	private VertexBuffer cloudBuffer;
+
+	/**
+	 * Whether the cloud geometry is to be built on the next frame.
+	 */
+	@Shadow
+	private boolean generateClouds;
+
+	/**
+	 * The cloud color the cloud geometry was last built for.
+	 */
+	@Shadow
+	private Vec3 prevCloudColor;
+
+	/**
+	 * The render mode the cloud geometry was last built for.
+	 */
+	@Shadow
+	private CloudStatus prevCloudsType;
+
+	/**
+	 * The cloud cell x coordinate the cloud geometry was last built for.
+	 */
+	@Shadow
+	private int prevCloudX;
+
+	/**
+	 * The cloud cell y coordinate the cloud geometry was last built for.
+	 */
+	@Shadow
+	private int prevCloudY;
+
+	/**
+	 * The cloud cell z coordinate the cloud geometry was last built for.
+	 */
+	@Shadow
+	private int prevCloudZ;
+
 	/**
 	 * A private constructor that does nothing as of the writing of this
 	 * documentation.
@@ -24,20 +95,51 @@ public class LevelRendererMixin {
 	private LevelRendererMixin() {
 	}
 
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code after
+	 * every call to
+	 * {@code VertexBuffer.upload(BufferBuilder.RenderedBuffer)} in
+	 * {@code LevelRenderer.renderClouds(PoseStack, Matrix4f, float, double, double, double)}.
+	 * <p>
+	 * Hands the freshly built cloud geometry to the
+	 * {@linkplain CloudGeometryCache cloud geometry cache}.
+	 *
+	 * @param poseStack        the pose stack
+	 * @param projectionMatrix the projection matrix
+	 * @param partialTick      the partial tick
+	 * @param cameraX          the camera x coordinate
+	 * @param cameraY          the camera y coordinate
+	 * @param cameraZ          the camera z coordinate
+	 * @param callback         the callback
+	 */
+	@Inject(method = "renderClouds(Lcom/mojang/blaze3d/vertex/PoseStack;Lorg/joml/Matrix4f;FDDD)V",
+	        at = @At(value = "INVOKE",
+	                 target = "Lcom/mojang/blaze3d/vertex/VertexBuffer;upload(Lcom/mojang/blaze3d/vertex/BufferBuilder$RenderedBuffer;)V",
+	                 shift = At.Shift.AFTER))
+	private void cacheClouds(final PoseStack poseStack,
+	        final Matrix4f projectionMatrix,
+	        final float partialTick,
+	        final double cameraX,
+	        final double cameraY,
+	        final double cameraZ,
+	        final CallbackInfo callback) {
+		SimplyNoShading.getFirstInstance()
+		        .getCloudGeometryCache()
+		        .store(this.cloudKey, this.cloudBuffer, System.nanoTime() - this.cloudBuildStartNanos);
+	}
+
 	/**
 	 * This is a {@linkplain ModifyConstant constant modifier} that modifies all 1st
 	 * to 3rd float constants with the value of {@code 0.7f}, {@code 0.8f}, and
 	 * {@code 0.9f} in
 	 * {@code LevelRenderer.buildClouds(BufferBuilder, double, double, double, Vec3)}.
 	 * <p>
-	 * Returns the original float constant value when
-	 * {@linkplain Config#blockShadingEnabled block shading is enabled};
-	 * {@code 1.0f} otherwise.
+	 * Returns the {@linkplain ShadingSnapshot#getCloudShade(CloudFace) brightness
+	 * factor} of the {@linkplain CloudFace#ofVanillaBrightness(float) cloud faces
+	 * the constant dims}, a single read from the precomputed table.
 	 *
 	 * @param constantValue the constant value
-	 * @return the original float constant value when
-	 *         {@linkplain Config#blockShadingEnabled block shading is enabled};
-	 *         {@code 1.0f} otherwise
+	 * @return the brightness factor of the cloud faces the constant dims
 	 */
 	@ModifyConstant(method = "buildClouds(Lcom/mojang/blaze3d/vertex/BufferBuilder;DDDLnet/minecraft/world/phys/Vec3;)Lcom/mojang/blaze3d/vertex/BufferBuilder$RenderedBuffer;",
 	                constant = { @Constant(floatValue = 0.9f,
@@ -59,11 +161,73 @@ public class LevelRendererMixin {
 	                        @Constant(floatValue = 0.8f,
 	                                  ordinal = 2) })
 	private final float changeCloudBrightness(final float constantValue) {
-		final var cloudShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().cloudShadingEnabled;
+		return ShadingHooks.getCloudShade(constantValue);
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link VertexBuffer#close()} in
+	 * {@code LevelRenderer.renderClouds(PoseStack, Matrix4f, float, double, double, double)}.
+	 * <p>
+	 * Closes the previous cloud buffer unless the
+	 * {@linkplain CloudGeometryCache cloud geometry cache} holds it.
+	 *
+	 * @param buffer the previous cloud buffer
+	 */
+	@Redirect(method = "renderClouds(Lcom/mojang/blaze3d/vertex/PoseStack;Lorg/joml/Matrix4f;FDDD)V",
+	          at = @At(value = "INVOKE",
+	                   target = "Lcom/mojang/blaze3d/vertex/VertexBuffer;close()V"))
+	private void keepCachedClouds(final VertexBuffer buffer) {
+		if (!SimplyNoShading.getFirstInstance().getCloudGeometryCache().owns(buffer))
+			buffer.close();
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code before
+	 * {@code LevelRenderer.generateClouds} is read in
+	 * {@code LevelRenderer.renderClouds(PoseStack, Matrix4f, float, double, double, double)}.
+	 * <p>
+	 * When the clouds are about to be built, binds the cached geometry of the
+	 * same cloud state instead, if any, and skips building them.
+	 *
+	 * @param poseStack        the pose stack
+	 * @param projectionMatrix the projection matrix
+	 * @param partialTick      the partial tick
+	 * @param cameraX          the camera x coordinate
+	 * @param cameraY          the camera y coordinate
+	 * @param cameraZ          the camera z coordinate
+	 * @param callback         the callback
+	 */
+	@Inject(method = "renderClouds(Lcom/mojang/blaze3d/vertex/PoseStack;Lorg/joml/Matrix4f;FDDD)V",
+	        at = @At(value = "FIELD",
+	                 target = "Lnet/minecraft/client/renderer/LevelRenderer;generateClouds:Z",
+	                 opcode = Opcodes.GETFIELD))
+	private void reuseCachedClouds(final PoseStack poseStack,
+	        final Matrix4f projectionMatrix,
+	        final float partialTick,
+	        final double cameraX,
+	        final double cameraY,
+	        final double cameraZ,
+	        final CallbackInfo callback) {
+		if (!this.generateClouds)
+			return;
+
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var key = CloudGeometryCache.keyOf(simplyNoShading.getSnapshot().getCloudShades(),
+		        this.prevCloudsType,
+		        this.prevCloudX,
+		        this.prevCloudY,
+		        this.prevCloudZ,
+		        this.prevCloudColor);
+		final var cached = simplyNoShading.getCloudGeometryCache().lookup(key);
+
+		if (cached != null) {
+			this.cloudBuffer = cached;
+			this.generateClouds = false;
+			return;
+		}
 
-		if (cloudShadingEnabled)
-			return constantValue;
-		else
-			return 1.0f;
+		this.cloudKey = key;
+		this.cloudBuildStartNanos = System.nanoTime();
 	}
 }
@@ -1,13 +1,23 @@
 package com.github.startsmercury.simply.no.shading.mixin.shading.cloud.sodium;
 
+import java.util.List;
+
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyArg;
-import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.CloudFace;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.ShadingSnapshot;
 import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.CloudGeometryCache;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.VertexBuffer;
 
 import me.jellysquid.mods.sodium.client.render.immediate.CloudRenderer;
 
@@ -20,10 +30,37 @@ import me.jellysquid.mods.sodium.client.render.immediate.CloudRenderer;
 @Mixin(CloudRenderer.class)
 public class CloudRendererMixin {
 	/**
-	 * The cached base cloud color.
+	 * The time the clouds started being built, in nanoseconds.
+	 */
+	@Unique
+	private long buildStartNanos;
+
+	/**
+	 * The cached buffer of the cloud state being rebuilt, or {@code null} if it
+	 * is being built.
+	 */
+	@Unique
+	private VertexBuffer cachedBuffer;
+
+	/**
+	 * The {@linkplain ShadingSnapshot#getCloudShades() cloud shades} the current
+	 * geometry was built with.
+	 */
+	@Unique
+	private List<Float> cloudShades;
+
+	/**
+	 * The key of the cloud state being rebuilt.
 	 */
 	@Unique
-	private int baseColor;
+	private List<Object> key;
+
+	/**
+	 * The buffer holding the cloud geometry, or {@code null} to build it on the
+	 * next frame.
+	 */
+	@Shadow(remap = false)
+	private VertexBuffer vertexBuffer;
 
 	/**
 	 * A private constructor that does nothing as of the writing of this
@@ -33,44 +70,143 @@ public class CloudRendererMixin {
 	}
 
 	/**
-	 * This is a {@linkplain ModifyVariable variable modifier} that caches the value
-	 * of the local variable {@code baseColor} in
-	 * {@code CloudRenderer.rebuildGeometry(BufferBuilder, int, int, int)}.
-	 * <p>
-	 * Returns the parameter {@code baseColor} unmodified.
+	 * Builds the cloud geometry into the buffer builder.
 	 *
-	 * @param baseColor the base cloud color
-	 * @return the unmodified value of {@code baseColor}
+	 * @param bufferBuilder the buffer builder
+	 * @param cloudDistance the cloud distance
+	 * @param centerCellX   the cloud cell x coordinate of the camera
+	 * @param centerCellZ   the cloud cell z coordinate of the camera
 	 */
-	@ModifyVariable(method = "rebuildGeometry(Lcom/mojang/blaze3d/vertex/BufferBuilder;III)V",
-	        at = @At(value = "STORE"),
-	        name = "baseColor",
-	        allow = 1)
-	private int cacheBaseColor(final int baseColor) {
-		return this.baseColor = baseColor;
+	@Shadow(remap = false)
+	private void rebuildGeometry(final BufferBuilder bufferBuilder,
+	        final int cloudDistance,
+	        final int centerCellX,
+	        final int centerCellZ) {
 	}
 
 	/**
-	 * This is an {@linkplain ModifyArg argument modifier} that replaces the
-	 * {@code mixedColor} with the {@code baseColor} in
-	 * {@code CloudRenderer.rebuildGeometry(BufferBuilder, int, int, int)} if
-	 * {@linkplain Config#cloudShadingEnabled cloud shading is disabled}.
+	 * This is an {@linkplain ModifyArg argument modifier} that replaces the face
+	 * color passed to every call to {@code ColorMixer.mulARGB(int, int)} in
+	 * {@code CloudRenderer.rebuildGeometry(BufferBuilder, int, int, int)}.
+	 * <p>
+	 * Returns the {@linkplain ShadingSnapshot#getCloudFaceColor(CloudFace)
+	 * precomputed color} of the {@linkplain CloudFace#ofVanillaBrightness(float)
+	 * cloud faces the original color dims}, told apart by its red channel, or the
+	 * original color of the top faces.
 	 *
-	 * @param mixedColor the mixed cloud color
-	 * @return {@code mixedColor} when {@linkplain Config#cloudShadingEnabled cloud
-	 *         shading is enabled}; {@code baseColor} otherwise
+	 * @param faceColor the original face color
+	 * @return the precomputed color of the cloud faces; {@code faceColor} for the
+	 *         top faces
 	 */
 	@ModifyArg(method = "rebuildGeometry(Lcom/mojang/blaze3d/vertex/BufferBuilder;III)V",
 	        at = @At(value = "INVOKE",
-	                target = "Lme/jellysquid/mods/sodium/client/render/immediate/CloudRenderer;writeVertex(JFFFI)J"),
-	        index = 4,
+	                target = "Lme/jellysquid/mods/sodium/client/util/color/ColorMixer;mulARGB(II)I"),
+	        index = 1,
+	        remap = false)
+	private int changeFaceColor(final int faceColor) {
+		return ShadingHooks.getCloudFaceColor(faceColor);
+	}
+
+	/**
+	 * This is an {@linkplain Inject injector} that runs additional code at the
+	 * start of {@code CloudRenderer.render}.
+	 * <p>
+	 * Drops the current cloud geometry when the cloud shades changed, or when
+	 * the {@linkplain CloudGeometryCache cloud geometry cache} was cleared and
+	 * closed it, so that the clouds are rebuilt, or taken from the cache, this
+	 * frame.
+	 *
+	 * @param callback the callback
+	 */
+	@Inject(method = "render",
+	        at = @At("HEAD"),
 	        remap = false)
-	private int undoColorMixing(final int mixedColor) {
-		final var cloudShadingEnabled = SimplyNoShading.getFirstInstance().getConfig().cloudShadingEnabled;
+	private void invalidateOutdatedGeometry(final CallbackInfo callback) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+
+		if (this.vertexBuffer == null)
+			return;
+
+		if (!simplyNoShading.getSnapshot().getCloudShades().equals(this.cloudShades)
+		        || !simplyNoShading.getCloudGeometryCache().owns(this.vertexBuffer))
+			this.vertexBuffer = null;
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@code CloudRenderer.rebuildGeometry(BufferBuilder, int, int, int)} in
+	 * {@code CloudRenderer.render}.
+	 * <p>
+	 * Looks up the cloud state in the {@linkplain CloudGeometryCache cloud
+	 * geometry cache}, and only builds the geometry when it is not cached.
+	 *
+	 * @param renderer      the cloud renderer
+	 * @param bufferBuilder the buffer builder
+	 * @param cloudDistance the cloud distance
+	 * @param centerCellX   the cloud cell x coordinate of the camera
+	 * @param centerCellZ   the cloud cell z coordinate of the camera
+	 */
+	@Redirect(method = "render",
+	          at = @At(value = "INVOKE",
+	                   target = "Lme/jellysquid/mods/sodium/client/render/immediate/CloudRenderer;rebuildGeometry(Lcom/mojang/blaze3d/vertex/BufferBuilder;III)V"))
+	private void rebuildOrReuseGeometry(final CloudRenderer renderer,
+	        final BufferBuilder bufferBuilder,
+	        final int cloudDistance,
+	        final int centerCellX,
+	        final int centerCellZ) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+
+		this.cloudShades = simplyNoShading.getSnapshot().getCloudShades();
+		this.key = CloudGeometryCache.keyOf(this.cloudShades, cloudDistance, centerCellX, centerCellZ);
+		this.cachedBuffer = simplyNoShading.getCloudGeometryCache().lookup(this.key);
+		this.buildStartNanos = System.nanoTime();
+
+		if (this.cachedBuffer == null)
+			rebuildGeometry(bufferBuilder, cloudDistance, centerCellX, centerCellZ);
+	}
+
+	/**
+	 * This is a {@linkplain Redirect redirector} that replaces all calls to
+	 * {@link VertexBuffer#upload(BufferBuilder.RenderedBuffer)} in
+	 * {@code CloudRenderer.render}.
+	 * <p>
+	 * Switches to the cached buffer of the cloud state when there is one,
+	 * discarding the empty geometry. Otherwise, uploads the built geometry into a
+	 * buffer the {@linkplain CloudGeometryCache cloud geometry cache} does not
+	 * hold yet, and hands it to the cache.
+	 *
+	 * @param buffer   the current cloud buffer, bound
+	 * @param rendered the built geometry
+	 */
+	@Redirect(method = "render",
+	          at = @At(value = "INVOKE",
+	                   target = "Lcom/mojang/blaze3d/vertex/VertexBuffer;upload(Lcom/mojang/blaze3d/vertex/BufferBuilder$RenderedBuffer;)V"))
+	private void uploadOrReuseGeometry(final VertexBuffer buffer, final BufferBuilder.RenderedBuffer rendered) {
+		final var cache = SimplyNoShading.getFirstInstance().getCloudGeometryCache();
+		final var cachedBuffer = this.cachedBuffer;
+
+		if (cachedBuffer != null) {
+			rendered.release();
+
+			if (!cache.owns(buffer))
+				buffer.close();
+
+			this.vertexBuffer = cachedBuffer;
+			this.cachedBuffer = null;
+			return;
+		}
+
+		final VertexBuffer target;
+
+		if (cache.owns(buffer)) {
+			target = new VertexBuffer();
+			target.bind();
+		} else {
+			target = buffer;
+		}
 
-		if (cloudShadingEnabled)
-			return mixedColor;
-		else
-			return this.baseColor;
+		target.upload(rendered);
+		this.vertexBuffer = target;
+		cache.store(this.key, target, System.nanoTime() - this.buildStartNanos);
 	}
 }
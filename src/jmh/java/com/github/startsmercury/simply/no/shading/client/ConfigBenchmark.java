@@ -0,0 +1,124 @@
+package com.github.startsmercury.simply.no.shading.client;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks reading the {@link Config} the way the mixins do, building and
+ * comparing configs the way config changes do, and getting the
+ * {@linkplain Config.MeshingKey meshing key} the way new snapshots do.
+ *
+ * @since 6.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5,
+             time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3,
+        time = 1)
+public class ConfigBenchmark {
+	/**
+	 * Returns the first {@code SimplyNoShading} instance, creating it first if
+	 * absent.
+	 *
+	 * @return the first {@code SimplyNoShading} instance
+	 */
+	public static SimplyNoShading getOrCreateFirstInstance() {
+		return Objects.requireNonNullElseGet(SimplyNoShading.getFirstInstance(), SimplyNoShading::new);
+	}
+
+	/**
+	 * Whether block shading is enabled during the benchmark.
+	 */
+	@Param({ "false", "true" })
+	public boolean blockShadingEnabled;
+
+	/**
+	 * The {@code SimplyNoShading} instance read from.
+	 */
+	private SimplyNoShading simplyNoShading;
+
+	/**
+	 * Builds a config from the current config without any change. Configs are
+	 * interned, so building returns the current config and allocates only the
+	 * builder.
+	 *
+	 * @return the built config
+	 */
+	@Benchmark
+	public Config buildUnchanged() {
+		return Config.builder(this.simplyNoShading.getConfig()).build();
+	}
+
+	/**
+	 * Compares a freshly built config with the current config, which are the
+	 * same instance.
+	 *
+	 * @return the comparison result
+	 */
+	@Benchmark
+	public boolean equalsUnchanged() {
+		final var config = this.simplyNoShading.getConfig();
+
+		return config.equals(Config.builder(config).build());
+	}
+
+	/**
+	 * Gets the meshing key of the current config, like every new snapshot does.
+	 * It is interned once when the config is created.
+	 *
+	 * @return the interned meshing key
+	 */
+	@Benchmark
+	public Config.MeshingKey getMeshingKey() {
+		return this.simplyNoShading.getConfig().getMeshingKey();
+	}
+
+	/**
+	 * Reads the block shading flag through the first instance, like the block
+	 * shading mixins do.
+	 *
+	 * @return the block shading flag
+	 */
+	@Benchmark
+	public boolean readBlockShadingEnabled() {
+		return SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isBlockShadingEnabled();
+	}
+
+	/**
+	 * Reads the cloud shading flag through the first instance, like the cloud
+	 * shading mixins do.
+	 *
+	 * @return the cloud shading flag
+	 */
+	@Benchmark
+	public boolean readCloudShadingEnabled() {
+		return SimplyNoShading.getFirstInstance().getSnapshot().activeConfig.isCloudShadingEnabled();
+	}
+
+	/**
+	 * Sets up the config used by the benchmark.
+	 */
+	@Setup
+	public void setup() {
+		this.simplyNoShading = getOrCreateFirstInstance();
+		this.simplyNoShading.setConfig(Config.builder()
+		        .setBlockShadingEnabled(this.blockShadingEnabled)
+		        .setCloudShadingEnabled(this.blockShadingEnabled)
+		        .build());
+	}
+}
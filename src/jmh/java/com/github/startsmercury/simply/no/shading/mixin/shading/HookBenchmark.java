@@ -0,0 +1,126 @@
+package com.github.startsmercury.simply.no.shading.mixin.shading;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ConfigBenchmark;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+
+import net.minecraft.core.Direction;
+
+/**
+ * Benchmarks the bodies of the shading mixin handlers outside of any mixin
+ * environment. Every handler only delegates to {@link ShadingHooks}, which is
+ * called directly, so each benchmark runs exactly what the hooked call site
+ * runs. Running with the {@code gc} profiler reports the bytes allocated per
+ * call, which is expected to be zero for every hook. Hooks that test block
+ * states or swap models for their unshaded variants rely on interfaces only
+ * implemented once mixins are applied, and are left out.
+ *
+ * @since 6.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5,
+             time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3,
+        time = 1)
+public class HookBenchmark {
+	/**
+	 * Whether block and cloud shading is enabled during the benchmark.
+	 */
+	@Param({ "false", "true" })
+	public boolean shadingEnabled;
+
+	/**
+	 * Calls {@link ShadingHooks#isQuadShaded(boolean)}, the body of the
+	 * {@code BakedQuad.isShade()} hook, for a quad baked shaded.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public boolean bakedQuadChangeReturnedShade() {
+		return ShadingHooks.isQuadShaded(true);
+	}
+
+	/**
+	 * Calls {@link ShadingHooks#getTableShade(Direction, boolean)}, the body of
+	 * the hook answering {@code BedrockBlockShading.getLiquidShade(Direction, boolean)}.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public float bedrockBlockShadingChangeLiquidShade() {
+		return ShadingHooks.getTableShade(Direction.NORTH, true);
+	}
+
+	/**
+	 * Calls {@link ShadingHooks#isFaceShaded(boolean)}, the body of the
+	 * {@code ClientLevel.getShade(Direction, boolean)} shade flag hook.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public boolean clientLevelChangeShade() {
+		return ShadingHooks.isFaceShaded(true);
+	}
+
+	/**
+	 * Calls {@link ShadingHooks#getShadeFactor(Direction)}, the body of the
+	 * {@code ClientLevel.getShade(Direction, boolean)} constant hook.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public float clientLevelChangeShadeFactor() {
+		return ShadingHooks.getShadeFactor(Direction.NORTH);
+	}
+
+	/**
+	 * Calls {@link ShadingHooks#getCloudFaceColor(int)}, the body of the Sodium
+	 * cloud face color hook.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public int cloudRendererChangeFaceColor() {
+		return ShadingHooks.getCloudFaceColor(0xFFE5E5E5);
+	}
+
+	/**
+	 * Calls {@link ShadingHooks#getCloudShade(float)}, the body of the vanilla
+	 * cloud brightness hook.
+	 *
+	 * @return the hook result
+	 */
+	@Benchmark
+	public float levelRendererChangeCloudBrightness() {
+		return ShadingHooks.getCloudShade(0.7F);
+	}
+
+	/**
+	 * Sets up the config.
+	 */
+	@Setup
+	public void setup() {
+		ConfigBenchmark.getOrCreateFirstInstance()
+		        .setConfig(Config.builder()
+		                .setBlockShadingEnabled(this.shadingEnabled)
+		                .setCloudShadingEnabled(this.shadingEnabled)
+		                .build());
+	}
+}
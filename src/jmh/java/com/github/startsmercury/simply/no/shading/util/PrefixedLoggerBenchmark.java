@@ -0,0 +1,71 @@
+package com.github.startsmercury.simply.no.shading.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Benchmarks the formatting overhead of {@link PrefixedLogger} over the logger
+ * it wraps. The wrapped logger discards everything so that only the prefixing
+ * is measured.
+ *
+ * @since 6.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5,
+             time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3,
+        time = 1)
+public class PrefixedLoggerBenchmark {
+	/**
+	 * The message argument.
+	 */
+	private final Object argument = "argument";
+
+	/**
+	 * The logger without any prefix.
+	 */
+	private final Logger plainLogger = NOPLogger.NOP_LOGGER;
+
+	/**
+	 * The logger with the same prefix as Simply No Shading's logger.
+	 */
+	private final Logger prefixedLogger = PrefixedLogger.wrapped(NOPLogger.NOP_LOGGER, "[SimplyNoShading] ");
+
+	/**
+	 * Logs a message with one argument without a prefix.
+	 */
+	@Benchmark
+	public void plainWithArgument() {
+		this.plainLogger.info("Message with {}", this.argument);
+	}
+
+	/**
+	 * Logs a message with one argument with a prefix.
+	 */
+	@Benchmark
+	public void prefixedWithArgument() {
+		this.prefixedLogger.info("Message with {}", this.argument);
+	}
+
+	/**
+	 * Logs a constant message with a prefix.
+	 */
+	@Benchmark
+	public void prefixedConstant() {
+		this.prefixedLogger.info("Constant message");
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.startsmercury.simply.no.shading.util.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Benchmarks loading and saving the {@link Config} through a
+ * {@link JsonPathStorage} configured the same way as Simply No Shading's.
+ *
+ * @since 6.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5,
+             time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3,
+        time = 1)
+public class JsonPathStorageBenchmark {
+	/**
+	 * The temporary file the config is stored in.
+	 */
+	private Path path;
+
+	/**
+	 * The storage.
+	 */
+	private Storage<Config> storage;
+
+	/**
+	 * Loads the stored config.
+	 *
+	 * @return the loaded config
+	 * @throws Exception when loading fails
+	 */
+	@Benchmark
+	public Config load() throws Exception {
+		return this.storage.load();
+	}
+
+	/**
+	 * Saves a config.
+	 *
+	 * @throws Exception when saving fails
+	 */
+	@Benchmark
+	public void save() throws Exception {
+		this.storage.save(Config.INTERNAL_SHADERS);
+	}
+
+	/**
+	 * Creates the temporary file and stores an initial config.
+	 *
+	 * @throws Exception when the file cannot be created or saved to
+	 */
+	@Setup
+	public void setup() throws Exception {
+		this.path = Files.createTempFile("simply-no-shading", ".json");
+		this.storage = new JsonPathStorage<>(this.path,
+		        new GsonBuilder().setPrettyPrinting().create(),
+		        Config.class);
+		this.storage.save(Config.INTERNAL_SHADERS);
+	}
+
+	/**
+	 * Deletes the temporary file.
+	 *
+	 * @throws Exception when the file cannot be deleted
+	 */
+	@TearDown
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(this.path);
+	}
+}
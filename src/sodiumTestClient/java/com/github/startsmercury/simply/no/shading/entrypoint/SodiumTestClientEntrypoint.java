@@ -0,0 +1,109 @@
+package com.github.startsmercury.simply.no.shading.entrypoint;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.LevelReshader;
+
+import me.jellysquid.mods.sodium.client.render.SodiumWorldRenderer;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+
+/**
+ * The {@code SodiumTestClientEntrypoint} class is the client entrypoint of the
+ * Sodium test mod. It adds the {@code /simply-no-shading-benchmark} command,
+ * which measures the section compile throughput of Sodium by recompiling every
+ * loaded section and timing until its build queue drains. Running it with block
+ * shading on and off compares the light pipeline paths.
+ *
+ * @since 6.1.0
+ */
+public class SodiumTestClientEntrypoint implements ClientModInitializer {
+	/**
+	 * Whether the build queue was seen busy since the benchmark started.
+	 */
+	private boolean buildQueueSeenBusy;
+
+	/**
+	 * The number of sections marked dirty by the running benchmark.
+	 */
+	private int sectionCount;
+
+	/**
+	 * The source of the running benchmark, or {@code null} when none is running.
+	 */
+	private FabricClientCommandSource source;
+
+	/**
+	 * The time the running benchmark started, in nanoseconds.
+	 */
+	private long startNanos;
+
+	/**
+	 * Creates a new {@code SodiumTestClientEntrypoint} instance.
+	 */
+	public SodiumTestClientEntrypoint() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onInitializeClient() {
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher
+		        .register(literal("simply-no-shading-benchmark").executes(context -> start(context.getSource()))));
+		ClientTickEvents.END_CLIENT_TICK.register(this::tick);
+	}
+
+	/**
+	 * Starts the benchmark by marking every loaded section dirty.
+	 *
+	 * @param source the command source
+	 * @return the number of sections marked dirty
+	 */
+	private int start(final FabricClientCommandSource source) {
+		this.sectionCount = LevelReshader.reshadeAllSections(source.getClient());
+		this.buildQueueSeenBusy = false;
+		this.source = source;
+		this.startNanos = System.nanoTime();
+
+		source.sendFeedback(Component.literal("Recompiling " + this.sectionCount + " section(s) with "
+		        + SimplyNoShading.getFirstInstance().getSnapshot().activeConfig));
+
+		return this.sectionCount;
+	}
+
+	/**
+	 * Finishes the running benchmark once the build queue drained, reporting the
+	 * throughput.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void tick(final Minecraft minecraft) {
+		final var source = this.source;
+		final var worldRenderer = SodiumWorldRenderer.instanceNullable();
+
+		if (source == null || worldRenderer == null)
+			return;
+
+		if (!worldRenderer.isTerrainRenderComplete()) {
+			this.buildQueueSeenBusy = true;
+			return;
+		}
+
+		if (!this.buildQueueSeenBusy)
+			return;
+
+		final var millis = (System.nanoTime() - this.startNanos) / 1_000_000.0;
+		final var message = "Recompiled " + this.sectionCount + " section(s) in " + millis + " ms ("
+		        + this.sectionCount * 1000.0 / millis + " section(s)/s)";
+
+		SimplyNoShading.LOGGER.info(message);
+		source.sendFeedback(Component.literal(message));
+		this.source = null;
+	}
+}
@@ -0,0 +1,384 @@
+package com.github.startsmercury.simply.no.shading.entrypoint;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.ShadingHooks;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.LevelReshader;
+import com.github.startsmercury.simply.no.shading.client.renderer.TerrainShaders;
+import com.github.startsmercury.simply.no.shading.test.AllocationCheck;
+import com.github.startsmercury.simply.no.shading.test.PatchCheck;
+import com.github.startsmercury.simply.no.shading.test.ToggleBenchmark;
+import com.mojang.blaze3d.platform.GlUtil;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.core.Direction;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+
+/**
+ * The {@code TestClientEntrypoint} class is the client entrypoint of the test
+ * mod. Once the client started, it {@linkplain AllocationCheck checks} that the
+ * per-vertex and per-face shading hooks allocate nothing, with block and cloud
+ * shading both enabled and disabled, including the hooked
+ * {@code BakedQuad.isShade()} of a real model quad, and that a tilted quad is
+ * only shaded from its normal when its block state is shaded. Once a level is joined, it
+ * checks the hooked {@code ClientLevel.getShade(Direction, boolean)} as well,
+ * and that every {@linkplain TerrainShaders terrain shader} was patched by the
+ * driver in use without Sodium, such as Mesa's llvmpipe in the {@code llvmpipeTestClient} run.
+ * Any allocation or unpatched shader fails the run.
+ * <p>
+ * It adds the {@linkplain ToggleBenchmark {@code /simply-no-shading-toggle}}
+ * command as well.
+ * <p>
+ * Without Sodium, it also adds the {@code /simply-no-shading-meshing} command,
+ * which empties the {@linkplain SimplyNoShading#getMeshCache() mesh cache},
+ * marks every loaded section dirty and reports the
+ * {@linkplain SimplyNoShading#getMeshingStats() time spent meshing} them on the
+ * compile worker threads once no more section is meshed. Running it with block
+ * shading on and off measures the per-quad shading hooks of the vanilla
+ * renderer. The {@linkplain PatchCheck {@code /simply-no-shading-patch-check}}
+ * command is added as well.
+ *
+ * @since 6.1.0
+ */
+public class TestClientEntrypoint implements ClientModInitializer {
+	/**
+	 * The face directions, kept so that no hook call clones
+	 * {@link Direction#values()}.
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * The positions of the vertices of a quad sloped between the up and west
+	 * faces, which is shaded from its normal.
+	 */
+	private static final float[][] TILTED_QUAD_POSITIONS = { { 0.0F, 0.0F, 0.0F }, { 0.0F, 0.0F, 1.0F },
+	        { 1.0F, 1.0F, 1.0F }, { 1.0F, 1.0F, 0.0F } };
+
+	/**
+	 * The vanilla cloud face brightness factors.
+	 */
+	private static final float[] VANILLA_CLOUD_BRIGHTNESS = { 0.7F, 0.8F, 0.9F };
+
+	/**
+	 * The vanilla cloud face colors, from the bottom faces to the top faces.
+	 */
+	private static final int[] VANILLA_CLOUD_COLORS = { 0xFFB2B2B2, 0xFFCCCCCC, 0xFFE5E5E5, 0xFFFFFFFF };
+
+	/**
+	 * The number of ticks without any section meshed after which the meshing
+	 * measurement finishes.
+	 */
+	private static final int IDLE_TICKS = 40;
+
+	/**
+	 * The number of ticks since a section was last meshed during the running
+	 * measurement.
+	 */
+	private int idleTicks;
+
+	/**
+	 * Whether the hooks called with a level were checked.
+	 */
+	private boolean levelChecked;
+
+	/**
+	 * The number of sections meshed when the running measurement started, or
+	 * last ticked.
+	 */
+	private long meshCount;
+
+	/**
+	 * The number of sections meshed when the running measurement started.
+	 */
+	private long meshCountStart;
+
+	/**
+	 * The time spent meshing when the running measurement started, in
+	 * nanoseconds.
+	 */
+	private long meshNanosStart;
+
+	/**
+	 * The number of sections marked dirty by the running measurement.
+	 */
+	private int sectionCount;
+
+	/**
+	 * The source of the running measurement, or {@code null} when none is
+	 * running.
+	 */
+	private FabricClientCommandSource source;
+
+	/**
+	 * Creates a new {@code TestClientEntrypoint} instance.
+	 */
+	public TestClientEntrypoint() {
+	}
+
+	/**
+	 * Checks that a tilted quad of a block state without an unshaded variant is
+	 * only shaded from its normal when the state is shaded, collecting the
+	 * failures. Block shading is disabled with an exemption, so that some block
+	 * may be shaded and normal shading is in effect.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param failures  the failures
+	 */
+	private void checkNormalShade(final Minecraft minecraft, final List<String> failures) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var config = simplyNoShading.getConfig();
+		final var unshaded = Blocks.STONE.defaultBlockState();
+		final var exempt = Blocks.GLASS.defaultBlockState();
+		final var quad = createTiltedQuad(minecraft);
+
+		try {
+			simplyNoShading.setConfig(Config.builder(config)
+			        .setBlockShadingEnabled(false)
+			        .setBlockShadingExemptions(List.of("minecraft:glass"))
+			        .setNormalShadingEnabled(true)
+			        .setShaderShadingEnabled(false)
+			        .build());
+
+			if (!simplyNoShading.getSnapshot().isNormalShading())
+				failures.add("Normal shading is not in effect with a block shading exemption");
+			if (ShadingHooks.getNormalShade(quad, exempt) == 1.0F)
+				failures.add("The tilted quad of the exempt " + exempt + " was not shaded from its normal");
+			if (ShadingHooks.getNormalShade(quad, unshaded) != 1.0F)
+				failures.add("The tilted quad of the unshaded " + unshaded + " was shaded from its normal");
+
+			AllocationCheck.check("ShadingHooks.getNormalShade(Object, BlockState)",
+			        i -> Float.floatToRawIntBits(ShadingHooks.getNormalShade(quad, (i & 1) != 0 ? exempt : unshaded)),
+			        failures);
+		} finally {
+			simplyNoShading.setConfig(config);
+		}
+	}
+
+	/**
+	 * Checks the hooks that need no level, collecting the failures.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param failures  the failures
+	 */
+	private void checkHooks(final Minecraft minecraft, final List<String> failures) {
+		final var state = Blocks.STONE.defaultBlockState();
+		final var water = Blocks.WATER.defaultBlockState();
+		final var quads = minecraft.getBlockRenderer()
+		        .getBlockModel(state)
+		        .getQuads(state, Direction.UP, RandomSource.create())
+		        .toArray(new BakedQuad[0]);
+
+		if (quads.length == 0)
+			failures.add("The stone model has no quad to check BakedQuad.isShade() with");
+		else
+			AllocationCheck.check("BakedQuad.isShade()",
+			        i -> quads[i % quads.length].isShade() ? 1 : 0,
+			        failures);
+
+		AllocationCheck.check("ShadingHooks.getCloudFaceColor(int)",
+		        i -> ShadingHooks.getCloudFaceColor(VANILLA_CLOUD_COLORS[i % VANILLA_CLOUD_COLORS.length]),
+		        failures);
+		AllocationCheck.check("ShadingHooks.getCloudShade(float)",
+		        i -> Float.floatToRawIntBits(ShadingHooks.getCloudShade(VANILLA_CLOUD_BRIGHTNESS[i % 3])),
+		        failures);
+		AllocationCheck.check("ShadingHooks.getFluidShade(Direction, BlockState)",
+		        i -> Float.floatToRawIntBits(ShadingHooks.getFluidShade(DIRECTIONS[i % 6], water)),
+		        failures);
+		AllocationCheck.check("ShadingHooks.getShadeFactor(Direction)",
+		        i -> Float.floatToRawIntBits(ShadingHooks.getShadeFactor(DIRECTIONS[i % 6])),
+		        failures);
+		AllocationCheck.check("ShadingHooks.getTableShade(Direction, boolean)",
+		        i -> Float.floatToRawIntBits(ShadingHooks.getTableShade(DIRECTIONS[i % 6], (i & 1) != 0)),
+		        failures);
+		AllocationCheck.check("ShadingHooks.isFaceShaded(boolean)",
+		        i -> ShadingHooks.isFaceShaded((i & 1) != 0) ? 1 : 0,
+		        failures);
+		AllocationCheck.check("ShadingHooks.isLiquidShaded(boolean, BlockState)",
+		        i -> ShadingHooks.isLiquidShaded((i & 1) != 0, water) ? 1 : 0,
+		        failures);
+		AllocationCheck.check("ShadingHooks.isQuadShaded(boolean)",
+		        i -> ShadingHooks.isQuadShaded((i & 1) != 0) ? 1 : 0,
+		        failures);
+	}
+
+	/**
+	 * Creates a quad baked shaded that is {@linkplain #TILTED_QUAD_POSITIONS
+	 * sloped} between the up and west faces.
+	 *
+	 * @param minecraft the minecraft client
+	 * @return the tilted quad
+	 */
+	private BakedQuad createTiltedQuad(final Minecraft minecraft) {
+		final var stride = DefaultVertexFormat.BLOCK.getIntegerSize();
+		final var vertices = new int[TILTED_QUAD_POSITIONS.length * stride];
+
+		for (var vertex = 0; vertex < TILTED_QUAD_POSITIONS.length; vertex++) {
+			for (var axis = 0; axis < 3; axis++)
+				vertices[vertex * stride + axis] = Float.floatToRawIntBits(TILTED_QUAD_POSITIONS[vertex][axis]);
+
+			vertices[vertex * stride + 3] = -1;
+		}
+
+		return new BakedQuad(vertices,
+		        -1,
+		        Direction.UP,
+		        minecraft.getBlockRenderer().getBlockModelShaper().getParticleIcon(Blocks.STONE.defaultBlockState()),
+		        true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onInitializeClient() {
+		ClientLifecycleEvents.CLIENT_STARTED.register(this::verify);
+		ClientTickEvents.END_CLIENT_TICK.register(this::verifyLevel);
+		new ToggleBenchmark().register();
+
+		if (FabricLoader.getInstance().isModLoaded("sodium"))
+			return;
+
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher
+		        .register(literal("simply-no-shading-meshing").executes(context -> startMeshing(context.getSource()))));
+		ClientTickEvents.END_CLIENT_TICK.register(this::tickMeshing);
+		new PatchCheck().register();
+	}
+
+	/**
+	 * Starts the meshing measurement by emptying the mesh cache, so that no
+	 * section is replayed, and marking every loaded section dirty.
+	 *
+	 * @param source the command source
+	 * @return the number of sections marked dirty
+	 */
+	private int startMeshing(final FabricClientCommandSource source) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var meshingStats = simplyNoShading.getMeshingStats();
+
+		simplyNoShading.getMeshCache().clear();
+		this.idleTicks = 0;
+		this.meshCount = meshingStats.getMeshCount();
+		this.meshCountStart = this.meshCount;
+		this.meshNanosStart = meshingStats.getMeshNanos();
+		this.sectionCount = LevelReshader.reshadeAllSections(source.getClient());
+		this.source = source;
+
+		source.sendFeedback(Component.literal("Meshing " + this.sectionCount + " section(s) with "
+		        + simplyNoShading.getSnapshot().activeConfig));
+
+		return this.sectionCount;
+	}
+
+	/**
+	 * Finishes the running meshing measurement once no section was meshed for
+	 * {@link #IDLE_TICKS} ticks, reporting the meshing time per section.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void tickMeshing(final Minecraft minecraft) {
+		final var source = this.source;
+
+		if (source == null)
+			return;
+
+		final var meshingStats = SimplyNoShading.getFirstInstance().getMeshingStats();
+		final var meshCount = meshingStats.getMeshCount();
+
+		if (meshCount != this.meshCount) {
+			this.meshCount = meshCount;
+			this.idleTicks = 0;
+			return;
+		}
+
+		if (++this.idleTicks < IDLE_TICKS)
+			return;
+
+		final var meshed = meshCount - this.meshCountStart;
+		final var millis = (meshingStats.getMeshNanos() - this.meshNanosStart) / 1_000_000.0;
+		final var message = "Meshed " + meshed + " of " + this.sectionCount + " section(s) in " + millis
+		        + " ms of compile thread time (" + (meshed != 0 ? millis * 1000.0 / meshed : 0.0)
+		        + " µs per section)";
+
+		SimplyNoShading.LOGGER.info(message);
+		source.sendFeedback(Component.literal(message));
+		this.source = null;
+	}
+
+	/**
+	 * Verifies that the hooks that need no level allocate nothing, with block and
+	 * cloud shading both enabled and disabled, and that tilted quads follow the
+	 * shading of their block state.
+	 *
+	 * @param minecraft the minecraft client
+	 * @throws AssertionError when any hook allocated or a tilted quad was shaded
+	 *                        the wrong way
+	 */
+	private void verify(final Minecraft minecraft) {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var config = simplyNoShading.getConfig();
+		final var failures = new ArrayList<String>();
+
+		try {
+			for (final var shadingEnabled : new boolean[] { false, true }) {
+				simplyNoShading.setConfig(Config.builder(config)
+				        .setBlockShadingEnabled(shadingEnabled)
+				        .setCloudShadingEnabled(shadingEnabled)
+				        .build());
+				checkHooks(minecraft, failures);
+			}
+		} finally {
+			simplyNoShading.setConfig(config);
+		}
+
+		checkNormalShade(minecraft, failures);
+
+		AllocationCheck.assertNoFailures(failures);
+	}
+
+	/**
+	 * Verifies that the hooked {@code ClientLevel.getShade(Direction, boolean)}
+	 * allocates nothing and that every terrain shader was patched, once the first
+	 * level is joined. As this runs from a client tick, failures are
+	 * {@linkplain AllocationCheck#reportFailures(Minecraft, List) reported}
+	 * rather than thrown.
+	 *
+	 * @param minecraft the minecraft client
+	 */
+	private void verifyLevel(final Minecraft minecraft) {
+		final var level = minecraft.level;
+
+		if (this.levelChecked || level == null)
+			return;
+
+		final var failures = new ArrayList<String>();
+		this.levelChecked = true;
+
+		AllocationCheck.check("ClientLevel.getShade(Direction, boolean)",
+		        i -> Float.floatToRawIntBits(level.getShade(DIRECTIONS[i % 6], (i & 1) != 0)),
+		        failures);
+
+		if (!FabricLoader.getInstance().isModLoaded("sodium")) {
+			if (TerrainShaders.isAvailable())
+				SimplyNoShading.LOGGER.info("The terrain shaders were patched on " + GlUtil.getRenderer());
+			else
+				failures.add("The terrain shaders were not patched on " + GlUtil.getRenderer());
+		}
+
+		AllocationCheck.reportFailures(minecraft, failures);
+	}
+}
@@ -0,0 +1,126 @@
+package com.github.startsmercury.simply.no.shading.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+
+/**
+ * The {@code AllocationCheck} class measures the bytes a hook allocates on the
+ * calling thread over many calls, through the allocation counter of the
+ * {@linkplain com.sun.management.ThreadMXBean thread MX bean}. Hooks run once
+ * per vertex or face are expected to allocate nothing, so anything above a
+ * small slack, which covers the counter reads themselves, is reported.
+ *
+ * @since 6.1.0
+ */
+public class AllocationCheck {
+	/**
+	 * A hook under measurement. The result is folded into a sink, so that the
+	 * call cannot be optimized away.
+	 */
+	@FunctionalInterface
+	public interface Hook {
+		/**
+		 * Calls the hook once.
+		 *
+		 * @param iteration the iteration, which the hook may use to vary its
+		 *                  arguments
+		 * @return anything derived from the result of the hook
+		 */
+		int call(int iteration);
+	}
+
+	/**
+	 * The number of measured calls of every hook.
+	 */
+	public static final int CALLS = 10_000_000;
+
+	/**
+	 * The number of bytes a hook may allocate over all {@link #CALLS calls}
+	 * before being reported.
+	 */
+	public static final long SLACK_BYTES = 1024L;
+
+	/**
+	 * The sum of the results of every hook called, so that no call is dead code.
+	 */
+	private static volatile int sink;
+
+	/**
+	 * Throws when any hook failed its allocation check or any other check.
+	 *
+	 * @param failures the failures
+	 * @throws AssertionError when there is any failure
+	 */
+	public static void assertNoFailures(final List<String> failures) {
+		if (!failures.isEmpty())
+			throw new AssertionError("Hooks allocated on the hot path or failed a check: " + failures);
+	}
+
+	/**
+	 * Measures a hook, adding a failure when it allocated more than
+	 * {@link #SLACK_BYTES}. The hook is called as many times beforehand, so that
+	 * it is compiled when measured. Nothing is measured when the JVM does not
+	 * count allocated bytes per thread.
+	 *
+	 * @param name     the name of the hook
+	 * @param hook     the hook
+	 * @param failures the failures
+	 */
+	public static void check(final String name, final Hook hook, final List<String> failures) {
+		if (!(ManagementFactory.getThreadMXBean() instanceof final com.sun.management.ThreadMXBean threads)
+		        || !threads.isThreadAllocatedMemorySupported()) {
+			SimplyNoShading.LOGGER.warn("Skipped the allocation check of " + name
+			        + " as the JVM does not count allocated bytes per thread");
+			return;
+		}
+
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		var result = 0;
+
+		for (var i = 0; i < CALLS; i++)
+			result += hook.call(i);
+
+		final var before = threads.getCurrentThreadAllocatedBytes();
+
+		for (var i = 0; i < CALLS; i++)
+			result += hook.call(i);
+
+		final var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		sink += result;
+
+		if (allocated > SLACK_BYTES)
+			failures.add(name + " allocated " + allocated + " byte(s) over " + CALLS + " call(s)");
+		else
+			SimplyNoShading.LOGGER.info(name + " allocated " + allocated + " byte(s) over " + CALLS + " call(s)");
+	}
+
+	/**
+	 * Reports every failure as an error in the log and in the chat, instead of
+	 * throwing. Checks run from a client tick report their failures this way, so
+	 * that the tick, and the checks that follow, are not interrupted.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param failures  the failures
+	 */
+	public static void reportFailures(final Minecraft minecraft, final List<String> failures) {
+		for (final var failure : failures) {
+			SimplyNoShading.LOGGER.error("Check failed: " + failure);
+			minecraft.gui.getChat()
+			        .addMessage(Component.literal("Check failed: " + failure).withStyle(ChatFormatting.RED));
+		}
+	}
+
+	/**
+	 * A private constructor that does nothing as of the writing of this
+	 * documentation.
+	 */
+	private AllocationCheck() {
+	}
+}
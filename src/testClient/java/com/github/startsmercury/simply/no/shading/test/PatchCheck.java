@@ -0,0 +1,258 @@
+package com.github.startsmercury.simply.no.shading.test;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionContentHolder;
+import com.github.startsmercury.simply.no.shading.client.renderer.SectionMeshCache;
+import com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft.LevelRendererAccessor;
+import com.github.startsmercury.simply.no.shading.mixin.invalidation.minecraft.RenderChunkInfoAccessor;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.RenderRegionCache;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+
+/**
+ * The {@code PatchCheck} class adds the {@code /simply-no-shading-patch-check}
+ * command, which checks that a {@linkplain SectionMeshCache#patch(long, long,
+ * com.github.startsmercury.simply.no.shading.client.ShadingSnapshot,
+ * net.minecraft.world.level.BlockAndTintGetter) patched} section mesh is
+ * byte-identical to the same section meshed afresh.
+ * <p>
+ * Up to {@link #MAX_SECTIONS} sections visible in the frame last culled are
+ * meshed with block shading disabled, which caches them along with the records
+ * of their quads. Block shading is then enabled and each cached mesh is patched
+ * and replayed. Finally, the cache is emptied, the same sections are meshed
+ * with block shading enabled and replayed, and both outputs are compared layer
+ * by layer. Sections that cannot be patched, such as ones with fluids, or that
+ * changed meanwhile are skipped. Any difference fails the run.
+ *
+ * @since 6.1.0
+ */
+public class PatchCheck {
+	/**
+	 * The maximum number of sections compared.
+	 */
+	public static final int MAX_SECTIONS = 64;
+
+	/**
+	 * The smallest mesh cache budget in megabytes the check runs with.
+	 */
+	public static final int MESH_CACHE_BUDGET_MEGABYTES = 256;
+
+	/**
+	 * The size of a vertex in the block format, to report the first vertex that
+	 * differs.
+	 */
+	private static final int VERTEX_SIZE = 32;
+
+	/**
+	 * Returns the content epoch of a section.
+	 *
+	 * @param section the section
+	 * @return the content epoch of the section
+	 */
+	private static long epochOf(final ChunkRenderDispatcher.RenderChunk section) {
+		return ((SectionContentHolder) section).simplyNoShading$getContentEpoch();
+	}
+
+	/**
+	 * Returns the packed position of a section.
+	 *
+	 * @param section the section
+	 * @return the packed section position
+	 */
+	private static long positionOf(final ChunkRenderDispatcher.RenderChunk section) {
+		return SectionPos.asLong(section.getOrigin());
+	}
+
+	/**
+	 * Creates a new {@code PatchCheck} instance.
+	 */
+	public PatchCheck() {
+	}
+
+	/**
+	 * Compares the patched and fresh vertex data of a section, collecting the
+	 * differences.
+	 *
+	 * @param section    the section
+	 * @param patched    the vertex data of each layer of the patched mesh
+	 * @param fresh      the vertex data of each layer of the fresh mesh
+	 * @param mismatches the differences
+	 */
+	private void compare(final ChunkRenderDispatcher.RenderChunk section,
+	        final Map<RenderType, byte[]> patched,
+	        final Map<RenderType, byte[]> fresh,
+	        final List<String> mismatches) {
+		if (!patched.keySet().equals(fresh.keySet())) {
+			mismatches.add("Section " + section.getOrigin() + " has the layers " + patched.keySet()
+			        + " when patched but " + fresh.keySet() + " when fresh");
+			return;
+		}
+
+		for (final var layer : patched.entrySet()) {
+			final var expected = fresh.get(layer.getKey());
+			final var index = Arrays.mismatch(layer.getValue(), expected);
+
+			if (index >= 0)
+				mismatches.add("Section " + section.getOrigin() + " differs in " + layer.getKey() + " at byte " + index
+				        + " (vertex " + index / VERTEX_SIZE + ") of " + expected.length);
+		}
+	}
+
+	/**
+	 * Registers the command of the check.
+	 */
+	public void register() {
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher
+		        .register(literal("simply-no-shading-patch-check").executes(context -> run(context.getSource()))));
+	}
+
+	/**
+	 * Replays a cached mesh into the builders and copies the vertex data of each
+	 * layer, then releases the mesh.
+	 *
+	 * @param minecraft the minecraft client
+	 * @param section   the section
+	 * @param mesh      the pinned mesh
+	 * @param buffers   the builders
+	 * @return the vertex data of each layer
+	 */
+	private Map<RenderType, byte[]> replay(final Minecraft minecraft,
+	        final ChunkRenderDispatcher.RenderChunk section,
+	        final SectionMeshCache.Mesh mesh,
+	        final ChunkBufferBuilderPack buffers) {
+		final var camera = minecraft.gameRenderer.getMainCamera().getPosition();
+		final var renderedLayers = new IdentityHashMap<RenderType, BufferBuilder.RenderedBuffer>();
+		final var vertices = new IdentityHashMap<RenderType, byte[]>();
+
+		try {
+			mesh.replay(buffers,
+			        (float) camera.x(),
+			        (float) camera.y(),
+			        (float) camera.z(),
+			        section.getOrigin(),
+			        renderedLayers);
+
+			for (final var layer : renderedLayers.entrySet()) {
+				final var vertexBuffer = layer.getValue().vertexBuffer();
+				final var bytes = new byte[vertexBuffer.remaining()];
+
+				vertexBuffer.duplicate().get(bytes);
+				vertices.put(layer.getKey(), bytes);
+			}
+		} finally {
+			renderedLayers.values().forEach(BufferBuilder.RenderedBuffer::release);
+			SimplyNoShading.getFirstInstance().getMeshCache().release(mesh);
+		}
+
+		return vertices;
+	}
+
+	/**
+	 * Runs the check on the sections visible in the frame last culled.
+	 *
+	 * @param source the command source
+	 * @return the number of sections compared
+	 * @throws AssertionError when a patched mesh differs from a fresh one
+	 */
+	private int run(final FabricClientCommandSource source) {
+		final var minecraft = source.getClient();
+		final var level = minecraft.level;
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var meshCache = simplyNoShading.getMeshCache();
+		final var config = simplyNoShading.getConfig();
+		final var sections = new ArrayList<ChunkRenderDispatcher.RenderChunk>();
+
+		for (final Object renderChunkInfo : ((LevelRendererAccessor) minecraft.levelRenderer)
+		        .getRenderChunksInFrustum()) {
+			if (sections.size() >= MAX_SECTIONS)
+				break;
+
+			sections.add(((RenderChunkInfoAccessor) renderChunkInfo).getChunk());
+		}
+
+		final var builder = Config.builder(config)
+		        .setMeshCacheBudgetMegabytes(Math.max(config.getMeshCacheBudgetMegabytes(), MESH_CACHE_BUDGET_MEGABYTES))
+		        .setNormalShadingEnabled(false)
+		        .setShaderShadingEnabled(false);
+		final var buffers = new ChunkBufferBuilderPack();
+		final var epochs = new Long2LongOpenHashMap();
+		final var patched = new Long2ObjectOpenHashMap<Map<RenderType, byte[]>>();
+		final var mismatches = new ArrayList<String>();
+		var compared = 0;
+
+		try {
+			simplyNoShading.setConfig(builder.setBlockShadingEnabled(false).build());
+			meshCache.clear();
+
+			for (final var section : sections) {
+				section.compileSync(new RenderRegionCache());
+				epochs.put(positionOf(section), epochOf(section));
+			}
+
+			simplyNoShading.setConfig(builder.setBlockShadingEnabled(true).build());
+
+			final var snapshot = simplyNoShading.getSnapshot();
+
+			for (final var section : sections) {
+				final var mesh = meshCache.patch(positionOf(section), epochOf(section), snapshot, level);
+
+				if (mesh != null)
+					patched.put(positionOf(section), replay(minecraft, section, mesh, buffers));
+			}
+
+			meshCache.clear();
+
+			for (final var section : sections) {
+				final var position = positionOf(section);
+				final var expected = patched.get(position);
+
+				if (expected == null || epochs.get(position) != epochOf(section))
+					continue;
+
+				section.compileSync(new RenderRegionCache());
+
+				final var mesh = meshCache.lookup(position, epochOf(section), snapshot.meshingKey);
+
+				if (mesh == null)
+					continue;
+
+				compare(section, expected, replay(minecraft, section, mesh, buffers), mismatches);
+				compared++;
+			}
+		} finally {
+			buffers.discardAll();
+			simplyNoShading.setConfig(config);
+			meshCache.clear();
+		}
+
+		if (!mismatches.isEmpty())
+			throw new AssertionError("Patched section meshes differ from fresh ones: " + mismatches);
+
+		final var message = "Patched meshes of " + compared + " of " + sections.size()
+		        + " section(s) are byte-identical to fresh ones";
+
+		SimplyNoShading.LOGGER.info(message);
+		source.sendFeedback(Component.literal(message));
+
+		return compared;
+	}
+}
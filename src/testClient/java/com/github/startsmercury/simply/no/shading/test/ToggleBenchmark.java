@@ -0,0 +1,174 @@
+package com.github.startsmercury.simply.no.shading.test;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+import com.github.startsmercury.simply.no.shading.client.Config;
+import com.github.startsmercury.simply.no.shading.client.SimplyNoShading;
+
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.network.chat.Component;
+
+/**
+ * The {@code ToggleBenchmark} class adds the
+ * {@code /simply-no-shading-toggle} command, which compares the cost of
+ * toggling block shading on the shading path in use. It measures the mean
+ * frame time over {@link #FRAME_COUNT} frames, toggles block shading while
+ * timing the config change, measures the mean and worst frame time over as many
+ * frames, which includes any re-meshing the toggle caused, and toggles block
+ * shading back. Running it with shader shading enabled and disabled compares
+ * the shader path with the CPU path.
+ *
+ * @since 6.1.0
+ */
+public class ToggleBenchmark {
+	/**
+	 * The number of frames measured before and after the toggle.
+	 */
+	public static final int FRAME_COUNT = 300;
+
+	/**
+	 * The number of frames measured so far in the current phase.
+	 */
+	private int frameCount;
+
+	/**
+	 * The time the last frame ended, in nanoseconds, or {@code 0L} before the
+	 * first measured frame.
+	 */
+	private long frameEndNanos;
+
+	/**
+	 * The total frame time measured before the toggle, in nanoseconds.
+	 */
+	private long framesBeforeNanos;
+
+	/**
+	 * The total frame time measured in the current phase, in nanoseconds.
+	 */
+	private long framesNanos;
+
+	/**
+	 * The longest frame time measured in the current phase, in nanoseconds.
+	 */
+	private long maxFrameNanos;
+
+	/**
+	 * The source of the running benchmark, or {@code null} when none is running.
+	 */
+	private FabricClientCommandSource source;
+
+	/**
+	 * The time the toggle took, in nanoseconds, or {@code -1L} before the toggle.
+	 */
+	private long toggleNanos;
+
+	/**
+	 * Creates a new {@code ToggleBenchmark} instance.
+	 */
+	public ToggleBenchmark() {
+	}
+
+	/**
+	 * Measures the frame that just ended, toggling block shading or finishing the
+	 * benchmark once enough frames were measured.
+	 */
+	private void endFrame() {
+		final var source = this.source;
+
+		if (source == null)
+			return;
+
+		final var now = System.nanoTime();
+		final var frameEndNanos = this.frameEndNanos;
+		this.frameEndNanos = now;
+
+		if (frameEndNanos == 0L)
+			return;
+
+		final var frameNanos = now - frameEndNanos;
+		this.framesNanos += frameNanos;
+		this.maxFrameNanos = Math.max(this.maxFrameNanos, frameNanos);
+
+		if (++this.frameCount < FRAME_COUNT)
+			return;
+
+		if (this.toggleNanos < 0L) {
+			this.framesBeforeNanos = this.framesNanos;
+			this.toggleNanos = toggle();
+			this.frameCount = 0;
+			this.framesNanos = 0L;
+			this.maxFrameNanos = 0L;
+			this.frameEndNanos = System.nanoTime();
+			return;
+		}
+
+		toggle();
+
+		final var message = "Toggled block shading with shaderShadingEnabled="
+		        + SimplyNoShading.getFirstInstance().getConfig().isShaderShadingEnabled() + " in "
+		        + this.toggleNanos / 1_000_000.0 + " ms; mean frame time "
+		        + meanFrameMillis(this.framesBeforeNanos) + " ms before, " + meanFrameMillis(this.framesNanos)
+		        + " ms after (worst " + this.maxFrameNanos / 1_000_000.0 + " ms) over " + FRAME_COUNT + " frame(s)";
+
+		SimplyNoShading.LOGGER.info(message);
+		source.sendFeedback(Component.literal(message));
+		this.source = null;
+	}
+
+	/**
+	 * Returns the mean frame time of the measured frames of a phase, in
+	 * milliseconds.
+	 *
+	 * @param framesNanos the total frame time of the phase, in nanoseconds
+	 * @return the mean frame time in milliseconds
+	 */
+	private double meanFrameMillis(final long framesNanos) {
+		return framesNanos / (FRAME_COUNT * 1_000_000.0);
+	}
+
+	/**
+	 * Registers the command and the frame listener of the benchmark.
+	 */
+	public void register() {
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher
+		        .register(literal("simply-no-shading-toggle").executes(context -> start(context.getSource()))));
+		WorldRenderEvents.END.register(context -> endFrame());
+	}
+
+	/**
+	 * Starts the benchmark, measuring frames before the toggle.
+	 *
+	 * @param source the command source
+	 * @return {@code 1}
+	 */
+	private int start(final FabricClientCommandSource source) {
+		this.frameCount = 0;
+		this.frameEndNanos = 0L;
+		this.framesNanos = 0L;
+		this.maxFrameNanos = 0L;
+		this.source = source;
+		this.toggleNanos = -1L;
+
+		source.sendFeedback(Component.literal("Measuring " + FRAME_COUNT + " frame(s) before and after toggling "
+		        + "block shading with " + SimplyNoShading.getFirstInstance().getSnapshot().activeConfig));
+
+		return 1;
+	}
+
+	/**
+	 * Toggles block shading, timing the config change.
+	 *
+	 * @return the time the toggle took, in nanoseconds
+	 */
+	private long toggle() {
+		final var simplyNoShading = SimplyNoShading.getFirstInstance();
+		final var config = simplyNoShading.getConfig();
+		final var startNanos = System.nanoTime();
+
+		simplyNoShading.setConfig(config.withFlags(config.flags ^ Config.BLOCK_SHADING_FLAG));
+
+		return System.nanoTime() - startNanos;
+	}
+}